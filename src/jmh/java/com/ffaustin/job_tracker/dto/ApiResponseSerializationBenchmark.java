@@ -0,0 +1,86 @@
+package com.ffaustin.job_tracker.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of a page of job applications: the serialized Spring Page of entities
+ * against the PageResponse of summaries the list endpoints now return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ApiResponse<Page<JobApplication>> entityPage;
+    private ApiResponse<PageResponse<JobApplicationSummary>> summaryPage;
+
+    @Setup
+    public void setUp(){
+        // configured like Spring Boot's auto-configured mapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writer();
+
+        List<JobApplication> entities = new ArrayList<>(pageSize);
+        List<JobApplicationSummary> summaries = new ArrayList<>(pageSize);
+        for(int i = 0; i < pageSize; i++){
+            LocalDate applied = LocalDate.of(2025, 1, 1).plusDays(i % 365);
+            JobStatus status = JobStatus.values()[i % JobStatus.values().length];
+
+            JobApplication entity = new JobApplication("Software Engineer " + i, "Company " + i % 50, "LinkedIn",
+                    "https://jobs.example.com/" + i, status, applied, null, null);
+            entity.setId((long) i);
+            entities.add(entity);
+
+            summaries.add(new JobApplicationSummary((long) i, "Software Engineer " + i, "Company " + i % 50, "LinkedIn",
+                    "https://jobs.example.com/" + i, status, applied, null, 0L));
+        }
+
+        PageRequest pageRequest = PageRequest.of(0, pageSize);
+        entityPage = ApiResponse.of(200, "Job applications fetched successfully", new PageImpl<>(entities, pageRequest, 5000));
+        summaryPage = ApiResponse.of(200, "Job applications fetched successfully",
+                PageResponse.from(new PageImpl<>(summaries, pageRequest, 5000)));
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPageResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(summaryPage);
+    }
+}
@@ -0,0 +1,362 @@
+package com.ffaustin.job_tracker.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ffaustin.job_tracker.JobTrackerApplication;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.repository.JobApplicationBatchWriter;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.util.JwtUtil;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test: boots the application on a fresh H2 database, seeds users and job applications, then drives
+ * a weighted mix of login, list, filter and create requests over HTTP from closed-loop virtual-thread clients,
+ * so every request crosses the filter chain, JPA and Jackson. Latencies are recorded per endpoint in HdrHistograms
+ * (warm-up excluded) and reported as throughput and percentiles, on stdout and as JSON.
+ * <p>
+ * Arguments are key=value pairs; keys starting with "spring." or "server." are passed to the application:
+ * <pre>
+ * clients=64 duration=PT30S warmup=PT10S users=20 jobs-per-user=200
+ * mix=login:5,list:60,filter:25,create:10 out=target/load-report.json spring.threads.virtual.enabled=true
+ * </pre>
+ * Clients send their next request as soon as the previous one returns, so latencies are those of a saturated server,
+ * not of a fixed arrival rate.
+ */
+public class LoadHarness {
+
+    private static final String PASSWORD = "LoadTest123!";
+
+    enum Endpoint { LOGIN, LIST, FILTER, CREATE }
+
+    private final Map<String, String> settings;
+    private final Map<String, Object> applicationProperties = new HashMap<>();
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    // response status -> count, per endpoint; 0 stands for an I/O failure
+    private final Map<Endpoint, Map<Integer, AtomicLong>> statuses = new EnumMap<>(Endpoint.class);
+    private final AtomicLong created = new AtomicLong();
+
+    private HttpClient client;
+    private String baseUrl;
+    private List<User> users;
+    private List<String> tokens;
+
+    LoadHarness(Map<String, String> settings){
+        this.settings = settings;
+        for(Endpoint endpoint : Endpoint.values()){
+            recorders.put(endpoint, new Recorder(3));
+            statuses.put(endpoint, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for(String arg : args){
+            int separator = arg.indexOf('=');
+            if(arg.startsWith("-") || separator < 0){
+                // e.g. the default JMH result options of the benchmark profile
+                System.out.println("Ignoring argument: " + arg);
+                continue;
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        // devtools would relaunch main() in a restart class loader, without these arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new LoadHarness(settings).run();
+    }
+
+    void run() throws Exception {
+        ConfigurableApplicationContext context = start();
+        try{
+            seed(context);
+
+            int clients = Integer.parseInt(setting("clients", "64"));
+            Duration warmup = Duration.parse(setting("warmup", "PT10S"));
+            Duration duration = Duration.parse(setting("duration", "PT30S"));
+            Endpoint[] mix = parseMix(setting("mix", "login:5,list:60,filter:25,create:10"));
+
+            System.out.printf("Running %d clients: %s warm-up, %s measured%n", clients, warmup, duration);
+
+            try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+                client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(executor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+                for(int i = 0; i < clients; i++){
+                    int clientIndex = i;
+                    executor.submit(() -> drive(clientIndex, mix, end));
+                }
+
+                Thread.sleep(warmup.toMillis());
+                // drop everything recorded during warm-up
+                recorders.values().forEach(Recorder::reset);
+                statuses.values().forEach(Map::clear);
+
+                Thread.sleep(duration.toMillis());
+                Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+                recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+                Map<Endpoint, Map<String, Long>> statusCounts = snapshotStatuses();
+
+                executor.shutdown();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+
+                report(histograms, statusCounts, duration);
+            }
+        }
+        finally{
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start(){
+        applicationProperties.put("server.port", "0");
+        applicationProperties.put("spring.datasource.url", "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        applicationProperties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        applicationProperties.put("mail.transport", "local");
+        applicationProperties.put("logging.level.root", "WARN");
+        // keep connections open: Tomcat closing one after 100 requests races with the client reusing it
+        applicationProperties.put("server.tomcat.max-keep-alive-requests", "-1");
+        // the harness logs in from one address far more often than any real client
+        applicationProperties.put("security.login.max-failures-per-address", String.valueOf(Integer.MAX_VALUE));
+        settings.forEach((key, value) -> {
+            if(key.startsWith("spring.") || key.startsWith("server.") || key.startsWith("security.") || key.startsWith("jobs.")){
+                applicationProperties.put(key, value);
+            }
+        });
+
+        SpringApplication application = new SpringApplication(JobTrackerApplication.class);
+        application.setDefaultProperties(applicationProperties);
+        ConfigurableApplicationContext context = application.run();
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        return context;
+    }
+
+    private void seed(ConfigurableApplicationContext context){
+        int userCount = Integer.parseInt(setting("users", "20"));
+        int jobsPerUser = Integer.parseInt(setting("jobs-per-user", "200"));
+
+        // one hash for every user: seeding should not take userCount BCrypt rounds
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        List<User> seeded = new ArrayList<>(userCount);
+        for(int i = 0; i < userCount; i++){
+            seeded.add(User.builder()
+                    .email("load" + i + "@example.com")
+                    .firstName("Load")
+                    .lastName("User " + i)
+                    .password(hash)
+                    .enabled(true)
+                    .build());
+        }
+        users = context.getBean(UserRepository.class).saveAll(seeded);
+
+        JobApplicationBatchWriter batchWriter = context.getBean(JobApplicationBatchWriter.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        tokens = new ArrayList<>(userCount);
+        for(User user : users){
+            List<JobRequest> jobs = new ArrayList<>(jobsPerUser);
+            for(int i = 0; i < jobsPerUser; i++){
+                jobs.add(job(i));
+            }
+            batchWriter.insertAll(user.getId(), jobs);
+            tokens.add("Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail()));
+        }
+
+        System.out.printf("Seeded %d users with %d applications each%n", userCount, jobsPerUser);
+    }
+
+    private void drive(int clientIndex, Endpoint[] mix, long end){
+        int userIndex = clientIndex % users.size();
+
+        while(System.nanoTime() < end){
+            Endpoint endpoint = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+            HttpRequest request = request(endpoint, userIndex);
+
+            long start = System.nanoTime();
+            try{
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorders.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                count(endpoint, response.statusCode());
+            }
+            catch(IOException e){
+                count(endpoint, 0);
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void count(Endpoint endpoint, int status){
+        statuses.get(endpoint).computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    private HttpRequest request(Endpoint endpoint, int userIndex){
+        HttpRequest.Builder builder = switch(endpoint){
+            case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + users.get(userIndex).getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"));
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs?page=0&size=20"))
+                    .header("Authorization", tokens.get(userIndex))
+                    .GET();
+            case FILTER -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs/filter?page=0&size=20"))
+                    .header("Authorization", tokens.get(userIndex))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"status\":\"PENDING\",\"company\":\"co 1\",\"sortBy\":\"dateApplied\",\"direction\":\"desc\"}"));
+            case CREATE -> {
+                long n = created.incrementAndGet();
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs"))
+                        .header("Authorization", tokens.get(userIndex))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"position\":\"Engineer " + n + "\",\"company\":\"Load Co " + n % 50
+                                + "\",\"jobBoardUsed\":\"LinkedIn\",\"status\":\"PENDING\",\"applicationDate\":\"" + LocalDate.now() + "\"}"));
+            }
+        };
+
+        return builder
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private Map<Endpoint, Map<String, Long>> snapshotStatuses(){
+        Map<Endpoint, Map<String, Long>> snapshot = new EnumMap<>(Endpoint.class);
+        statuses.forEach((endpoint, counts) -> {
+            Map<String, Long> statusCounts = new TreeMap<>();
+            counts.forEach((status, count) -> statusCounts.put(status == 0 ? "io-error" : String.valueOf(status), count.get()));
+            snapshot.put(endpoint, statusCounts);
+        });
+        return snapshot;
+    }
+
+    private void report(Map<Endpoint, Histogram> histograms, Map<Endpoint, Map<String, Long>> statusCounts, Duration duration) throws IOException {
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+
+        System.out.printf("%n%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for(Endpoint endpoint : Endpoint.values()){
+            Histogram histogram = histograms.get(endpoint);
+            long errorCount = statusCounts.get(endpoint).entrySet().stream()
+                    .filter(status -> status.getKey().equals("io-error") || Integer.parseInt(status.getKey()) >= 400)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            if(histogram.getTotalCount() == 0 && errorCount == 0){
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errorCount;
+            Map<String, Object> line = line(endpoint.name().toLowerCase(Locale.ROOT), histogram, errorCount, seconds);
+            line.put("statuses", statusCounts.get(endpoint));
+            endpoints.put(endpoint.name().toLowerCase(Locale.ROOT), line);
+        }
+        endpoints.put("all", line("all", total, totalErrors, seconds));
+        report.put("endpoints", endpoints);
+
+        Path out = Path.of(setting("out", "target/load-report.json"));
+        if(out.getParent() != null){
+            Files.createDirectories(out.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("\nReport written to " + out);
+    }
+
+    private static Map<String, Object> line(String name, Histogram histogram, long errorCount, double seconds){
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("requests", histogram.getTotalCount());
+        line.put("errors", errorCount);
+        line.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        line.put("p50Ms", millis(histogram, 50));
+        line.put("p90Ms", millis(histogram, 90));
+        line.put("p99Ms", millis(histogram, 99));
+        line.put("p999Ms", millis(histogram, 99.9));
+        line.put("maxMs", histogram.getMaxValue() / 1000.0);
+
+        System.out.printf("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errorCount,
+                histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+        return line;
+    }
+
+    private static double millis(Histogram histogram, double percentile){
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Expands "login:5,list:60" into a lookup table with each endpoint repeated by its weight.
+     */
+    static Endpoint[] parseMix(String mix){
+        List<Endpoint> table = new ArrayList<>();
+        for(String part : mix.split(",")){
+            String[] weighted = part.trim().split(":");
+            Endpoint endpoint = Endpoint.valueOf(weighted[0].trim().toUpperCase(Locale.ROOT));
+            int weight = weighted.length > 1 ? Integer.parseInt(weighted[1].trim()) : 1;
+            for(int i = 0; i < weight; i++){
+                table.add(endpoint);
+            }
+        }
+        if(table.isEmpty()){
+            throw new IllegalArgumentException("Empty mix: " + mix);
+        }
+        return table.toArray(Endpoint[]::new);
+    }
+
+    private String setting(String key, String defaultValue){
+        return settings.getOrDefault(key, defaultValue);
+    }
+
+    private static JobRequest job(int i){
+        JobStatus[] statuses = JobStatus.values();
+        return new JobRequest(
+                "Engineer " + i,
+                "Co " + i % 40,
+                i % 2 == 0 ? "LinkedIn" : "Indeed",
+                null,
+                statuses[i % statuses.length],
+                null,
+                LocalDate.now().minusDays(i % 365)
+        );
+    }
+}
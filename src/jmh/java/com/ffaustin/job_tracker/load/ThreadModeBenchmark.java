@@ -0,0 +1,161 @@
+package com.ffaustin.job_tracker.load;
+
+import com.ffaustin.job_tracker.JobTrackerApplication;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.repository.JobApplicationBatchWriter;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and latency percentiles of a mixed read/write workload over HTTP, with Tomcat on platform threads
+ * versus virtual threads. Each trial boots the whole application (filter chain, JPA, Jackson) on a fresh H2
+ * database seeded with one user and a few hundred applications; pass -Dspring.datasource.* through -jvmArgs
+ * to run against a real database, where blocking I/O makes the difference between the modes visible.
+ * The default 256 clients exceed Tomcat's 200 platform request threads; scale them with -tg, e.g. -tg 384,64,64.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int SEEDED_APPLICATIONS = 500;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String bearer;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startApplication(){
+        SpringApplication application = new SpringApplication(JobTrackerApplication.class);
+        application.setDefaultProperties(Map.of(
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "server.port", "0",
+                "spring.datasource.url", "jdbc:h2:mem:thread-mode-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto", "create-drop",
+                "mail.transport", "local",
+                "logging.level.root", "WARN",
+                "server.tomcat.max-keep-alive-requests", "-1"
+        ));
+        context = application.run();
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .email("load@example.com")
+                .firstName("Load")
+                .lastName("Test")
+                .password("unused")
+                .enabled(true)
+                .build());
+
+        List<JobRequest> jobs = new ArrayList<>(SEEDED_APPLICATIONS);
+        for(int i = 0; i < SEEDED_APPLICATIONS; i++){
+            jobs.add(job(i));
+        }
+        context.getBean(JobApplicationBatchWriter.class).insertAll(user.getId(), jobs);
+
+        bearer = "Bearer " + context.getBean(JwtUtil.class).generateToken(user.getId(), user.getEmail());
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication(){
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(192)
+    public int listJobs() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs?page=0&size=20")).GET());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(32)
+    public int filterJobs() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs/filter?page=0&size=20"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"status\":\"PENDING\",\"company\":\"co 1\"}")));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(32)
+    public int createJob() throws IOException, InterruptedException {
+        long n = created.incrementAndGet();
+        String body = "{\"position\":\"Engineer " + n + "\",\"company\":\"Load Co " + n % 50
+                + "\",\"jobBoardUsed\":\"LinkedIn\",\"status\":\"PENDING\",\"applicationDate\":\"" + LocalDate.now() + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs")).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request
+                .header("Authorization", bearer)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        if(response.statusCode() >= 400){
+            throw new IllegalStateException(request.build().uri() + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static JobRequest job(int i){
+        JobStatus[] statuses = JobStatus.values();
+        return new JobRequest(
+                "Engineer " + i,
+                "Co " + i % 40,
+                i % 2 == 0 ? "LinkedIn" : "Indeed",
+                null,
+                statuses[i % statuses.length],
+                null,
+                LocalDate.now().minusDays(i % 365)
+        );
+    }
+}
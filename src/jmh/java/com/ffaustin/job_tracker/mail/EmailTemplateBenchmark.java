@@ -0,0 +1,71 @@
+package com.ffaustin.job_tracker.mail;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render throughput of the verification email: the old per-call classpath read and String.replace,
+ * String.replace on a cached copy, and the pre-parsed template with a fresh or reused builder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String LINK = "http://localhost:8080/api/auth/verify?token=3f2c9a4e-5b7d-4e1a-9c3b-8d6f0a2e4b71";
+
+    private EmailTemplate template;
+    private String cachedSource;
+    private Map<String, String> values;
+    private final StringBuilder reused = new StringBuilder(4096);
+
+    @Setup
+    public void setUp() throws IOException {
+        template = new EmailTemplateEngine().template("verification");
+        cachedSource = readSource();
+        values = Map.of("VERIFICATION_LINK", LINK, "YEAR", "2025");
+    }
+
+    @Benchmark
+    public String readAndReplacePerCall() throws IOException {
+        return readSource().replace("{{VERIFICATION_LINK}}", LINK).replace("{{YEAR}}", "2025");
+    }
+
+    @Benchmark
+    public String replaceOnCachedSource(){
+        return cachedSource.replace("{{VERIFICATION_LINK}}", LINK).replace("{{YEAR}}", "2025");
+    }
+
+    @Benchmark
+    public String renderParsed(){
+        return template.render(values);
+    }
+
+    @Benchmark
+    public int renderParsedIntoReusedBuilder(){
+        reused.setLength(0);
+        template.render(values, reused);
+        return reused.length();
+    }
+
+    private static String readSource() throws IOException {
+        return new String(new ClassPathResource("templates/verification.html").getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
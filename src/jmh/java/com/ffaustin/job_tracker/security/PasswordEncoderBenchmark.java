@@ -0,0 +1,64 @@
+package com.ffaustin.job_tracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt at the strength the application uses (BCryptPasswordEncoder's default, 10), called directly and through
+ * the bounded hashing pool, to show what one login or registration costs and what the pool hand-off adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Password123";
+
+    @Param({"direct", "pooled"})
+    public String encoder;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp(){
+        passwordEncoder = encoder.equals("pooled")
+                ? new BoundedPasswordEncoder(Runtime.getRuntime().availableProcessors(), 64, 1, new SimpleMeterRegistry())
+                : new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown(){
+        if(passwordEncoder instanceof BoundedPasswordEncoder bounded){
+            bounded.shutdown();
+        }
+    }
+
+    @Benchmark
+    public String encode(){
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches(){
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.mail.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the verification email as registration does: link encoding plus template rendering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendGridServiceBenchmark {
+
+    private static final String TOKEN = "3q2-7wEjRk6Jc1bZ0xkq9mN4pV8sT2uY5wA7cE9gH1I";
+
+    private SendGridService sendGridService;
+
+    @Setup
+    public void setUp(){
+        // rendering only, the transport is never reached
+        sendGridService = new SendGridService(new EmailTemplateEngine(), null);
+        ReflectionTestUtils.setField(sendGridService, "verifyLinkBase", "http://localhost:8080/api/auth/verify?token=");
+    }
+
+    @Benchmark
+    public String buildVerificationEmail(){
+        return sendGridService.buildVerificationEmail(TOKEN);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ffaustin.job_tracker.specifications;
+
+import com.ffaustin.job_tracker.JobTrackerApplication;
+import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the criteria predicates of the filter endpoint, without executing the query,
+ * on Hibernate's CriteriaBuilder from the application's own persistence unit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobApplicationSpecificationBenchmark {
+
+    private static final JobFilterRequest NO_CRITERIA = new JobFilterRequest(null, null, "dateApplied", "desc");
+    private static final JobFilterRequest ALL_CRITERIA = new JobFilterRequest("interview_scheduled", "goo_gle", "dateApplied", "desc");
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setUp(){
+        SpringApplication application = new SpringApplication(JobTrackerApplication.class);
+        // the security configuration needs the web context, so it starts on a random port
+        application.setDefaultProperties(Map.of(
+                "server.port", "0",
+                "spring.datasource.url", "jdbc:h2:mem:specification-benchmark",
+                "mail.transport", "local",
+                "logging.level.root", "WARN"
+        ));
+        context = application.run();
+
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        cb = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown(){
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate ownerOnly(){
+        return toPredicate(JobApplicationSpecification.withFilters(42L, NO_CRITERIA));
+    }
+
+    @Benchmark
+    public Predicate statusAndCompany(){
+        return toPredicate(JobApplicationSpecification.withFilters(42L, ALL_CRITERIA));
+    }
+
+    private Predicate toPredicate(Specification<JobApplication> specification){
+        CriteriaQuery<JobApplication> query = cb.createQuery(JobApplication.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        return specification.toPredicate(root, query, cb);
+    }
+}
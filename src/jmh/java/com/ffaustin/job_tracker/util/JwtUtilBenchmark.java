@@ -0,0 +1,62 @@
+package com.ffaustin.job_tracker.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing and verifying a JWT, as done on every login and every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp(){
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(42L, "fab@example.com");
+        // same header and payload, signature of another key: parsed fully, then rejected
+        String foreign = new JwtUtil().generateToken(42L, "fab@example.com");
+        tamperedToken = token.substring(0, token.lastIndexOf('.')) + foreign.substring(foreign.lastIndexOf('.'));
+    }
+
+    @Benchmark
+    public String generateToken(){
+        return jwtUtil.generateToken(42L, "fab@example.com");
+    }
+
+    @Benchmark
+    public Claims parseClaims(){
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean parseClaimsRejectingSignature(){
+        try{
+            jwtUtil.parseClaims(tamperedToken);
+            return true;
+        }
+        catch(JwtException e){
+            return false;
+        }
+    }
+}
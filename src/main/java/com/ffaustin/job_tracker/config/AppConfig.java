@@ -1,5 +1,8 @@
 package com.ffaustin.job_tracker.config;
 
+import com.ffaustin.job_tracker.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -7,8 +10,17 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 @Configuration
 public class AppConfig {
 
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt runs on its own bounded pool so hashing bursts cannot starve request threads;
+     * a thread count of 0 means one thread per available core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BCryptPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                 @Value("${security.password-hashing.threads:0}") int threads,
+                                                 @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds)
+    {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
     }
 }
@@ -0,0 +1,38 @@
+package com.ffaustin.job_tracker.config;
+
+import com.ffaustin.job_tracker.metrics.SqlStatementBudgetInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics defaults, from {@code metrics.properties}: any of them can be overridden in the application's own configuration.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementBudgetInterceptor statementBudgetInterceptor;
+
+    public MetricsConfig(SqlStatementBudgetInterceptor statementBudgetInterceptor){
+        this.statementBudgetInterceptor = statementBudgetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry){
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+
+    /**
+     * Turns on the Hibernate statistics that Spring Boot exports as the {@code hibernate.*} meters,
+     * unless {@code spring.jpa.properties.hibernate.generate_statistics} says otherwise.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateMetricsCustomizer(){
+        return properties -> properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, "true");
+    }
+}
@@ -1,7 +1,9 @@
 package com.ffaustin.job_tracker.controller;
 
 import com.ffaustin.job_tracker.dto.*;
+import com.ffaustin.job_tracker.metrics.SqlStatementBudget;
 import com.ffaustin.job_tracker.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,7 @@ public class AuthController {
     }
 
     @PostMapping("/register")
+    @SqlStatementBudget(4)
     public ResponseEntity<ApiResponse<String>> register(@Valid @RequestBody RegisterRequest registerRequest){
         authService.register(registerRequest);
 
@@ -28,25 +31,29 @@ public class AuthController {
     }
 
     @GetMapping("/verify")
+    @SqlStatementBudget(3)
     public ResponseEntity<ApiResponse<String>> verifyEmail(@RequestParam("token") String token){
         authService.verifyEmailToken(token);
         return ResponseEntity.ok(ApiResponse.of(200, "Account verified", "Your account is now enabled."));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request){
-        LoginResponse response = authService.login(request);
+    @SqlStatementBudget(2)
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest){
+        LoginResponse response = authService.login(request, httpRequest.getRemoteAddr());
 
         return ResponseEntity.ok(ApiResponse.of(200, "successful login", response));
     }
 
     @PostMapping("/forgot-password")
+    @SqlStatementBudget(5)
     public ResponseEntity<ApiResponse<String>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request){
         authService.sendPasswordResetToken(request.email());
         return ResponseEntity.ok(ApiResponse.of(200, "Reset email sent", "Check your inbox for reset link."));
     }
 
     @PostMapping("/reset-password")
+    @SqlStatementBudget(4)
     public ResponseEntity<ApiResponse<String>> resetPassword(@Valid @RequestBody ResetPasswordRequest request){
         authService.resetPassword(request.token(), request.newPassword());
         return ResponseEntity.ok(ApiResponse.of(200, "Password updated", "You can now log in with your new password."));
@@ -1,19 +1,43 @@
 package com.ffaustin.job_tracker.controller;
 
 import com.ffaustin.job_tracker.dto.ApiResponse;
+import com.ffaustin.job_tracker.dto.BulkJobRequest;
+import com.ffaustin.job_tracker.dto.BulkJobResult;
+import com.ffaustin.job_tracker.dto.CursorPage;
+import com.ffaustin.job_tracker.dto.ImportReport;
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobFileFormat;
 import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
 import com.ffaustin.job_tracker.dto.JobRequest;
-import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStatsResponse;
+import com.ffaustin.job_tracker.dto.PageResponse;
+import com.ffaustin.job_tracker.exception.PreconditionFailedException;
+import com.ffaustin.job_tracker.metrics.SqlStatementBudget;
+import com.ffaustin.job_tracker.security.AuthenticatedUser;
 import com.ffaustin.job_tracker.service.JobApplicationService;
+import com.ffaustin.job_tracker.service.JobDataVersions;
+import com.ffaustin.job_tracker.service.JobExportService;
+import com.ffaustin.job_tracker.service.JobImportService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/jobs")
@@ -21,29 +45,81 @@ public class JobApplicationController {
     private static final Logger logger = LoggerFactory.getLogger(JobApplicationController.class);
 
     private final JobApplicationService jobApplicationService;
+    private final JobImportService jobImportService;
+    private final JobExportService jobExportService;
+    private final JobDataVersions dataVersions;
 
-    public JobApplicationController(JobApplicationService jobApplicationService){
+    public JobApplicationController(JobApplicationService jobApplicationService,
+                                    JobImportService jobImportService,
+                                    JobExportService jobExportService,
+                                    JobDataVersions dataVersions){
         this.jobApplicationService = jobApplicationService;
+        this.jobImportService = jobImportService;
+        this.jobExportService = jobExportService;
+        this.dataVersions = dataVersions;
     }
 
 
     /**
      * Retrieves a paginated list of job applications for the authenticated user.
-     * @param principal the current user (identified by email)
+     * Answered with 304 and no database access when If-None-Match holds the current ETag.
+     * @param currentUser the current user
      * @param page the page number (default 0)
-     * @param size the size per page (default 10)
+     * @param size the size per page (default 10, capped server-side)
+     * @param webRequest the request, for its If-None-Match header
      * @return paginated job applications
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<JobApplication>>> getUserJobs(
-        Principal principal,
+    @SqlStatementBudget(2)
+    public ResponseEntity<ApiResponse<PageResponse<JobApplicationSummary>>> getUserJobs(
+        @AuthenticationPrincipal AuthenticatedUser currentUser,
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        WebRequest webRequest
     )
     {
-        Page<JobApplication> jobs = jobApplicationService.getUserJobs(principal.getName(), page, size);
+        String etag = dataVersions.etag(currentUser.getId(), "page", page, size);
+        if(webRequest.checkNotModified(etag)){
+            return null;
+        }
 
-        return ResponseEntity.ok(
+        Page<JobApplicationSummary> jobs = jobApplicationService.getUserJobs(currentUser.getId(), page, size);
+
+        return ResponseEntity.ok().eTag(etag).body(
+                ApiResponse.of(200, "Job applications fetched successfully", PageResponse.from(jobs))
+        );
+    }
+
+
+    /**
+     * Retrieves one keyset-paginated slice of the authenticated user's job applications,
+     * newest application date first. Selected by the presence of the {@code after} parameter;
+     * pass it empty for the first slice.
+     * @param currentUser the current user
+     * @param after the cursor returned with the previous slice
+     * @param size the size per slice (default 10, capped server-side)
+     * @param includeTotal whether to include the total number of applications (default false)
+     * @param webRequest the request, for its If-None-Match header
+     * @return the slice and the cursor of the next one
+     */
+    @GetMapping(params = "after")
+    @SqlStatementBudget(3)
+    public ResponseEntity<ApiResponse<CursorPage<JobApplicationSummary>>> getUserJobsAfter(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest webRequest
+    )
+    {
+        String etag = dataVersions.etag(currentUser.getId(), "after", after, size, includeTotal);
+        if(webRequest.checkNotModified(etag)){
+            return null;
+        }
+
+        CursorPage<JobApplicationSummary> jobs = jobApplicationService.getUserJobsAfter(currentUser.getId(), after, size, includeTotal);
+
+        return ResponseEntity.ok().eTag(etag).body(
                 ApiResponse.of(200, "Job applications fetched successfully", jobs)
         );
     }
@@ -52,15 +128,17 @@ public class JobApplicationController {
     /**
      * Create a new job application for an authenticated user.
      * @param jobRequest
-     * @param principal
+     * @param currentUser
      * @return
      */
     @PostMapping
+    // INSERT, counter batch, status event batch
+    @SqlStatementBudget(3)
     public ResponseEntity<ApiResponse<String>> createAJobApplication(
             @RequestBody @Valid JobRequest jobRequest,
-            Principal principal)
+            @AuthenticationPrincipal AuthenticatedUser currentUser)
     {
-        jobApplicationService.createJob(jobRequest, principal.getName());
+        jobApplicationService.createJob(jobRequest, currentUser.getId());
 
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.of(201, "Job created successfully", null));
     }
@@ -70,47 +148,293 @@ public class JobApplicationController {
      * Update an existing job application for an authenticated user.
      * @param jobId the id specifying the job
      * @param request
-     * @param principal
-     * @return
+     * @param currentUser
+     * @param ifMatch the job's version as last read, quoted; the update is refused with 412 if it changed since
+     * @return the new version as the ETag
      */
     @PutMapping("/{jobId}")
+    // load, versioned UPDATE, counter batch, then the status history: read, event batch, duration batch
+    @SqlStatementBudget(6)
     public ResponseEntity<ApiResponse<String>> updateJobApplication(
             @PathVariable Long jobId,
             @RequestBody @Valid JobRequest request,
-            Principal principal
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     )
     {
-        jobApplicationService.updateJob(jobId, request, principal.getName());
+        Long version = jobApplicationService.updateJob(jobId, request, currentUser.getId(), expectedVersion(ifMatch));
 
-        return ResponseEntity.ok(
+        return ResponseEntity.ok().eTag(String.valueOf(version)).body(
                 ApiResponse.of(200, "Job updated successfully", null)
         );
     }
 
+    /**
+     * Changes some fields of an existing job application for an authenticated user, in one UPDATE statement.
+     * @param jobId the id specifying the job
+     * @param patch the fields to change; null or missing ones are left as they are
+     * @param currentUser
+     * @param ifMatch the job's version as last read, quoted; the update is refused with 412 if it changed since
+     * @return the new version as the ETag, when If-Match was given
+     */
+    @PatchMapping("/{jobId}")
+    // UPDATE returning the replaced buckets, the status history (read, event batch, duration batch), counter batch;
+    // a patch leaving the status, job board and date alone is the UPDATE alone
+    @SqlStatementBudget(5)
+    public ResponseEntity<ApiResponse<String>> patchJobApplication(
+            @PathVariable Long jobId,
+            @RequestBody JobPatchRequest patch,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    )
+    {
+        Long version = jobApplicationService.patchJob(jobId, patch, currentUser.getId(), expectedVersion(ifMatch));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(version != null){
+            response.eTag(String.valueOf(version));
+        }
+        return response.body(ApiResponse.of(200, "Job updated successfully", null));
+    }
+
+    /**
+     * Delete a job application of an authenticated user. Takes no body.
+     * @param jobId the id specifying the job
+     * @param currentUser
+     * @param ifMatch the job's version as last read, quoted; the delete is refused with 412 if it changed since
+     */
     @DeleteMapping("/{jobId}")
+    // DELETE returning the removed buckets, counter batch
+    @SqlStatementBudget(2)
     public ResponseEntity<ApiResponse<String>> deleteJobApplication(
             @PathVariable Long jobId,
-            @Valid @RequestBody JobRequest request,
-            Principal principal)
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
     {
-        jobApplicationService.deleteJob(jobId, request, principal.getName());
+        jobApplicationService.deleteJob(jobId, currentUser.getId(), expectedVersion(ifMatch));
 
         return ResponseEntity.ok(ApiResponse.of(200, "Job deleted successfully", null));
 
     }
 
 
+    /**
+     * Sets the status of many job applications at once, selected by id or by filter.
+     * @param request the ids or filter, and the new status
+     * @param currentUser the current user
+     * @return the number of applications updated
+     */
+    @PatchMapping("/bulk")
+    // locking snapshot read, the status history (read, event batch, duration batch), UPDATE, counter batch
+    @SqlStatementBudget(6)
+    public ResponseEntity<ApiResponse<BulkJobResult>> bulkUpdateStatus(
+            @RequestBody BulkJobRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
+    )
+    {
+        BulkJobResult result = jobApplicationService.bulkUpdateStatus(currentUser.getId(), request);
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Job applications updated successfully", result));
+    }
+
+
+    /**
+     * Deletes many job applications at once, selected by id or by filter.
+     * @param request the ids or filter
+     * @param currentUser the current user
+     * @return the number of applications deleted
+     */
+    @DeleteMapping("/bulk")
+    // locking snapshot read, DELETE, counter batch, then the reindex read
+    @SqlStatementBudget(4)
+    public ResponseEntity<ApiResponse<BulkJobResult>> bulkDelete(
+            @RequestBody BulkJobRequest request,
+            @AuthenticationPrincipal AuthenticatedUser currentUser
+    )
+    {
+        BulkJobResult result = jobApplicationService.bulkDelete(currentUser.getId(), request);
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Job applications deleted successfully", result));
+    }
+
+
+    /**
+     * Full-text search over the company, position and job board of the authenticated user's applications.
+     * @param currentUser the current user
+     * @param q the search text; prefixes match ("goo" finds Google), case and accents are ignored
+     * @param limit the maximum number of results (default 20, capped server-side)
+     * @return matching applications, most relevant and most recent first
+     */
+    @GetMapping("/search")
+    @SqlStatementBudget(1)
+    public ResponseEntity<ApiResponse<List<JobApplicationSummary>>> searchJobs(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    )
+    {
+        List<JobApplicationSummary> results = jobApplicationService.searchJobs(currentUser.getId(), q, limit);
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Search completed successfully", results));
+    }
+
+
+    /**
+     * The authenticated user's job search statistics, read from counters maintained on every write.
+     * @param currentUser the current user
+     * @return counts by status, job board and application month, with interview and offer rates
+     */
+    @GetMapping("/stats")
+    @SqlStatementBudget(1)
+    public ResponseEntity<ApiResponse<JobStatsResponse>> getStats(@AuthenticationPrincipal AuthenticatedUser currentUser){
+        JobStatsResponse stats = jobApplicationService.getStats(currentUser.getId());
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Statistics retrieved successfully", stats));
+    }
+
+
+    /**
+     * Retrieves how long the authenticated user's applications take to move through their stages.
+     * @param currentUser the current user
+     * @return median and 90th percentile days to interview, to offer and in each status, overall and per job board
+     */
+    @GetMapping("/stats/stages")
+    @SqlStatementBudget(1)
+    public ResponseEntity<ApiResponse<JobStageStatsResponse>> getStageStats(@AuthenticationPrincipal AuthenticatedUser currentUser){
+        JobStageStatsResponse stats = jobApplicationService.getStageStats(currentUser.getId());
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Stage statistics retrieved successfully", stats));
+    }
+
+
+    /**
+     * Bulk import of job applications from a CSV (with a header row) or NDJSON file.
+     * Valid rows are saved even when others are rejected; rejected rows are reported by line.
+     * @param currentUser the current user
+     * @param file the uploaded file, UTF-8
+     * @param format csv or ndjson; detected from the file name or content type when omitted
+     * @return how many rows were imported and why the others were not
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    // per JDBC batch the INSERT batch and the counter batch:
+    // jobs.import.max-rows / jobs.import.batch-size batches, then the reindex read
+    @SqlStatementBudget(201)
+    public ResponseEntity<ApiResponse<ImportReport>> importJobs(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format
+    ) throws IOException
+    {
+        JobFileFormat resolved = JobImportService.resolveFormat(format, file.getOriginalFilename(), file.getContentType());
+
+        ImportReport report;
+        try(InputStream input = file.getInputStream()){
+            report = jobImportService.importJobs(currentUser.getId(), input, resolved);
+        }
+
+        return ResponseEntity.ok(ApiResponse.of(200,
+                "Imported " + report.imported() + " job applications, rejected " + report.rejected(),
+                report));
+    }
+
+
+    /**
+     * Downloads the authenticated user's job applications as CSV or NDJSON, streamed as they are read.
+     * Accepts the same filter fields as /filter, as query parameters.
+     * @param currentUser the current user
+     * @param format csv (default) or ndjson
+     * @param filter optional status, company, sortBy and direction
+     * @return the streamed file
+     */
+    @GetMapping("/export")
+    @SqlStatementBudget(1)
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam(defaultValue = "csv") String format,
+            JobFilterRequest filter
+    )
+    {
+        JobFileFormat resolved = JobFileFormat.of(format);
+        StreamingResponseBody body = jobExportService.export(currentUser.getId(), filter, resolved);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(resolved.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("job-applications." + resolved.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+
+    /**
+     * Filters the authenticated user's job applications like {@code POST /filter}, with the filter fields as query
+     * parameters, so the response can be revalidated with If-None-Match and answered with 304.
+     * @param filter status, company, sortBy and direction
+     * @param page the page number (default 0)
+     * @param size the size per page (default 10, capped server-side)
+     * @param currentUser the current user
+     * @param webRequest the request, for its If-None-Match header
+     * @return the matching page
+     */
+    @GetMapping("/filter")
+    @SqlStatementBudget(2)
+    public ResponseEntity<ApiResponse<PageResponse<JobApplicationSummary>>> getFilteredJobs(
+            JobFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            WebRequest webRequest
+    )
+    {
+        String etag = dataVersions.etag(currentUser.getId(), "filter",
+                filter.status(), filter.company(), filter.sortBy(), filter.direction(), page, size);
+        if(webRequest.checkNotModified(etag)){
+            return null;
+        }
+
+        Page<JobApplicationSummary> result = jobApplicationService.filterJobs(currentUser.getId(), filter, page, size);
+
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.of(200, "Jobs filtered successfully", PageResponse.from(result)));
+    }
+
+
     @PostMapping("/filter")
-    public ResponseEntity<ApiResponse<Page<JobApplication>>> filterJobs(
+    @SqlStatementBudget(2)
+    public ResponseEntity<ApiResponse<PageResponse<JobApplicationSummary>>> filterJobs(
             @RequestBody JobFilterRequest filterRequest,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            Principal principal
+            @AuthenticationPrincipal AuthenticatedUser currentUser
     )
     {
-        Page<JobApplication> result = jobApplicationService.filterJobs(principal.getName(), filterRequest, page, size);
+        Page<JobApplicationSummary> result = jobApplicationService.filterJobs(currentUser.getId(), filterRequest, page, size);
+
+        return ResponseEntity.ok(ApiResponse.of(200, "Jobs filtered successfulyy", PageResponse.from(result)));
+    }
+
+
+    // the version named by an If-Match header: null when there is none or it is "*", i.e. any version
+    private static Long expectedVersion(String ifMatch){
+        if(ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")){
+            return null;
+        }
+        if(ifMatch.contains(",")){
+            throw new IllegalArgumentException("If-Match must hold a single ETag.");
+        }
 
-        return ResponseEntity.ok(ApiResponse.of(200, "Jobs filtered successfulyy", result));
+        String etag = ifMatch.trim();
+        // If-Match compares strongly: a weak or malformed ETag matches no version
+        if(!etag.startsWith("\"") || !etag.endsWith("\"") || etag.length() < 3){
+            throw new PreconditionFailedException("If-Match " + etag + " does not match the job application.");
+        }
+        try{
+            return Long.parseLong(etag.substring(1, etag.length() - 1));
+        }
+        catch(NumberFormatException e){
+            throw new PreconditionFailedException("If-Match " + etag + " does not match the job application.");
+        }
     }
 
 }
@@ -3,6 +3,7 @@ package com.ffaustin.job_tracker.controller;
 import com.ffaustin.job_tracker.dto.ApiResponse;
 import com.ffaustin.job_tracker.dto.UpdatePasswordRequest;
 import com.ffaustin.job_tracker.dto.UserResponse;
+import com.ffaustin.job_tracker.metrics.SqlStatementBudget;
 import com.ffaustin.job_tracker.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ public class UserController {
     }
 
     @GetMapping("/me")
+    @SqlStatementBudget(1)
     public ResponseEntity<ApiResponse<UserResponse>> getCurrentUserInfo() throws AccessDeniedException {
 
         UserResponse response =  userService.getCurrentUser();
@@ -30,6 +32,7 @@ public class UserController {
     }
 
     @PutMapping("/password")
+    @SqlStatementBudget(2)
     public ResponseEntity<ApiResponse<String>> updatePassword(@Valid @RequestBody UpdatePasswordRequest request){
         userService.updatePassword(request.currentPassword(), request.newPassword());
         return ResponseEntity.ok(ApiResponse.of(200, "Password changed", "Your password has been updated."));
@@ -0,0 +1,15 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.List;
+
+/**
+ * Selects job applications for a bulk operation, either by id or by filter.
+ * @param ids the ids of the applications; ids of other users' applications are ignored
+ * @param filter a filter as accepted by /api/jobs/filter, used when no ids are given
+ * @param status the status to set, for bulk status updates only
+ */
+public record BulkJobRequest(
+        List<Long> ids,
+        JobFilterRequest filter,
+        JobStatus status
+) { }
@@ -0,0 +1,9 @@
+package com.ffaustin.job_tracker.dto;
+
+/**
+ * Outcome of a bulk operation.
+ * @param affected the number of job applications updated or deleted
+ */
+public record BulkJobResult(
+        long affected
+) { }
@@ -0,0 +1,17 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing.
+ * @param items the items of this slice
+ * @param nextCursor opaque cursor to pass as {@code after} for the next slice, null on the last slice
+ * @param hasNext whether another slice follows
+ * @param approximateTotal total item count when requested, otherwise null
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext,
+        Long approximateTotal
+) { }
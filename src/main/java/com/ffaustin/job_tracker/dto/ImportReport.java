@@ -0,0 +1,17 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Valid rows are saved even when other rows are rejected.
+ * @param imported the number of job applications saved
+ * @param rejected the number of rows that were not saved
+ * @param errors the reasons rows were rejected, in file order, capped at the first few
+ * @param errorsTruncated whether more rows were rejected than {@code errors} lists
+ */
+public record ImportReport(
+        int imported,
+        int rejected,
+        List<ImportRowError> errors,
+        boolean errorsTruncated
+) { }
@@ -0,0 +1,11 @@
+package com.ffaustin.job_tracker.dto;
+
+/**
+ * Why one row of an import was rejected.
+ * @param line the 1-based line of the row in the uploaded file
+ * @param message what was wrong with it
+ */
+public record ImportRowError(
+        long line,
+        String message
+) { }
@@ -0,0 +1,20 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a job application as returned by list and filter endpoints.
+ * Selected directly by repository queries, so listing jobs never loads the entity or its owning user.
+ * The version is the job's ETag value for If-Match on update and delete.
+ */
+public record JobApplicationSummary(
+        Long id,
+        String position,
+        String company,
+        String jobBoardUsed,
+        String applicationLink,
+        JobStatus status,
+        LocalDate dateApplied,
+        LocalDate interviewDate,
+        Long version
+) { }
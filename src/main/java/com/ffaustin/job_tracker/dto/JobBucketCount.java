@@ -0,0 +1,14 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The number of job applications sharing a status, job board and application date,
+ * from which every statistics bucket can be derived.
+ */
+public record JobBucketCount(
+        JobStatus status,
+        String jobBoardUsed,
+        LocalDate dateApplied,
+        long applications
+) { }
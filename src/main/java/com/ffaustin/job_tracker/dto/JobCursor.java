@@ -0,0 +1,44 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the {@code (dateApplied desc nulls last, id desc)} ordering of a user's job applications.
+ * Clients only ever see it as an opaque base64url string.
+ * @param dateApplied the application date of the last item returned, may be null
+ * @param id the id of the last item returned
+ */
+public record JobCursor(LocalDate dateApplied, Long id) {
+
+    private static final String NO_DATE = "-";
+
+    public String encode(){
+        String raw = (dateApplied == null ? NO_DATE : dateApplied.toString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     * @param cursor the opaque cursor
+     * @return the decoded position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static JobCursor decode(String cursor){
+        try{
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.lastIndexOf(':');
+            String date = raw.substring(0, separator);
+
+            return new JobCursor(
+                    NO_DATE.equals(date) ? null : LocalDate.parse(date),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        }
+        catch(IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e){
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.Locale;
+
+/**
+ * File formats job applications can be imported from and exported to.
+ */
+public enum JobFileFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    JobFileFormat(String contentType, String extension){
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType(){
+        return contentType;
+    }
+
+    public String extension(){
+        return extension;
+    }
+
+    /**
+     * @param format "csv" or "ndjson" (also "jsonl"), in any case
+     * @return the matching format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static JobFileFormat of(String format){
+        return switch(format.trim().toLowerCase(Locale.ROOT)){
+            case "csv" -> CSV;
+            case "ndjson", "jsonl" -> NDJSON;
+            default -> throw new IllegalArgumentException("Unsupported format: " + format + ". Use csv or ndjson.");
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Partial update of a job application: only the fields given are changed, null ones are left as they are.
+ */
+public record JobPatchRequest(
+        String position,
+        String company,
+        String jobBoardUsed,
+        String applicationLink,
+        JobStatus status,
+        LocalDate interviewDate,
+        LocalDate applicationDate
+) {
+
+    /**
+     * @return whether the patch changes nothing
+     */
+    public boolean isEmpty(){
+        return position == null && company == null && jobBoardUsed == null && applicationLink == null
+                && status == null && interviewDate == null && applicationDate == null;
+    }
+
+    /**
+     * @return whether the patch changes a field the statistics and status history are kept by
+     */
+    public boolean changesBuckets(){
+        return status != null || jobBoardUsed != null || applicationDate != null;
+    }
+
+    /**
+     * @return whether the patch changes a field of the search index
+     */
+    public boolean changesSearchFields(){
+        return position != null || company != null || jobBoardUsed != null || applicationDate != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.Map;
+
+/**
+ * How long a user's applications take to move through their stages, in days.
+ * @param overall durations across every job board
+ * @param byJobBoard durations per job board, "unspecified" for applications without one
+ */
+public record JobStageStatsResponse(
+        Stages overall,
+        Map<String, Stages> byJobBoard
+) {
+
+    /**
+     * @param timeToInterview from the application date to the first interview, null without samples
+     * @param timeToOffer from the application date to the first offer, null without samples
+     * @param timeInStatus time spent in each status before leaving it, only statuses that were left
+     */
+    public record Stages(
+            Durations timeToInterview,
+            Durations timeToOffer,
+            Map<String, Durations> timeInStatus
+    ) { }
+
+    /**
+     * @param samples the number of transitions measured
+     * @param medianDays the median duration
+     * @param p90Days the duration 90% of the transitions did not exceed
+     */
+    public record Durations(
+            long samples,
+            int medianDays,
+            int p90Days
+    ) { }
+}
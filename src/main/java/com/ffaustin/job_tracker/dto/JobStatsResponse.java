@@ -0,0 +1,23 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.util.Map;
+
+/**
+ * A user's job search statistics.
+ * @param total the number of applications
+ * @param byStatus applications per status, every status included
+ * @param byJobBoard applications per job board, most used first
+ * @param byMonth applications per application month (yyyy-MM), oldest first
+ * @param interviewRate share of applications currently at or past an interview (interview scheduled, offer, accepted or declined);
+ *                      one rejected after its interview no longer counts, see the time to interview samples of
+ *                      {@link JobStageStatsResponse} for the applications that ever reached one
+ * @param offerRate share of applications currently at or past an offer (offer received, accepted or declined)
+ */
+public record JobStatsResponse(
+        long total,
+        Map<String, Long> byStatus,
+        Map<String, Long> byJobBoard,
+        Map<String, Long> byMonth,
+        double interviewRate,
+        double offerRate
+) { }
@@ -0,0 +1,19 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the status event log knows about one job application.
+ * @param jobId the application
+ * @param createdAt when it was created, null when it predates the log or was imported
+ * @param lastTransitionAt when its status last changed, null if it never did
+ * @param interviews how many of its transitions reached an interview or a later stage
+ * @param offers how many of its transitions reached an offer or a later stage
+ */
+public record JobStatusHistory(
+        Long jobId,
+        LocalDateTime createdAt,
+        LocalDateTime lastTransitionAt,
+        Long interviews,
+        Long offers
+) { }
@@ -0,0 +1,13 @@
+package com.ffaustin.job_tracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The fields of a job application that its status history depends on, read before its status changes.
+ */
+public record JobStatusSnapshot(
+        Long id,
+        JobStatus status,
+        String jobBoardUsed,
+        LocalDate dateApplied
+) { }
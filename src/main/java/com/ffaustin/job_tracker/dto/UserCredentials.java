@@ -0,0 +1,12 @@
+package com.ffaustin.job_tracker.dto;
+
+/**
+ * Credential columns of a user, selected without loading the full User entity.
+ */
+public record UserCredentials(
+        Long id,
+        String email,
+        String password,
+        boolean enabled,
+        boolean accountLocked
+) { }
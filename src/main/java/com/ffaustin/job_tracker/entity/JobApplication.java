@@ -1,12 +1,18 @@
 package com.ffaustin.job_tracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ffaustin.job_tracker.dto.JobStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_job_user_date_desc_id", columnList = "user_id, date_applied desc, id desc"),
+        @Index(name = "idx_job_user_status_date", columnList = "user_id, status, date_applied")
+})
 public class JobApplication {
 
     @Id
@@ -24,10 +30,17 @@ public class JobApplication {
     private LocalDate dateApplied;
     private LocalDate interviewDate;
 
-    @ManyToOne
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // optimistic lock, also the job's ETag for If-Match; bumped by JPA updates and the bulk status update
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public JobApplication() {
     }
 
@@ -122,6 +135,10 @@ public class JobApplication {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
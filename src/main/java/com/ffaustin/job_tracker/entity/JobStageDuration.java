@@ -0,0 +1,90 @@
+package com.ffaustin.job_tracker.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * How many of a user's status transitions took a given number of days, for one stage and job board:
+ * a histogram from which JobStatusHistoryService reads medians and percentiles without scanning the event log.
+ * Kept current in the transaction that records the transitions.
+ */
+@Entity
+@Table(name = "job_stage_duration", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_stage_duration_bucket", columnNames = {"user_id", "stage", "status", "job_board", "days"})
+})
+public class JobStageDuration {
+
+    public enum Stage {
+        // from the application date to the first interview (or any later stage)
+        TIME_TO_INTERVIEW,
+        // from the application date to the first offer
+        TIME_TO_OFFER,
+        // time spent in a status before leaving it
+        TIME_IN_STATUS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private Stage stage;
+
+    // the status left, for TIME_IN_STATUS; "" otherwise
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    // "" stands for applications without a job board
+    @Column(name = "job_board", nullable = false)
+    private String jobBoard;
+
+    // whole days, the last bucket holding every longer duration
+    @Column(nullable = false)
+    private int days;
+
+    @Column(nullable = false)
+    private long samples;
+
+    public JobStageDuration() {
+    }
+
+    public JobStageDuration(Long userId, Stage stage, String status, String jobBoard, int days, long samples){
+        this.userId = userId;
+        this.stage = stage;
+        this.status = status;
+        this.jobBoard = jobBoard;
+        this.days = days;
+        this.samples = samples;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getJobBoard() {
+        return jobBoard;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ffaustin.job_tracker.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * How many of a user's job applications fall in one bucket of one dimension, e.g. status INTERVIEW_SCHEDULED
+ * or application month 2025-03. Kept current by JobStatsService in the transaction that changes the applications,
+ * so statistics are read without scanning them. Counters of applications that predate them are built by JobStatsReconciler.
+ */
+@Entity
+@Table(name = "job_stats_counter", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_stats_counter_bucket", columnNames = {"user_id", "dimension", "bucket"})
+})
+public class JobStatsCounter {
+
+    public enum Dimension {
+        TOTAL,
+        STATUS,
+        JOB_BOARD,
+        MONTH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // no foreign key: counters are derived data, rebuilt from job_application at any time
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Dimension dimension;
+
+    // "" stands for applications without a value in this dimension
+    @Column(nullable = false)
+    private String bucket;
+
+    @Column(nullable = false)
+    private long applications;
+
+    public JobStatsCounter() {
+    }
+
+    public JobStatsCounter(Long userId, Dimension dimension, String bucket, long applications){
+        this.userId = userId;
+        this.dimension = dimension;
+        this.bucket = bucket;
+        this.applications = applications;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long getApplications() {
+        return applications;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ffaustin.job_tracker.entity;
+
+import com.ffaustin.job_tracker.dto.JobStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One status transition of a job application, appended by JobStatusHistoryService and never updated.
+ * The first event of an application created through the API has no previous status.
+ * Only job_id is indexed, and there are no foreign keys, so an insert maintains two indexes at most;
+ * statistics are read from JobStageDuration rather than from this log.
+ */
+@Entity
+@Table(name = "job_status_event", indexes = {
+        @Index(name = "idx_job_status_event_job", columnList = "job_id")
+})
+public class JobStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // no foreign keys: the history outlives deleted applications
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 32)
+    private JobStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 32)
+    private JobStatus toStatus;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public JobStatusEvent() {
+    }
+
+    public JobStatusEvent(Long jobId, Long userId, JobStatus fromStatus, JobStatus toStatus, LocalDateTime occurredAt){
+        this.jobId = jobId;
+        this.userId = userId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public JobStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public JobStatus getToStatus() {
+        return toStatus;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ffaustin.job_tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns shared by the single-use tokens mailed to users.
+ * Only a digest of the token is stored, so a leaked table cannot be replayed; lookups go through its unique index.
+ */
+@MappedSuperclass
+public abstract class OneTimeToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiryDate;
+
+    protected OneTimeToken(){}
+
+    protected OneTimeToken(String tokenHash, LocalDateTime expiryDate){
+        this.tokenHash = tokenHash;
+        this.expiryDate = expiryDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public LocalDateTime getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDateTime expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public boolean isExpired(){
+        return expiryDate.isBefore(LocalDateTime.now());
+    }
+}
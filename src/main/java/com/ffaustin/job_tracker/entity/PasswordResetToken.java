@@ -5,44 +5,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-public class PasswordResetToken {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(nullable = false, unique = true)
-    private String token;
+@Table(indexes = @Index(name = "idx_password_reset_token_expiry", columnList = "expiryDate"))
+public class PasswordResetToken extends OneTimeToken {
 
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(nullable = false, name = "user_id")
     private User user;
 
-    @Column(nullable = false)
-    private LocalDateTime expiryDate;
-
     public PasswordResetToken(){}
 
-    public PasswordResetToken(String token, User user, LocalDateTime expiryDate){
-        this.token = token;
+    public PasswordResetToken(String tokenHash, User user, LocalDateTime expiryDate){
+        super(tokenHash, expiryDate);
         this.user = user;
-        this.expiryDate = expiryDate;
-    }
-
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
-    }
-
-    public String getToken() {
-        return token;
-    }
-
-    public void setToken(String token) {
-        this.token = token;
     }
 
     public User getUser() {
@@ -52,16 +26,4 @@ public class PasswordResetToken {
     public void setUser(User user) {
         this.user = user;
     }
-
-    public LocalDateTime getExpiryDate() {
-        return expiryDate;
-    }
-
-    public void setExpiryDate(LocalDateTime expiryDate) {
-        this.expiryDate = expiryDate;
-    }
-
-    public boolean isExpired(){
-        return expiryDate.isBefore(LocalDateTime.now());
-    }
 }
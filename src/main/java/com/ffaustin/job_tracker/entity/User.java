@@ -29,6 +29,14 @@ public class User {
     private LocalDateTime lockTime;
 
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getFirstName() {
         return firstName;
     }
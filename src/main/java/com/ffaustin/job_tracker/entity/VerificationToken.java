@@ -5,33 +5,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-public class VerificationToken {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    private String token;
-
-    private LocalDateTime expiryDate;
+@Table(indexes = @Index(name = "idx_verification_token_expiry", columnList = "expiryDate"))
+public class VerificationToken extends OneTimeToken {
 
     @OneToOne
     @JoinColumn(nullable = false, name="user_id")
     private User user;
 
-    public String getToken() {
-        return token;
-    }
-
-    public void setToken(String token) {
-        this.token = token;
-    }
-
-    public LocalDateTime getExpiryDate() {
-        return expiryDate;
-    }
+    public VerificationToken(){}
 
-    public void setExpiryDate(LocalDateTime expiryDate) {
-        this.expiryDate = expiryDate;
+    public VerificationToken(String tokenHash, User user, LocalDateTime expiryDate){
+        super(tokenHash, expiryDate);
+        this.user = user;
     }
 
     public User getUser() {
@@ -1,8 +1,12 @@
 package com.ffaustin.job_tracker.exception;
 
 import com.ffaustin.job_tracker.dto.ApiResponse;
+import com.ffaustin.job_tracker.security.LoginThrottledException;
+import com.ffaustin.job_tracker.security.PasswordHashingBusyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.nio.file.AccessDeniedException;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -46,6 +51,45 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage());
     }
 
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<ApiResponse<String>> handleNoSuchElement(NoSuchElementException ex){
+        logger.warn("Not found: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<String>> handlePreconditionFailed(PreconditionFailedException ex){
+        logger.warn("Precondition failed: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex){
+        logger.warn("Concurrent modification: {}", ex.getMessage());
+
+        return buildResponse(HttpStatus.CONFLICT, "The job application was changed by another request; reload it and try again.");
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse<String>> handlePasswordHashingBusy(PasswordHashingBusyException ex){
+        logger.warn("Password hashing busy: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.of(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<String>> handleLoginThrottled(LoginThrottledException ex){
+        logger.warn("Login throttled: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.of(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), null));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<String>> handleValidationErrors(MethodArgumentNotValidException ex){
         String errors = ex.getBindingResult()
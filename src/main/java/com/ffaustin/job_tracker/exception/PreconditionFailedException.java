@@ -0,0 +1,12 @@
+package com.ffaustin.job_tracker.exception;
+
+/**
+ * Thrown when a conditional request's If-Match no longer matches the resource, i.e. it was changed
+ * since the client read it. Answered with 412 Precondition Failed.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,180 @@
+package com.ffaustin.job_tracker.mail;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An email template parsed once into literal text and named placeholders.
+ * {@code {{NAME}}} is replaced by the HTML-escaped value, {@code {{{NAME}}}} by the raw value;
+ * names are upper-case letters, digits and underscores. Anything else between braces is kept as text.
+ * Rendering only appends the parsed segments, so it never scans or copies the template text again.
+ */
+public final class EmailTemplate {
+
+    private final String name;
+    private final Segment[] segments;
+    private final Set<String> placeholders;
+    private final int literalLength;
+
+    private EmailTemplate(String name, List<Segment> segments){
+        this.name = name;
+        this.segments = segments.toArray(new Segment[0]);
+
+        Set<String> names = new LinkedHashSet<>();
+        int length = 0;
+        for(Segment segment : segments){
+            if(segment.placeholder() != null){
+                names.add(segment.placeholder());
+            }
+            else{
+                length += segment.text().length();
+            }
+        }
+        this.placeholders = Set.copyOf(names);
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses template text.
+     * @param name the name the template is looked up by
+     * @param text the template source
+     * @return the parsed template
+     */
+    public static EmailTemplate parse(String name, String text){
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+
+        while(i < text.length()){
+            int open = text.indexOf("{{", i);
+            if(open < 0){
+                literal.append(text, i, text.length());
+                break;
+            }
+
+            boolean raw = text.startsWith("{{{", open);
+            int nameStart = open + (raw ? 3 : 2);
+            String closing = raw ? "}}}" : "}}";
+            int close = text.indexOf(closing, nameStart);
+
+            if(close < 0 || !isPlaceholderName(text, nameStart, close)){
+                literal.append(text, i, open + 2);
+                i = open + 2;
+                continue;
+            }
+
+            literal.append(text, i, open);
+            if(!literal.isEmpty()){
+                segments.add(Segment.literal(literal.toString()));
+                literal.setLength(0);
+            }
+            segments.add(Segment.placeholder(text.substring(nameStart, close), !raw));
+            i = close + closing.length();
+        }
+
+        if(!literal.isEmpty()){
+            segments.add(Segment.literal(literal.toString()));
+        }
+
+        return new EmailTemplate(name, segments);
+    }
+
+    /**
+     * Renders the template with every placeholder replaced.
+     * @param values a value for each placeholder
+     * @return the rendered text
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public String render(Map<String, String> values){
+        StringBuilder out = new StringBuilder(literalLength + 64 * placeholders.size());
+        render(values, out);
+        return out.toString();
+    }
+
+    /**
+     * Renders the template into a caller-supplied builder, which can be reused across renders.
+     * @param values a value for each placeholder
+     * @param out the builder to append to
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public void render(Map<String, String> values, StringBuilder out){
+        for(Segment segment : segments){
+            if(segment.placeholder() == null){
+                out.append(segment.text());
+                continue;
+            }
+
+            String value = values.get(segment.placeholder());
+            if(value == null){
+                throw new IllegalArgumentException("No value for placeholder " + segment.placeholder() + " of template " + name);
+            }
+
+            if(segment.escape()){
+                appendEscaped(value, out);
+            }
+            else{
+                out.append(value);
+            }
+        }
+    }
+
+    public String name(){
+        return name;
+    }
+
+    /**
+     * @return the names of the placeholders in this template
+     */
+    public Set<String> placeholders(){
+        return placeholders;
+    }
+
+    static void appendEscaped(String value, StringBuilder out){
+        int start = 0;
+        for(int i = 0; i < value.length(); i++){
+            String entity = switch(value.charAt(i)){
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if(entity != null){
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    private static boolean isPlaceholderName(String text, int start, int end){
+        if(start == end){
+            return false;
+        }
+        for(int i = start; i < end; i++){
+            char c = text.charAt(i);
+            if(!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Either literal text, or a placeholder to fill in.
+     */
+    private record Segment(String text, String placeholder, boolean escape) {
+
+        static Segment literal(String text){
+            return new Segment(text, null, false);
+        }
+
+        static Segment placeholder(String name, boolean escape){
+            return new Segment(null, name, escape);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ffaustin.job_tracker.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loads and parses every email template under classpath:templates once, at startup.
+ * Templates are looked up by file name without the .html extension.
+ */
+@Component
+public class EmailTemplateEngine {
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateEngine.class);
+
+    private static final String LOCATION = "classpath*:templates/*.html";
+
+    private final Map<String, EmailTemplate> templates;
+
+    public EmailTemplateEngine(){
+        this(new PathMatchingResourcePatternResolver());
+    }
+
+    EmailTemplateEngine(ResourcePatternResolver resolver){
+        Map<String, EmailTemplate> loaded = new HashMap<>();
+
+        try{
+            for(Resource resource : resolver.getResources(LOCATION)){
+                String filename = resource.getFilename();
+                if(filename == null){
+                    continue;
+                }
+
+                String name = filename.substring(0, filename.length() - ".html".length());
+                String text = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                loaded.put(name, EmailTemplate.parse(name, text));
+            }
+        }
+        catch(IOException e){
+            throw new UncheckedIOException("Failed to load email templates", e);
+        }
+
+        this.templates = Map.copyOf(loaded);
+        logger.info("Loaded email templates: {}", templates.keySet());
+    }
+
+    /**
+     * @param name the template's file name without .html
+     * @return the parsed template
+     * @throws IllegalArgumentException if there is no such template
+     */
+    public EmailTemplate template(String name){
+        EmailTemplate template = templates.get(name);
+        if(template == null){
+            throw new IllegalArgumentException("No email template named " + name);
+        }
+        return template;
+    }
+
+    /**
+     * Renders a template.
+     * @param name the template's file name without .html
+     * @param values a value for each placeholder
+     * @return the rendered HTML
+     */
+    public String render(String name, Map<String, String> values){
+        return template(name).render(values);
+    }
+}
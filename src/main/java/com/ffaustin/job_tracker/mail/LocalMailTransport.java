@@ -0,0 +1,111 @@
+package com.ffaustin.job_tracker.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Network-free stand-in for tests, local development and load runs. Keeps the most recent emails in memory
+ * and, when mail.local.file is set, appends every email to that file as one JSON object per line.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "local")
+public class LocalMailTransport implements MailTransport {
+    private static final Logger logger = LoggerFactory.getLogger(LocalMailTransport.class);
+
+    private final int capacity;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    // a lock rather than synchronized: the file append blocks, and a virtual thread blocking inside a monitor pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<MailMessage> recent = new ArrayDeque<>();
+    private final AtomicLong sentCount = new AtomicLong();
+
+    public LocalMailTransport(@Value("${mail.local.capacity:1000}") int capacity,
+                              @Value("${mail.local.file:}") String file,
+                              ObjectMapper objectMapper)
+    {
+        this.capacity = capacity;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.objectMapper = objectMapper;
+
+        logger.warn("Local mail transport in use, emails are not delivered{}", this.file == null ? "" : " (logged to " + this.file + ")");
+    }
+
+    @Override
+    public void send(MailMessage message){
+        lock.lock();
+        try{
+            if(recent.size() == capacity){
+                recent.removeFirst();
+            }
+            recent.addLast(message);
+
+            if(file != null){
+                append(message);
+            }
+        }
+        finally{
+            lock.unlock();
+        }
+
+        sentCount.incrementAndGet();
+        logger.debug("Recorded email to {}: {}", message.to(), message.subject());
+    }
+
+    /**
+     * @return the most recent emails, oldest first
+     */
+    public List<MailMessage> sent(){
+        lock.lock();
+        try{
+            return List.copyOf(recent);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many emails were sent since startup, including those no longer kept in memory
+     */
+    public long sentCount(){
+        return sentCount.get();
+    }
+
+    public void clear(){
+        lock.lock();
+        try{
+            recent.clear();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    private void append(MailMessage message){
+        try{
+            Files.writeString(file, objectMapper.writeValueAsString(message) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        catch(IOException e){
+            throw new UncheckedIOException("Failed to write email to " + file, e);
+        }
+    }
+}
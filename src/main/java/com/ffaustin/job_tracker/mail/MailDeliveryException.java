@@ -0,0 +1,15 @@
+package com.ffaustin.job_tracker.mail;
+
+/**
+ * Thrown when a mail transport could not hand a message over for delivery.
+ */
+public class MailDeliveryException extends RuntimeException {
+
+    public MailDeliveryException(String message){
+        super(message);
+    }
+
+    public MailDeliveryException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ffaustin.job_tracker.mail;
+
+/**
+ * One HTML email to one recipient.
+ * @param to the recipient's address
+ * @param subject the subject line
+ * @param html the rendered body
+ */
+public record MailMessage(
+        String to,
+        String subject,
+        String html
+) { }
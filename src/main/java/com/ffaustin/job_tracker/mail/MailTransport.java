@@ -0,0 +1,26 @@
+package com.ffaustin.job_tracker.mail;
+
+import java.util.List;
+
+/**
+ * Hands emails over for delivery. Selected with the mail.transport property:
+ * sendgrid (default) or local.
+ */
+public interface MailTransport {
+
+    /**
+     * Sends one email.
+     * @param message the email to send
+     * @throws MailDeliveryException if the email was not accepted
+     */
+    void send(MailMessage message);
+
+    /**
+     * Sends many emails, in as few requests as the transport allows.
+     * @param messages the emails to send
+     * @throws MailDeliveryException if any email was not accepted; some of the others may have been
+     */
+    default void sendBatch(List<MailMessage> messages){
+        messages.forEach(this::send);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ffaustin.job_tracker.mail;
+
+import com.sendgrid.Client;
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Sends email through the SendGrid v3 API with one shared client, whose HTTP connections are pooled and reused.
+ * Batches put every recipient of the same subject and body in one request, one personalization each,
+ * so recipients do not see each other.
+ * Every API call is timed by the {@code mail.sendgrid.requests} timer, tagged with its outcome.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "sendgrid", matchIfMissing = true)
+public class SendGridMailTransport implements MailTransport {
+    private static final Logger logger = LoggerFactory.getLogger(SendGridMailTransport.class);
+
+    // SendGrid's limit on personalizations per request
+    static final int MAX_PERSONALIZATIONS = 1000;
+
+    private final SendGrid sendGrid;
+    private final CloseableHttpClient httpClient;
+    private final Email from;
+    private final Timer accepted;
+    private final Timer rejected;
+    private final Timer failed;
+
+    @Autowired
+    public SendGridMailTransport(@Value("${sendgrid.api.key}") String apiKey,
+                                 @Value("${sendgrid.from.email}") String fromEmail,
+                                 @Value("${sendgrid.from.name}") String fromName,
+                                 @Value("${mail.sendgrid.max-connections:16}") int maxConnections,
+                                 @Value("${mail.sendgrid.connect-timeout:PT5S}") Duration connectTimeout,
+                                 @Value("${mail.sendgrid.read-timeout:PT15S}") Duration readTimeout,
+                                 MeterRegistry meterRegistry)
+    {
+        this.httpClient = HttpClientBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setConnectionRequestTimeout((int) connectTimeout.toMillis())
+                        .setSocketTimeout((int) readTimeout.toMillis())
+                        .build())
+                .build();
+        this.sendGrid = new SendGrid(apiKey, new Client(httpClient));
+        this.from = new Email(fromEmail, fromName);
+        this.accepted = requestTimer(meterRegistry, "accepted");
+        this.rejected = requestTimer(meterRegistry, "rejected");
+        this.failed = requestTimer(meterRegistry, "error");
+    }
+
+    SendGridMailTransport(SendGrid sendGrid, Email from, MeterRegistry meterRegistry){
+        this.httpClient = null;
+        this.sendGrid = sendGrid;
+        this.from = from;
+        this.accepted = requestTimer(meterRegistry, "accepted");
+        this.rejected = requestTimer(meterRegistry, "rejected");
+        this.failed = requestTimer(meterRegistry, "error");
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String outcome){
+        return Timer.builder("mail.sendgrid.requests")
+                .description("SendGrid API calls, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void send(MailMessage message){
+        Mail mail = new Mail(from, message.subject(), new Email(message.to()), new Content("text/html", message.html()));
+        post(mail, 1);
+    }
+
+    @Override
+    public void sendBatch(List<MailMessage> messages){
+        // same subject and body -> same request
+        Map<List<String>, List<String>> recipientsByContent = messages.stream()
+                .collect(Collectors.groupingBy(
+                        message -> List.of(message.subject(), message.html()),
+                        LinkedHashMap::new,
+                        Collectors.mapping(MailMessage::to, Collectors.toList())));
+
+        recipientsByContent.forEach((content, recipients) -> {
+            for(int start = 0; start < recipients.size(); start += MAX_PERSONALIZATIONS){
+                List<String> chunk = recipients.subList(start, Math.min(start + MAX_PERSONALIZATIONS, recipients.size()));
+                post(batchMail(content.get(0), content.get(1), chunk), chunk.size());
+            }
+        });
+    }
+
+    private Mail batchMail(String subject, String html, List<String> recipients){
+        Mail mail = new Mail();
+        mail.setFrom(from);
+        mail.setSubject(subject);
+        mail.addContent(new Content("text/html", html));
+
+        for(String recipient : recipients){
+            Personalization personalization = new Personalization();
+            personalization.addTo(new Email(recipient));
+            mail.addPersonalization(personalization);
+        }
+        return mail;
+    }
+
+    private void post(Mail mail, int recipients){
+        Response response;
+        long start = System.nanoTime();
+        try{
+            Request request = new Request();
+            request.setMethod(Method.POST);
+            request.setEndpoint("mail/send");
+            request.setBody(mail.build());
+
+            response = sendGrid.api(request);
+        }
+        catch(IOException e){
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new MailDeliveryException("SendGrid request failed: " + e.getMessage(), e);
+        }
+
+        //SendGrid reports rejected mail through the status code rather than an exception
+        if(response.getStatusCode() < 200 || response.getStatusCode() >= 300){
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.warn("SendGrid rejected mail to {} recipients with status {}: {}", recipients, response.getStatusCode(), response.getBody());
+            throw new MailDeliveryException("SendGrid rejected the email with status " + response.getStatusCode());
+        }
+        accepted.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        logger.debug("SendGrid accepted mail to {} recipients with status {}", recipients, response.getStatusCode());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if(httpClient != null){
+            httpClient.close();
+        }
+    }
+}
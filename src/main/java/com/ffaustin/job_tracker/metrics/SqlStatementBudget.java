@@ -0,0 +1,23 @@
+package com.ffaustin.job_tracker.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request handler may run, whatever the size of the data it serves.
+ * Requests over budget are logged and counted by SqlStatementBudgetInterceptor, and tests hold every endpoint to its budget.
+ * Authentication happens before the handler and is not part of the budget.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlStatementBudget {
+
+    /**
+     * @return the maximum number of statements per request
+     */
+    int value();
+}
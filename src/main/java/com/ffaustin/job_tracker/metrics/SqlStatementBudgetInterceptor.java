@@ -0,0 +1,72 @@
+package com.ffaustin.job_tracker.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Counts the SQL statements each handler runs and compares them with its {@link SqlStatementBudget}.
+ * Requests over budget increment {@code http.server.requests.sql.over.budget} and, when
+ * {@code metrics.sql-budget.log} is on, are logged with the count. The count is left on the request
+ * under {@link #STATEMENTS_ATTRIBUTE} for tests.
+ */
+@Component
+public class SqlStatementBudgetInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetInterceptor.class);
+
+    public static final String STATEMENTS_ATTRIBUTE = SqlStatementBudgetInterceptor.class.getName() + ".statements";
+    private static final String START_ATTRIBUTE = SqlStatementBudgetInterceptor.class.getName() + ".start";
+
+    private final SqlStatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final boolean logOverBudget;
+
+    public SqlStatementBudgetInterceptor(SqlStatementCounter statementCounter,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${metrics.sql-budget.log:true}") boolean logOverBudget)
+    {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.logOverBudget = logOverBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler){
+        request.setAttribute(START_ATTRIBUTE, statementCounter.current());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex){
+        if(!(request.getAttribute(START_ATTRIBUTE) instanceof Integer start)){
+            return;
+        }
+
+        int statements = statementCounter.current() - start;
+        request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+
+        SqlStatementBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(SqlStatementBudget.class) : null;
+        if(budget == null || statements <= budget.value()){
+            return;
+        }
+
+        String uri = SqlStatementMetricsFilter.uriPattern(request);
+        Counter.builder("http.server.requests.sql.over.budget")
+                .description("Requests that ran more SQL statements than their handler's budget")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+
+        if(logOverBudget){
+            logger.warn("{} {} ran {} SQL statements, over its budget of {}", request.getMethod(), uri, statements, budget.value());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ffaustin.job_tracker.metrics;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and {@link #stop()}.
+ * Fed by {@link StatementCountingDataSource}, which counts each execution and each JDBC batch at the driver
+ * boundary, whether it comes from Hibernate or from a JdbcTemplate; statements executed outside a counted scope
+ * (background jobs, async request processing) are not counted.
+ */
+@Component
+public class SqlStatementCounter {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    /**
+     * Starts counting on the current thread, discarding any previous count.
+     */
+    public void start(){
+        count.set(new int[1]);
+    }
+
+    /**
+     * @return the number of statements executed on the current thread since {@link #start()}, or 0 if not counting
+     */
+    public int current(){
+        int[] counter = count.get();
+        return counter == null ? 0 : counter[0];
+    }
+
+    /**
+     * Stops counting on the current thread.
+     * @return the number of statements executed since {@link #start()}
+     */
+    public int stop(){
+        int statements = current();
+        count.remove();
+        return statements;
+    }
+
+    /**
+     * Counts one statement, or one JDBC batch, executed on the current thread.
+     */
+    public void record(){
+        int[] counter = count.get();
+        if(counter != null){
+            counter[0]++;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ffaustin.job_tracker.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Hands out connections whose statements report each execution to a {@link SqlStatementCounter}.
+ * An {@code executeBatch} is one round trip and counts once, however many rows were added to it;
+ * preparing a statement without executing it is not counted.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final SqlStatementCounter statementCounter;
+
+    public StatementCountingDataSource(DataSource targetDataSource, SqlStatementCounter statementCounter){
+        super(targetDataSource);
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection){
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            // createStatement, prepareStatement and prepareCall: wrap as the interface the method declares
+            return result instanceof Statement statement && method.getReturnType().isInterface()
+                    ? proxy(method.getReturnType(), statement, this::invokeCounting)
+                    : result;
+        });
+    }
+
+    private Object invokeCounting(Object statement, Method method, Object[] args) throws Throwable {
+        if(EXECUTE_METHODS.contains(method.getName())){
+            statementCounter.record();
+        }
+        return invoke(statement, method, args);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try{
+            return method.invoke(target, args);
+        }
+        catch(InvocationTargetException e){
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, TargetInvocation invocation){
+        InvocationHandler handler = (proxy, method, args) -> invocation.invoke(target, method, args);
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocation {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ffaustin.job_tracker.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's data sources in a {@link StatementCountingDataSource}, so every statement reaches
+ * the {@link SqlStatementCounter}: Hibernate's as well as the JdbcTemplate batches, which bypass Hibernate.
+ */
+@Component
+public class StatementCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementCounter> statementCounter;
+
+    // looked up lazily, so creating the post-processor does not create the counter ahead of other beans
+    public StatementCountingDataSourcePostProcessor(ObjectProvider<SqlStatementCounter> statementCounter){
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName){
+        if(bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)){
+            return new StatementCountingDataSource(dataSource, statementCounter.getObject());
+        }
+        return bean;
+    }
+}
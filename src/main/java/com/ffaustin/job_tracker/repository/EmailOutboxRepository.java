@@ -0,0 +1,65 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Locks the emails due for an attempt, oldest first. Rows locked by another dispatcher are skipped
+     * (a lock timeout of -2 is rendered as SKIP LOCKED), so several instances can poll concurrently.
+     * Must run inside a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from EmailOutbox e
+            where e.status = :status and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt, e.id
+            """)
+    List<EmailOutbox> findDueForUpdate(EmailOutbox.Status status, LocalDateTime now, Limit limit);
+
+    /**
+     * Ids of emails in one of the given statuses whose last attempt is older than the given time,
+     * read through the (status, next_attempt_at) index a chunk at a time.
+     */
+    @Query("select e.id from EmailOutbox e where e.status in :statuses and e.nextAttemptAt < :before")
+    List<Long> findFinishedIdsBefore(Collection<EmailOutbox.Status> statuses, LocalDateTime before, Limit limit);
+
+    /**
+     * Counts an attempt on each claimed email and hides it from other dispatchers until the lease ends,
+     * after which it is retried if the dispatcher died mid-send.
+     */
+    @Modifying
+    @Query("update EmailOutbox e set e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseEnd where e.id in :ids")
+    int claim(Collection<Long> ids, LocalDateTime leaseEnd);
+
+    /**
+     * Records a delivery and blanks the body: once sent, it is not needed, and the links it holds carry live tokens.
+     */
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.sentAt = :sentAt, e.lastError = null, e.html = '' where e.id = :id")
+    int markSent(Long id, EmailOutbox.Status status, LocalDateTime sentAt);
+
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error where e.id = :id")
+    int markFailedAttempt(Long id, EmailOutbox.Status status, LocalDateTime nextAttemptAt, String error);
+
+    /**
+     * Gives up on an email and blanks its body, like {@link #markSent}.
+     */
+    @Modifying
+    @Query("update EmailOutbox e set e.status = :status, e.nextAttemptAt = :failedAt, e.lastError = :error, e.html = '' where e.id = :id")
+    int markFailed(Long id, EmailOutbox.Status status, LocalDateTime failedAt, String error);
+}
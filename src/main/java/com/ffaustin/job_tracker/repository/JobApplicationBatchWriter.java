@@ -0,0 +1,51 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserts job applications with JDBC batches. JobApplication ids use IDENTITY generation,
+ * which keeps Hibernate from batching inserts, so bulk writes bypass the persistence context.
+ * Callers own the transaction and must refresh anything derived from the rows (e.g. the search index).
+ */
+@Repository
+public class JobApplicationBatchWriter {
+
+    private static final String INSERT_SQL = """
+            insert into job_application
+                (position, company, job_board_used, application_link, status, date_applied, interview_date, user_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobApplicationBatchWriter(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the given job applications for a user as a single JDBC batch.
+     * @param userId the owner of the applications
+     * @param jobs the applications to insert
+     */
+    public void insertAll(Long userId, List<JobRequest> jobs){
+        if(jobs.isEmpty()){
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, jobs, jobs.size(), (ps, job) -> {
+            ps.setString(1, job.position());
+            ps.setString(2, job.company());
+            ps.setString(3, job.jobBoardUsed());
+            ps.setString(4, job.applicationLink());
+            ps.setString(5, job.status() == null ? null : job.status().name());
+            ps.setObject(6, job.applicationDate(), Types.DATE);
+            ps.setObject(7, job.interviewDate(), Types.DATE);
+            ps.setLong(8, userId);
+        });
+    }
+}
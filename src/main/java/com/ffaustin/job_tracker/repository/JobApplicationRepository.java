@@ -1,16 +1,118 @@
 package com.ffaustin.job_tracker.repository;
 
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
 import com.ffaustin.job_tracker.entity.JobApplication;
-import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.search.JobSearchDocument;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface JobApplicationRepository extends JpaRepository<JobApplication, Long>, JpaSpecificationExecutor<JobApplication> {
-    Optional<JobApplication> findByIdAndUser(Long id, User user);
+public interface JobApplicationRepository extends JpaRepository<JobApplication, Long>,
+        JpaSpecificationExecutor<JobApplication>,
+        JobApplicationRepositoryCustom {
 
-    Page<JobApplication> findByUser(User user, Pageable pageable);
+    Optional<JobApplication> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    // Summary projections: j.user.id resolves to the user_id column, so none of these join users
+
+    @Query(value = """
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+            """,
+            countQuery = "select count(j) from JobApplication j where j.user.id = :userId")
+    Page<JobApplicationSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pagination over (dateApplied desc, id desc), then the undated applications by id desc.
+    // The dated queries exclude nulls and seek on the (date, id) pair, so each slice is a range read of the
+    // (user_id, date_applied desc, id desc) index instead of a sort of all the user's rows.
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+              and j.dateApplied is not null
+            order by j.dateApplied desc, j.id desc
+            """)
+    List<JobApplicationSummary> findFirstDatedKeysetSlice(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+              and j.dateApplied is not null
+              and (j.dateApplied, j.id) < (:dateApplied, :id)
+            order by j.dateApplied desc, j.id desc
+            """)
+    List<JobApplicationSummary> findDatedKeysetSliceAfter(@Param("userId") Long userId,
+                                                          @Param("dateApplied") LocalDate dateApplied,
+                                                          @Param("id") Long id,
+                                                          Limit limit);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+              and j.dateApplied is null
+            order by j.id desc
+            """)
+    List<JobApplicationSummary> findFirstUndatedKeysetSlice(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+              and j.dateApplied is null
+              and j.id < :id
+            order by j.id desc
+            """)
+    List<JobApplicationSummary> findUndatedKeysetSliceAfter(@Param("userId") Long userId,
+                                                            @Param("id") Long id,
+                                                            Limit limit);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.JobApplicationSummary(
+                j.id, j.position, j.company, j.jobBoardUsed, j.applicationLink, j.status, j.dateApplied, j.interviewDate, j.version)
+            from JobApplication j
+            where j.user.id = :userId
+              and j.id in :ids
+            """)
+    List<JobApplicationSummary> findSummariesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Search index feeds
+
+    @Query("""
+            select new com.ffaustin.job_tracker.search.JobSearchDocument(
+                j.id, j.user.id, j.company, j.position, j.jobBoardUsed, j.dateApplied)
+            from JobApplication j
+            where j.id > :afterId
+            order by j.id
+            """)
+    List<JobSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.search.JobSearchDocument(
+                j.id, j.user.id, j.company, j.position, j.jobBoardUsed, j.dateApplied)
+            from JobApplication j
+            where j.user.id = :userId
+            """)
+    List<JobSearchDocument> findSearchDocumentsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,97 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries of JobApplicationRepository that cannot be expressed as derived or annotated queries.
+ */
+public interface JobApplicationRepositoryCustom {
+
+    /**
+     * Pages through the job applications matching a specification, selecting only the summary columns.
+     * @param spec the filter to apply
+     * @param pageable the page and sort to return
+     * @return the matching summaries
+     */
+    Page<JobApplicationSummary> findSummaries(Specification<JobApplication> spec, Pageable pageable);
+
+    /**
+     * Streams the summaries of every job application matching a specification through a forward-only cursor.
+     * Rows are DTOs, so nothing accumulates in the persistence context; must be consumed and closed
+     * inside a transaction for the database to honor the fetch size.
+     * @param spec the filter to apply
+     * @param sort the order to stream in
+     * @param fetchSize how many rows the driver fetches per round trip
+     * @return the matching summaries
+     */
+    Stream<JobApplicationSummary> streamSummaries(Specification<JobApplication> spec, Sort sort, int fetchSize);
+
+    /**
+     * Sets the status of every job application matching a specification with a single UPDATE statement,
+     * incrementing their versions.
+     * Bypasses the persistence context: managed instances of the updated rows are not refreshed.
+     * @param spec the applications to update
+     * @param status the new status
+     * @return the number of rows updated
+     */
+    int updateStatus(Specification<JobApplication> spec, JobStatus status);
+
+    /**
+     * Sets the fields given in a patch on one of a user's job applications with a single UPDATE statement,
+     * incrementing its version, and returns its status, job board and application date as they were before.
+     * Fields left null in the patch are not touched.
+     * Bypasses the persistence context: a managed instance of the row is not refreshed.
+     * @param userId the owner of the application
+     * @param id the id of the application
+     * @param version the version it must have, or null to update it whatever its version
+     * @param patch the fields to set
+     * @return the application as it was, or empty when none matched
+     */
+    Optional<JobStatusSnapshot> patchReturningSnapshot(Long userId, Long id, Long version, JobPatchRequest patch);
+
+    /**
+     * Deletes one of a user's job applications with a single DELETE statement,
+     * and returns its status, job board and application date.
+     * Bypasses the persistence context: a managed instance of the row is not detached.
+     * @param userId the owner of the application
+     * @param id the id of the application
+     * @param version the version it must have, or null to delete it whatever its version
+     * @return the application deleted, or empty when none matched
+     */
+    Optional<JobStatusSnapshot> deleteReturningSnapshot(Long userId, Long id, Long version);
+
+    /**
+     * Counts the job applications matching a specification per status, job board and application date.
+     * @param spec the applications to count
+     * @return one row per distinct combination
+     */
+    List<JobBucketCount> countBuckets(Specification<JobApplication> spec);
+
+    /**
+     * Reads the status, job board and application date of every job application matching a specification.
+     * @param spec the applications to read
+     * @return one row per application
+     */
+    List<JobStatusSnapshot> findStatusSnapshots(Specification<JobApplication> spec);
+
+    /**
+     * Reads the status, job board and application date of every job application matching a specification,
+     * locking their rows until the end of the transaction, so they cannot change before the caller writes them.
+     * @param spec the applications to read
+     * @return one row per application
+     */
+    List<JobStatusSnapshot> lockStatusSnapshots(Specification<JobApplication> spec);
+}
@@ -0,0 +1,222 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class JobApplicationRepositoryCustomImpl implements JobApplicationRepositoryCustom {
+
+    // the columns of a JobStatusSnapshot, for the statements written in SQL
+    private static final List<String> SNAPSHOT_COLUMNS = List.of("id", "status", "job_board_used", "date_applied");
+
+    private static final RowMapper<JobStatusSnapshot> SNAPSHOT_MAPPER = (rs, rowNum) -> new JobStatusSnapshot(
+            rs.getLong("id"),
+            rs.getString("status") == null ? null : JobStatus.valueOf(rs.getString("status")),
+            rs.getString("job_board_used"),
+            rs.getObject("date_applied", LocalDate.class));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialect dialect;
+
+    public JobApplicationRepositoryCustomImpl(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = SqlDialect.of(jdbcTemplate);
+    }
+
+    @Override
+    public Page<JobApplicationSummary> findSummaries(Specification<JobApplication> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<JobApplicationSummary> query = cb.createQuery(JobApplicationSummary.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        query.select(summaryOf(cb, root))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        restrict(query, spec.toPredicate(root, query, cb));
+
+        List<JobApplicationSummary> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // the count only runs when the page alone cannot tell the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Stream<JobApplicationSummary> streamSummaries(Specification<JobApplication> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<JobApplicationSummary> query = cb.createQuery(JobApplicationSummary.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        query.select(summaryOf(cb, root))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+        restrict(query, spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateStatus(Specification<JobApplication> spec, JobStatus status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaUpdate<JobApplication> update = cb.createCriteriaUpdate(JobApplication.class);
+        Root<JobApplication> root = update.from(JobApplication.class);
+        update.set(root.<JobStatus>get("status"), status);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        Predicate predicate = spec.toPredicate(root, null, cb);
+        if(predicate != null){
+            update.where(predicate);
+        }
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Optional<JobStatusSnapshot> patchReturningSnapshot(Long userId, Long id, Long version, JobPatchRequest patch) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        assignIfPresent(assignments, arguments, "position", patch.position());
+        assignIfPresent(assignments, arguments, "company", patch.company());
+        assignIfPresent(assignments, arguments, "job_board_used", patch.jobBoardUsed());
+        assignIfPresent(assignments, arguments, "application_link", patch.applicationLink());
+        assignIfPresent(assignments, arguments, "status", patch.status() == null ? null : patch.status().name());
+        assignIfPresent(assignments, arguments, "interview_date", patch.interviewDate());
+        assignIfPresent(assignments, arguments, "date_applied", patch.applicationDate());
+        assignments.add("version = version + 1");
+
+        String sql = dialect.updateReturningOld("job_application", String.join(", ", assignments),
+                ownedCondition(version), "id", SNAPSHOT_COLUMNS);
+        arguments.addAll(ownedArguments(userId, id, version));
+
+        return jdbcTemplate.query(sql, SNAPSHOT_MAPPER, arguments.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public Optional<JobStatusSnapshot> deleteReturningSnapshot(Long userId, Long id, Long version) {
+        String sql = dialect.deleteReturning("job_application", ownedCondition(version), SNAPSHOT_COLUMNS);
+
+        return jdbcTemplate.query(sql, SNAPSHOT_MAPPER, ownedArguments(userId, id, version).toArray()).stream().findFirst();
+    }
+
+    @Override
+    public List<JobBucketCount> countBuckets(Specification<JobApplication> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<JobBucketCount> query = cb.createQuery(JobBucketCount.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        query.select(cb.construct(JobBucketCount.class,
+                        root.get("status"),
+                        root.get("jobBoardUsed"),
+                        root.get("dateApplied"),
+                        cb.count(root)))
+                .groupBy(root.get("status"), root.get("jobBoardUsed"), root.get("dateApplied"));
+        restrict(query, spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<JobStatusSnapshot> findStatusSnapshots(Specification<JobApplication> spec) {
+        return entityManager.createQuery(statusSnapshots(spec)).getResultList();
+    }
+
+    @Override
+    public List<JobStatusSnapshot> lockStatusSnapshots(Specification<JobApplication> spec) {
+        return entityManager.createQuery(statusSnapshots(spec))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    private CriteriaQuery<JobStatusSnapshot> statusSnapshots(Specification<JobApplication> spec){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<JobStatusSnapshot> query = cb.createQuery(JobStatusSnapshot.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        query.select(cb.construct(JobStatusSnapshot.class,
+                root.get("id"),
+                root.get("status"),
+                root.get("jobBoardUsed"),
+                root.get("dateApplied")));
+        restrict(query, spec.toPredicate(root, query, cb));
+        return query;
+    }
+
+    private long count(Specification<JobApplication> spec){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<JobApplication> root = query.from(JobApplication.class);
+        query.select(cb.count(root));
+        restrict(query, spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void restrict(CriteriaQuery<?> query, Predicate predicate){
+        if(predicate != null){
+            query.where(predicate);
+        }
+    }
+
+    static CompoundSelection<JobApplicationSummary> summaryOf(CriteriaBuilder cb, Root<JobApplication> root){
+        return cb.construct(JobApplicationSummary.class,
+                root.get("id"),
+                root.get("position"),
+                root.get("company"),
+                root.get("jobBoardUsed"),
+                root.get("applicationLink"),
+                root.get("status"),
+                root.get("dateApplied"),
+                root.get("interviewDate"),
+                root.get("version"));
+    }
+
+    private static void assignIfPresent(List<String> assignments, List<Object> arguments, String column, Object value){
+        if(value != null){
+            assignments.add(column + " = ?");
+            arguments.add(value);
+        }
+    }
+
+    private static String ownedCondition(Long version){
+        return version == null ? "id = ? and user_id = ?" : "id = ? and user_id = ? and version = ?";
+    }
+
+    private static List<Object> ownedArguments(Long userId, Long id, Long version){
+        return version == null ? List.of(id, userId) : List.of(id, userId, version);
+    }
+}
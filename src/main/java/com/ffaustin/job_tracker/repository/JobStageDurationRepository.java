@@ -0,0 +1,11 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.JobStageDuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface JobStageDurationRepository extends JpaRepository<JobStageDuration, Long> {
+
+    List<JobStageDuration> findByUserId(Long userId);
+}
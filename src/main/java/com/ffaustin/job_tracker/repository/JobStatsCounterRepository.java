@@ -0,0 +1,18 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.JobStatsCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface JobStatsCounterRepository extends JpaRepository<JobStatsCounter, Long> {
+
+    List<JobStatsCounter> findByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from JobStatsCounter c where c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
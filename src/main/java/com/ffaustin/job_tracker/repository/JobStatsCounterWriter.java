@@ -0,0 +1,74 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.JobStatsCounter.Dimension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Writes statistics counters with JDBC batches, so a change touching many buckets (a bulk delete spanning
+ * many months and job boards) still costs a fixed number of round trips. Callers own the transaction.
+ */
+@Repository
+public class JobStatsCounterWriter {
+
+    private static final String INSERT_SQL = """
+            insert into job_stats_counter (user_id, dimension, bucket, applications)
+            values (?, ?, ?, ?)
+            """;
+
+    /**
+     * A change to one counter.
+     * @param dimension the dimension of the counter
+     * @param bucket the bucket within the dimension, "" for applications without a value
+     * @param delta the amount to add, negative to remove
+     */
+    public record CounterDelta(Dimension dimension, String bucket, long delta) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String addSql;
+
+    public JobStatsCounterWriter(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+        this.addSql = SqlDialect.of(jdbcTemplate)
+                .upsertAdding("job_stats_counter", List.of("user_id", "dimension", "bucket"), "applications");
+    }
+
+    /**
+     * Adds to counters in place, creating the missing ones, in one batch of atomic upserts:
+     * concurrent changes of the same counter never lose an update, and need no lock.
+     * @param userId the owner of the counters
+     * @param deltas the changes
+     */
+    public void add(Long userId, List<CounterDelta> deltas){
+        if(deltas.isEmpty()){
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(addSql, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, delta.dimension().name());
+            ps.setString(3, delta.bucket());
+            ps.setLong(4, delta.delta());
+        });
+    }
+
+    /**
+     * Creates counters, which must not exist yet.
+     * @param userId the owner of the counters
+     * @param counters the counters with their initial values
+     */
+    public void insertAll(Long userId, List<CounterDelta> counters){
+        if(counters.isEmpty()){
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, counters, counters.size(), (ps, counter) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, counter.dimension().name());
+            ps.setString(3, counter.bucket());
+            ps.setLong(4, counter.delta());
+        });
+    }
+}
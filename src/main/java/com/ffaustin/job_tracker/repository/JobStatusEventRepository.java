@@ -0,0 +1,11 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.JobStatusEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface JobStatusEventRepository extends JpaRepository<JobStatusEvent, Long>, JobStatusEventRepositoryCustom {
+
+    List<JobStatusEvent> findByJobIdOrderById(Long jobId);
+}
@@ -0,0 +1,27 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusHistory;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries of JobStatusEventRepository that cannot be expressed as derived or annotated queries.
+ */
+public interface JobStatusEventRepositoryCustom {
+
+    /**
+     * Summarizes the status events of the job applications matching a specification in one grouped query,
+     * reading the events through the job_id index.
+     * @param jobs the applications to summarize
+     * @param interviewStatuses the statuses that count as having reached an interview
+     * @param offerStatuses the statuses that count as having reached an offer
+     * @return one row per application having events
+     */
+    List<JobStatusHistory> findHistories(Specification<JobApplication> jobs,
+                                         Collection<JobStatus> interviewStatuses,
+                                         Collection<JobStatus> offerStatuses);
+}
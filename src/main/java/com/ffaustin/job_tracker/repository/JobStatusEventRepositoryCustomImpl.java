@@ -0,0 +1,58 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusHistory;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.JobStatusEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class JobStatusEventRepositoryCustomImpl implements JobStatusEventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<JobStatusHistory> findHistories(Specification<JobApplication> jobs,
+                                                Collection<JobStatus> interviewStatuses,
+                                                Collection<JobStatus> offerStatuses) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<JobStatusHistory> query = cb.createQuery(JobStatusHistory.class);
+        Root<JobStatusEvent> event = query.from(JobStatusEvent.class);
+
+        Subquery<Long> selected = query.subquery(Long.class);
+        Root<JobApplication> job = selected.from(JobApplication.class);
+        selected.select(job.get("id"));
+        Predicate predicate = jobs.toPredicate(job, query, cb);
+        if(predicate != null){
+            selected.where(predicate);
+        }
+
+        Expression<LocalDateTime> occurredAt = event.get("occurredAt");
+        Expression<JobStatus> toStatus = event.get("toStatus");
+        Predicate created = cb.isNull(event.get("fromStatus"));
+
+        query.select(cb.construct(JobStatusHistory.class,
+                        event.get("jobId"),
+                        cb.least(cb.<LocalDateTime>selectCase().when(created, occurredAt).otherwise(cb.nullLiteral(LocalDateTime.class))),
+                        cb.greatest(cb.<LocalDateTime>selectCase().when(created, cb.nullLiteral(LocalDateTime.class)).otherwise(occurredAt)),
+                        cb.sum(cb.<Long>selectCase().when(toStatus.in(interviewStatuses), 1L).otherwise(0L)),
+                        cb.sum(cb.<Long>selectCase().when(toStatus.in(offerStatuses), 1L).otherwise(0L))))
+                .where(event.get("jobId").in(selected))
+                .groupBy(event.get("jobId"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
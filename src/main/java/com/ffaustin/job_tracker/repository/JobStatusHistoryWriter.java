@@ -0,0 +1,103 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.JobStageDuration.Stage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends status events and updates the stage duration histograms with JDBC batches,
+ * so a bulk status change costs a fixed number of round trips. Callers own the transaction.
+ */
+@Repository
+public class JobStatusHistoryWriter {
+
+    private static final String INSERT_EVENT_SQL = """
+            insert into job_status_event (job_id, user_id, from_status, to_status, occurred_at)
+            values (?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * A status transition of one job application.
+     * @param jobId the application
+     * @param from the status it left, null when it was created
+     * @param to the status it reached
+     */
+    public record StatusEvent(Long jobId, JobStatus from, JobStatus to) { }
+
+    /**
+     * Samples to add to one histogram bucket.
+     * @param stage the measured stage
+     * @param status the status left for TIME_IN_STATUS, "" otherwise
+     * @param jobBoard the job board, "" for none
+     * @param days the bucket
+     * @param samples how many transitions fell in it
+     */
+    public record DurationSamples(Stage stage, String status, String jobBoard, int days, long samples) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String addSamplesSql;
+
+    public JobStatusHistoryWriter(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+        this.addSamplesSql = SqlDialect.of(jdbcTemplate)
+                .upsertAdding("job_stage_duration", List.of("user_id", "stage", "status", "job_board", "days"), "samples");
+    }
+
+    /**
+     * @param userId the owner of the applications
+     * @param events the transitions to append
+     * @param occurredAt when they happened
+     */
+    public void insertEvents(Long userId, List<StatusEvent> events, LocalDateTime occurredAt){
+        if(events.isEmpty()){
+            return;
+        }
+
+        Timestamp at = Timestamp.valueOf(occurredAt);
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.jobId());
+            ps.setLong(2, userId);
+            setStatus(ps, 3, event.from());
+            setStatus(ps, 4, event.to());
+            ps.setTimestamp(5, at);
+        });
+    }
+
+    /**
+     * Adds samples to the histograms, creating missing buckets, in one batch of atomic upserts,
+     * so concurrent status changes of the same user need no lock.
+     * @param userId the owner of the histograms
+     * @param samples the samples to add
+     */
+    public void addSamples(Long userId, List<DurationSamples> samples){
+        if(samples.isEmpty()){
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(addSamplesSql, samples, samples.size(), (ps, bucket) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, bucket.stage().name());
+            ps.setString(3, bucket.status());
+            ps.setString(4, bucket.jobBoard());
+            ps.setInt(5, bucket.days());
+            ps.setLong(6, bucket.samples());
+        });
+    }
+
+    private static void setStatus(PreparedStatement ps, int index, JobStatus status) throws SQLException {
+        if(status == null){
+            ps.setNull(index, Types.VARCHAR);
+        }
+        else{
+            ps.setString(index, status.name());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.OneTimeToken;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups shared by the one-time token repositories.
+ */
+@NoRepositoryBean
+public interface OneTimeTokenRepository<T extends OneTimeToken> extends JpaRepository<T, Long> {
+
+    Optional<T> findByTokenHash(String tokenHash);
+
+    /**
+     * Ids of tokens that expired before the given time, read through the expiry index a chunk at a time.
+     */
+    @Query("select t.id from #{#entityName} t where t.expiryDate < :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+}
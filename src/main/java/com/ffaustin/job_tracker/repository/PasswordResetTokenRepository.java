@@ -2,12 +2,10 @@ package com.ffaustin.job_tracker.repository;
 
 import com.ffaustin.job_tracker.entity.PasswordResetToken;
 import com.ffaustin.job_tracker.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByToken(String token);
+public interface PasswordResetTokenRepository extends OneTimeTokenRepository<PasswordResetToken> {
 
     Optional<PasswordResetToken> findByUser(User user);
 
@@ -0,0 +1,97 @@
+package com.ffaustin.job_tracker.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The statements the JDBC writers cannot write portably, for PostgreSQL in production and H2 (standard SQL) in tests.
+ */
+enum SqlDialect {
+    POSTGRESQL,
+    STANDARD;
+
+    /**
+     * @param jdbcTemplate the template the statements will run through
+     * @return the dialect of its database
+     */
+    static SqlDialect of(JdbcTemplate jdbcTemplate){
+        try{
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product) ? POSTGRESQL : STANDARD;
+        }
+        catch(MetaDataAccessException e){
+            throw new IllegalStateException("Could not tell the database product", e);
+        }
+    }
+
+    /**
+     * Builds a statement adding to a counter column, that creates the row with the value when it is missing.
+     * Both forms are a single atomic statement, so concurrent writers of the same counter need no lock;
+     * on PostgreSQL, ON CONFLICT also holds when two of them create the same row at once.
+     * Parameters: the key columns in order, then the amount.
+     * @param table the table, with a unique constraint on the key columns
+     * @param keys the key columns
+     * @param value the counter column
+     * @return the statement
+     */
+    String upsertAdding(String table, List<String> keys, String value){
+        String columns = String.join(", ", keys) + ", " + value;
+        String parameters = keys.stream().map(key -> "?").collect(Collectors.joining(", ")) + ", ?";
+
+        if(this == POSTGRESQL){
+            return "insert into " + table + " (" + columns + ") values (" + parameters + ")"
+                    + " on conflict (" + String.join(", ", keys) + ")"
+                    + " do update set " + value + " = " + table + "." + value + " + excluded." + value;
+        }
+
+        return "merge into " + table + " t using (values (" + parameters + ")) as s(" + columns + ")"
+                + " on " + keys.stream().map(key -> "t." + key + " = s." + key).collect(Collectors.joining(" and "))
+                + " when matched then update set " + value + " = t." + value + " + s." + value
+                + " when not matched then insert (" + columns + ") values ("
+                + keys.stream().map(key -> "s." + key).collect(Collectors.joining(", ")) + ", s." + value + ")";
+    }
+
+    /**
+     * Builds a single statement deleting rows and returning some of their columns.
+     * Parameters: those of the condition.
+     * @param table the table
+     * @param condition the rows to delete
+     * @param columns the columns to return
+     * @return the statement, to run as a query
+     */
+    String deleteReturning(String table, String condition, List<String> columns){
+        String delete = "delete from " + table + " where " + condition;
+        if(this == POSTGRESQL){
+            return delete + " returning " + String.join(", ", columns);
+        }
+        return "select " + String.join(", ", columns) + " from old table (" + delete + ")";
+    }
+
+    /**
+     * Builds a single statement updating rows and returning some of their columns as they were before the update.
+     * PostgreSQL's RETURNING only sees the new values, so there the old ones come from a self-join on the id,
+     * which locks the rows before the update reads them.
+     * Parameters: those of the assignments, then those of the condition.
+     * @param table the table
+     * @param assignments the SET clause
+     * @param condition the rows to update, with unqualified columns
+     * @param id the primary key column, which must be among the columns returned
+     * @param columns the columns to return
+     * @return the statement, to run as a query
+     */
+    String updateReturningOld(String table, String assignments, String condition, String id, List<String> columns){
+        if(this == POSTGRESQL){
+            return "update " + table + " set " + assignments
+                    + " from (select " + String.join(", ", columns) + " from " + table + " where " + condition + " for update) prior"
+                    + " where " + table + "." + id + " = prior." + id
+                    + " returning " + columns.stream().map(column -> "prior." + column).collect(Collectors.joining(", "));
+        }
+        return "select " + String.join(", ", columns)
+                + " from old table (update " + table + " set " + assignments + " where " + condition + ")";
+    }
+}
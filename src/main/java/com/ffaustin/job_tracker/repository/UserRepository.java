@@ -1,12 +1,66 @@
 package com.ffaustin.job_tracker.repository;
 
+import com.ffaustin.job_tracker.dto.UserCredentials;
 import com.ffaustin.job_tracker.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("""
+            select new com.ffaustin.job_tracker.dto.UserCredentials(u.id, u.email, u.password, u.enabled, u.accountLocked)
+            from User u
+            where u.email = :email
+            """)
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Locks an unlocked account, recording when and after how many failed attempts.
+     * @param email the email of the account, trimmed and lower-cased; matched whatever case it was registered in
+     * @return the number of accounts locked, 0 if the account does not exist or is already locked
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            update User u
+            set u.accountLocked = true, u.lockTime = :lockTime, u.failedLoginAttempts = :failedAttempts
+            where lower(u.email) = :email and u.accountLocked = false
+            """)
+    int lockAccount(@Param("email") String email, @Param("lockTime") LocalDateTime lockTime, @Param("failedAttempts") int failedAttempts);
+
+    /**
+     * Unlocks an account whose lock was set before the given time.
+     * @param email the email of the account, trimmed and lower-cased; matched whatever case it was registered in
+     * @return the number of accounts unlocked, 0 if the account is not locked or its lock is more recent
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            update User u
+            set u.accountLocked = false, u.lockTime = null, u.failedLoginAttempts = 0
+            where lower(u.email) = :email and u.accountLocked = true and (u.lockTime is null or u.lockTime <= :lockedBefore)
+            """)
+    int unlockAccount(@Param("email") String email, @Param("lockedBefore") LocalDateTime lockedBefore);
+
+    /**
+     * Locks the user's row until the end of the transaction, serializing the reconciliations
+     * of the user's statistics counters.
+     * @return the user's id, empty if there is no such user
+     */
+    @Query(value = "select id from users where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,10 +1,6 @@
 package com.ffaustin.job_tracker.repository;
 
 import com.ffaustin.job_tracker.entity.VerificationToken;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
-    Optional<VerificationToken> findByToken(String token);
+public interface VerificationTokenRepository extends OneTimeTokenRepository<VerificationToken> {
 }
@@ -0,0 +1,15 @@
+package com.ffaustin.job_tracker.search;
+
+import java.time.LocalDate;
+
+/**
+ * The searchable fields of a job application.
+ */
+public record JobSearchDocument(
+        Long id,
+        Long userId,
+        String company,
+        String position,
+        String jobBoardUsed,
+        LocalDate dateApplied
+) { }
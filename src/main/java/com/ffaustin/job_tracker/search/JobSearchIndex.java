@@ -0,0 +1,387 @@
+package com.ffaustin.job_tracker.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process inverted index over the company, position and job board of every job application, partitioned by user.
+ * Queries match folded tokens exactly or by prefix, require every query token to match,
+ * and rank by field-weighted relevance blended with how recently the user applied.
+ * The index is kept current by JobApplicationService, once each write commits, and rebuilt from the database on startup by JobSearchIndexLoader.
+ */
+@Component
+public class JobSearchIndex {
+
+    // field weights: a company hit says more about intent than a job board hit
+    private static final double COMPANY_WEIGHT = 3.0;
+    private static final double POSITION_WEIGHT = 2.0;
+    private static final double BOARD_WEIGHT = 1.0;
+
+    // a prefix hit ("goo" -> "google") counts for half an exact token hit
+    private static final double PREFIX_MATCH = 0.5;
+
+    // recency adds up to one point, halving every 90 days since the application date
+    private static final double RECENCY_WEIGHT = 1.0;
+    private static final double RECENCY_HALF_LIFE_DAYS = 90.0;
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    // jobs deleted while a rebuild is running, which the rebuild must not bring back
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding = false;
+    private volatile boolean ready = false;
+
+    /**
+     * Adds a job application to the index, replacing any previous version of it.
+     * @param document the searchable fields of the application
+     */
+    public void index(JobSearchDocument document){
+        userIndex(document.userId()).put(document, true);
+    }
+
+    /**
+     * Changes some fields of an indexed job application, e.g. after a partial update that did not read the others.
+     * @param userId the owner of the application
+     * @param jobId the id of the application
+     * @param change derives the new document from the indexed one
+     * @return false if the application is not indexed, in which case nothing changed
+     */
+    public boolean update(Long userId, Long jobId, UnaryOperator<JobSearchDocument> change){
+        UserIndex index = users.get(userId);
+        return index != null && index.update(jobId, change);
+    }
+
+    /**
+     * Removes a job application from the index.
+     * @param userId the owner of the application
+     * @param jobId the id of the application
+     */
+    public void remove(Long userId, Long jobId){
+        if(rebuilding){
+            deletedDuringRebuild.add(jobId);
+        }
+
+        UserIndex index = users.get(userId);
+        if(index != null){
+            index.remove(jobId);
+        }
+    }
+
+    /**
+     * Replaces everything indexed for a user, e.g. after a bulk write that bypassed the per-job hooks.
+     * Safe to run while the user's index is being updated: applications written or removed by the live hooks
+     * after the read started keep their live version, as in a rebuild.
+     * @param userId the user to reindex
+     * @param documents reads all of the user's job applications; called without holding the user's write lock
+     */
+    public void replaceUser(Long userId, Supplier<List<JobSearchDocument>> documents){
+        UserIndex index = userIndex(userId);
+        index.beginReindex();
+        List<JobSearchDocument> read = null;
+        try{
+            read = documents.get();
+        }
+        finally{
+            index.endReindex(read);
+        }
+    }
+
+    /**
+     * Searches a user's job applications.
+     * @param userId the user whose applications are searched
+     * @param query free text; every token must match a token of the application exactly or as a prefix
+     * @param limit the maximum number of ids to return
+     * @return matching job ids, best match first
+     */
+    public List<Long> search(Long userId, String query, int limit){
+        List<String> terms = TextFolding.tokenize(query);
+        UserIndex index = users.get(userId);
+
+        if(terms.isEmpty() || index == null){
+            return List.of();
+        }
+
+        Map<Long, Double> relevance = null;
+
+        for(String term : new HashSet<>(terms)){
+            Map<Long, Double> termScores = index.match(term);
+
+            relevance = relevance == null ? termScores : intersect(relevance, termScores);
+            if(relevance.isEmpty()){
+                return List.of();
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Long, Double> ranked = new HashMap<>(relevance.size());
+        relevance.forEach((jobId, score) -> {
+            Entry entry = index.entries.get(jobId);
+            if(entry != null){
+                ranked.put(jobId, score + recencyBoost(entry.dateApplied, today));
+            }
+        });
+
+        return ranked.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * @return whether the startup rebuild has completed, i.e. whether results cover every stored application
+     */
+    public boolean isReady(){
+        return ready;
+    }
+
+    void beginRebuild(){
+        deletedDuringRebuild.clear();
+        rebuilding = true;
+    }
+
+    /**
+     * Adds a document read by the rebuild, unless the live index already has a newer version of it
+     * or it was deleted after the rebuild read it.
+     */
+    void rebuildAdd(JobSearchDocument document){
+        if(!deletedDuringRebuild.contains(document.id())){
+            userIndex(document.userId()).put(document, false);
+        }
+    }
+
+    void endRebuild(){
+        rebuilding = false;
+        deletedDuringRebuild.clear();
+        ready = true;
+    }
+
+    private UserIndex userIndex(Long userId){
+        return users.computeIfAbsent(userId, id -> new UserIndex());
+    }
+
+    private static Map<Long, Double> intersect(Map<Long, Double> scores, Map<Long, Double> termScores){
+        Map<Long, Double> both = new HashMap<>();
+        scores.forEach((jobId, score) -> {
+            Double termScore = termScores.get(jobId);
+            if(termScore != null){
+                both.put(jobId, score + termScore);
+            }
+        });
+        return both;
+    }
+
+    private static double recencyBoost(LocalDate dateApplied, LocalDate today){
+        if(dateApplied == null){
+            return 0;
+        }
+
+        long ageDays = Math.max(0, ChronoUnit.DAYS.between(dateApplied, today));
+        return RECENCY_WEIGHT * Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+    }
+
+    /**
+     * The tokens of one job application, with the document they were taken from.
+     */
+    private record Entry(JobSearchDocument document, Set<String> company, Set<String> position, Set<String> board, LocalDate dateApplied) {
+
+        static Entry of(JobSearchDocument document){
+            return new Entry(
+                    document,
+                    new HashSet<>(TextFolding.tokenize(document.company())),
+                    new HashSet<>(TextFolding.tokenize(document.position())),
+                    new HashSet<>(TextFolding.tokenize(document.jobBoardUsed())),
+                    document.dateApplied()
+            );
+        }
+
+        Set<String> tokens(){
+            Set<String> tokens = new HashSet<>(company);
+            tokens.addAll(position);
+            tokens.addAll(board);
+            return tokens;
+        }
+
+        double weightOf(String token){
+            if(company.contains(token)) return COMPANY_WEIGHT;
+            if(position.contains(token)) return POSITION_WEIGHT;
+            if(board.contains(token)) return BOARD_WEIGHT;
+            return 0;
+        }
+    }
+
+    /**
+     * One user's postings. Reads are lock-free; writes are serialized per user and never block on I/O.
+     * Writers wait on a ReentrantLock rather than a monitor, so a contended write parks a virtual thread
+     * instead of pinning its carrier.
+     */
+    private static final class UserIndex {
+        private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        // reindexes reading the database, and the jobs live writes touched meanwhile, which they must leave alone;
+        // both guarded by writeLock
+        private int reindexing = 0;
+        private final Set<Long> writtenDuringReindex = new HashSet<>();
+
+        void put(JobSearchDocument document, boolean replace){
+            writeLock.lock();
+            try{
+                if(entries.containsKey(document.id())){
+                    if(!replace){
+                        return;
+                    }
+                    removeLocked(document.id());
+                }
+                if(replace){
+                    touchedLocked(document.id());
+                }
+                putLocked(document);
+            }
+            finally{
+                writeLock.unlock();
+            }
+        }
+
+        boolean update(Long jobId, UnaryOperator<JobSearchDocument> change){
+            writeLock.lock();
+            try{
+                Entry entry = entries.get(jobId);
+                if(entry == null){
+                    return false;
+                }
+
+                touchedLocked(jobId);
+                removeLocked(jobId);
+                putLocked(change.apply(entry.document()));
+                return true;
+            }
+            finally{
+                writeLock.unlock();
+            }
+        }
+
+        void remove(Long jobId){
+            writeLock.lock();
+            try{
+                touchedLocked(jobId);
+                removeLocked(jobId);
+            }
+            finally{
+                writeLock.unlock();
+            }
+        }
+
+        void beginReindex(){
+            writeLock.lock();
+            try{
+                reindexing++;
+            }
+            finally{
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Makes the index match the documents read by a reindex, except for the jobs written since it began.
+         * @param documents the documents read, or null if the read failed, which changes nothing
+         */
+        void endReindex(List<JobSearchDocument> documents){
+            writeLock.lock();
+            try{
+                if(documents != null){
+                    Set<Long> read = new HashSet<>();
+                    for(JobSearchDocument document : documents){
+                        read.add(document.id());
+                        if(!writtenDuringReindex.contains(document.id())){
+                            removeLocked(document.id());
+                            putLocked(document);
+                        }
+                    }
+                    // indexed jobs the read did not find were deleted by a write that bypassed the hooks
+                    for(Long jobId : List.copyOf(entries.keySet())){
+                        if(!read.contains(jobId) && !writtenDuringReindex.contains(jobId)){
+                            removeLocked(jobId);
+                        }
+                    }
+                }
+
+                if(--reindexing == 0){
+                    writtenDuringReindex.clear();
+                }
+            }
+            finally{
+                writeLock.unlock();
+            }
+        }
+
+        private void touchedLocked(Long jobId){
+            if(reindexing > 0){
+                writtenDuringReindex.add(jobId);
+            }
+        }
+
+        private void putLocked(JobSearchDocument document){
+            Entry entry = Entry.of(document);
+            entries.put(document.id(), entry);
+
+            for(String token : entry.tokens()){
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(document.id());
+            }
+        }
+
+        private void removeLocked(Long jobId){
+            Entry entry = entries.remove(jobId);
+            if(entry == null){
+                return;
+            }
+
+            for(String token : entry.tokens()){
+                Set<Long> ids = postings.get(token);
+                if(ids != null){
+                    ids.remove(jobId);
+                    if(ids.isEmpty()){
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Scores every application having a token equal to, or starting with, the term.
+         */
+        Map<Long, Double> match(String term){
+            Map<Long, Double> scores = new HashMap<>();
+
+            for(Map.Entry<String, Set<Long>> posting : postings.subMap(term, true, term + Character.MAX_VALUE, true).entrySet()){
+                String token = posting.getKey();
+                double matchWeight = token.equals(term) ? 1.0 : PREFIX_MATCH;
+
+                for(Long jobId : posting.getValue()){
+                    Entry entry = entries.get(jobId);
+                    if(entry != null){
+                        scores.merge(jobId, entry.weightOf(token) * matchWeight, Math::max);
+                    }
+                }
+            }
+
+            return scores;
+        }
+    }
+}
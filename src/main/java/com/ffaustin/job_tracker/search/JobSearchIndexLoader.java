@@ -0,0 +1,77 @@
+package com.ffaustin.job_tracker.search;
+
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the JobSearchIndex from the database in the background once the application is up,
+ * reading job applications in id order in bounded batches.
+ */
+@Component
+public class JobSearchIndexLoader {
+    private static final Logger logger = LoggerFactory.getLogger(JobSearchIndexLoader.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JobApplicationRepository jobApplicationRepository;
+    private final JobSearchIndex searchIndex;
+
+    public JobSearchIndexLoader(JobApplicationRepository jobApplicationRepository, JobSearchIndex searchIndex){
+        this.jobApplicationRepository = jobApplicationRepository;
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground(){
+        Thread.ofVirtual().name("search-index-rebuild").start(this::rebuild);
+    }
+
+    /**
+     * Indexes every stored job application. Safe to run while the live index is being updated:
+     * newer live versions are kept and applications deleted meanwhile are not resurrected.
+     */
+    public void rebuild(){
+        long started = System.currentTimeMillis();
+        long indexed = 0;
+        long lastId = 0;
+
+        searchIndex.beginRebuild();
+        try{
+            List<JobSearchDocument> batch;
+            do{
+                batch = jobApplicationRepository.findSearchDocumentsAfter(lastId, Limit.of(BATCH_SIZE));
+                batch.forEach(searchIndex::rebuildAdd);
+
+                indexed += batch.size();
+                if(!batch.isEmpty()){
+                    lastId = batch.get(batch.size() - 1).id();
+                }
+            }
+            while(batch.size() == BATCH_SIZE);
+
+            logger.info("Search index rebuilt with {} job applications in {} ms", indexed, System.currentTimeMillis() - started);
+        }
+        catch(RuntimeException e){
+            logger.error("Search index rebuild failed after {} job applications", indexed, e);
+        }
+        finally{
+            searchIndex.endRebuild();
+        }
+    }
+
+    /**
+     * Reindexes a single user's job applications from the database. Safe to run while the user's index
+     * is being updated: applications written or deleted meanwhile keep their live version.
+     * @param userId the user to reindex
+     */
+    public void reindexUser(Long userId){
+        searchIndex.replaceUser(userId, () -> jobApplicationRepository.findSearchDocumentsByUserId(userId));
+    }
+}
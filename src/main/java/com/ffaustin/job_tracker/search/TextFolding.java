@@ -0,0 +1,57 @@
+package com.ffaustin.job_tracker.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into accent- and case-folded tokens, so that "Société Générale" is indexed as "societe", "generale".
+ */
+final class TextFolding {
+
+    private TextFolding(){}
+
+    static List<String> tokenize(String text){
+        List<String> tokens = new ArrayList<>();
+        if(text == null || text.isEmpty()){
+            return tokens;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+
+        for(int i = 0; i < folded.length(); i++){
+            boolean tokenChar = Character.isLetterOrDigit(folded.charAt(i));
+
+            if(tokenChar && start < 0){
+                start = i;
+            }
+            else if(!tokenChar && start >= 0){
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+
+        if(start >= 0){
+            tokens.add(folded.substring(start));
+        }
+
+        return tokens;
+    }
+
+    private static String fold(String text){
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+
+        for(int i = 0; i < decomposed.length(); i++){
+            char c = decomposed.charAt(i);
+            //drop the combining marks left over from decomposing accented letters
+            if(Character.getType(c) != Character.NON_SPACING_MARK){
+                folded.append(c);
+            }
+        }
+
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+}
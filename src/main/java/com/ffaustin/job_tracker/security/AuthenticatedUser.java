@@ -0,0 +1,65 @@
+package com.ffaustin.job_tracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Security principal for an authenticated user of the application.
+ * Carries the numeric user id alongside the credentials so that downstream
+ * services can work on {@code user_id} directly instead of looking the user up by email.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList("USER");
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final boolean enabled;
+    private final boolean accountLocked;
+
+    public AuthenticatedUser(Long id, String email, String password, boolean enabled, boolean accountLocked){
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.enabled = enabled;
+        this.accountLocked = accountLocked;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !accountLocked;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
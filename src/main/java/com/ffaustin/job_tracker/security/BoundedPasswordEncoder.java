@@ -0,0 +1,140 @@
+package com.ffaustin.job_tracker.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt encoder that runs every hash and verification on a dedicated, bounded pool instead of the calling
+ * request thread. The pool has one thread per core and a bounded queue, so a burst of logins or registrations
+ * cannot take more than the cores it was given, and once the queue is full callers fail fast with a
+ * PasswordHashingBusyException rather than piling up.
+ */
+public class BoundedPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeWait;
+    private final Timer encodeTime;
+    private final Timer matchesWait;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    /**
+     * @param threads the number of hashing threads
+     * @param queueCapacity how many hashes may wait for a thread before new ones are rejected
+     * @param retryAfterSeconds the Retry-After hint given to rejected callers
+     * @param meterRegistry registry for the queue wait and hash time timers
+     */
+    public BoundedPasswordEncoder(int threads, int queueCapacity, long retryAfterSeconds, MeterRegistry meterRegistry){
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                hashingThreads(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.encodeWait = timer(meterRegistry, "password.hash.queue.wait", "encode");
+        this.encodeTime = timer(meterRegistry, "password.hash.time", "encode");
+        this.matchesWait = timer(meterRegistry, "password.hash.queue.wait", "matches");
+        this.matchesTime = timer(meterRegistry, "password.hash.time", "matches");
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashes rejected because the hashing queue was full")
+                .register(meterRegistry);
+
+        meterRegistry.gauge("password.hash.queue.size", executor, pool -> pool.getQueue().size());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> super.encode(rawPassword), encodeWait, encodeTime);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> super.matches(rawPassword, encodedPassword), matchesWait, matchesTime);
+    }
+
+    /**
+     * Stops the hashing threads; called by Spring when the context closes.
+     */
+    public void shutdown(){
+        executor.shutdown();
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     * @throws PasswordHashingBusyException if the queue is full
+     */
+    <T> T submit(Callable<T> task, Timer waitTimer, Timer hashTimer){
+        long queuedAt = System.nanoTime();
+
+        Future<T> future;
+        try{
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try{
+                    return task.call();
+                }
+                finally{
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+        catch(RejectedExecutionException e){
+            rejected.increment();
+            logger.warn("Password hashing queue is full, rejecting request");
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+
+        try{
+            return future.get();
+        }
+        catch(InterruptedException e){
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+        catch(ExecutionException e){
+            if(e.getCause() instanceof RuntimeException runtime){
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String operation){
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory hashingThreads(){
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,38 +1,96 @@
 package com.ffaustin.job_tracker.security;
 
-import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.dto.UserCredentials;
 import com.ffaustin.job_tracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository){
+    // email -> principal; AuthenticatedUser is immutable, so cached instances can be shared between requests
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.ttl:PT5M}") Duration ttl)
+    {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.details");
     }
 
     /**
      * Loads a user by their email and maps it to Spring's Security's UserDetails.
      * This is used during the authentication process to verify credentials.
+     * Results are cached for a short time; only the credential columns are read on a miss.
      * @param email
      * @return
      * @throws UsernameNotFoundException
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email).orElseThrow(()->new UsernameNotFoundException("User not found with email: " + email));
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .accountLocked(user.isAccountLocked())
-                .disabled(!user.isEnabled())
-                .authorities("USER")
-                .build();
+        AuthenticatedUser cached = cache.getIfPresent(email);
+        if(cached != null){
+            return cached;
+        }
+
+        // loaded outside the cache's compute lock so a slow query never blocks other keys
+        UserCredentials credentials = userRepository.findCredentialsByEmail(email)
+                .orElseThrow(()->new UsernameNotFoundException("User not found with email: " + email));
+
+        AuthenticatedUser user = new AuthenticatedUser(
+                credentials.id(),
+                credentials.email(),
+                credentials.password(),
+                credentials.enabled(),
+                credentials.accountLocked()
+        );
+
+        cache.put(email, user);
+        return user;
+    }
+
+    /**
+     * Drops the cached details of a user whose credentials or account state changed.
+     * When called inside a transaction the entry is dropped again after commit,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     * @param email the email of the changed account
+     */
+    public void evict(String email){
+        cache.invalidate(email);
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(email);
+                }
+            });
+        }
+
+        logger.debug("Evicted cached user details for: {}", email);
     }
 }
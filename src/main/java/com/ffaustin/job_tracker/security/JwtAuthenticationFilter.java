@@ -1,6 +1,8 @@
 package com.ffaustin.job_tracker.security;
 
-import com.ffaustin.job_tracker.util.JwtUtil;
+import com.ffaustin.job_tracker.security.VerifiedTokenCache.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,24 +17,44 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates requests carrying a JWT bearer token. Token verification and user loading are timed
+ * by the {@code auth.jwt.verify} (tagged with the result) and {@code auth.user.load} timers.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
-    
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService){
-        this.jwtUtil = jwtUtil;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+    private final Timer userLoads;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, UserDetailsService userDetailsService, MeterRegistry meterRegistry){
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
+        this.validTokens = verifyTimer(meterRegistry, "valid");
+        this.invalidTokens = verifyTimer(meterRegistry, "invalid");
+        this.userLoads = Timer.builder("auth.user.load")
+                .description("Loading the user named by a verified JWT")
+                .register(meterRegistry);
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result){
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT verification, cache hits included")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
      * This method is called for every incoming HTTP request. It
      * extracts the JWT from the Authorization header,
-     * validates the token,
+     * validates the token (parsing it at most once, and not at all when it was recently verified),
      * loads the associated user and sets the authentication in the SecurityContext.
      * @param request the incoming HTTP request
      * @param response the outgoing HTTP request
@@ -55,14 +77,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String userEmail = jwtUtil.extractEmail(token);
 
+        // Verify the token once (or reuse a previous verification of the same token)
+        long start = System.nanoTime();
+        VerifiedToken verified = verifiedTokenCache.verify(token);
+        (verified != null ? validTokens : invalidTokens).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if(verified == null){
+            logger.warn("Invalid JWT token received");
+        }
         // Authenticate only if the user is not already authenticated
-        if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        else if(SecurityContextHolder.getContext().getAuthentication() == null){
+            String userEmail = verified.email();
+            UserDetails userDetails = userLoads.record(() -> userDetailsService.loadUserByUsername(userEmail));
 
-            // Validated the token and set the authentication in the context
-            if(jwtUtil.isTokenValid(token)){
+            // Set the authentication in the context
+            if(isIssuedFor(userDetails, verified.userId())){
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
                         null,
                         userDetails.getAuthorities());
@@ -78,4 +108,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // continue with the next filter in the chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Checks that the user id carried by the token belongs to the loaded account, so a token
+     * issued for a since-deleted account cannot authenticate a new account registered with the same email.
+     * @param userDetails the account loaded for the token's subject
+     * @param userId the user id claim of the token
+     * @return true if the token was issued for this account
+     */
+    private boolean isIssuedFor(UserDetails userDetails, Long userId){
+        return userDetails instanceof AuthenticatedUser user
+                && userId != null
+                && userId.equals(user.getId());
+    }
 }
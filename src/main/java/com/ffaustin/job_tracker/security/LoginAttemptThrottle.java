@@ -0,0 +1,232 @@
+package com.ffaustin.job_tracker.security;
+
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts failed logins per account and per client address over a sliding window and refuses attempts over the limit
+ * before any password hashing or database read happens.
+ * Counters are lock-free and live in bounded Caffeine caches (striped internally), so concurrent logins never
+ * contend on a shared lock. An account that reaches the failure limit is locked; only that transition and the
+ * later unlock are written to the users table, never the individual failures.
+ */
+@Component
+public class LoginAttemptThrottle {
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptThrottle.class);
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final Clock clock;
+
+    private final int maxFailuresPerAccount;
+    private final int maxFailuresPerAddress;
+    private final long windowMillis;
+    private final Duration lockDuration;
+
+    private final Cache<String, Window> accounts;
+    private final Cache<String, Window> addresses;
+
+    private final Counter throttledAccount;
+    private final Counter throttledAddress;
+    private final Counter locks;
+
+    @Autowired
+    public LoginAttemptThrottle(UserRepository userRepository,
+                                CustomUserDetailsService userDetailsService,
+                                MeterRegistry meterRegistry,
+                                @Value("${security.login.max-failures:5}") int maxFailuresPerAccount,
+                                @Value("${security.login.max-failures-per-address:50}") int maxFailuresPerAddress,
+                                @Value("${security.login.window:PT15M}") Duration window,
+                                @Value("${security.login.lock-duration:PT15M}") Duration lockDuration,
+                                @Value("${security.login.max-tracked-keys:100000}") long maxTrackedKeys)
+    {
+        this(userRepository, userDetailsService, meterRegistry, maxFailuresPerAccount, maxFailuresPerAddress,
+                window, lockDuration, maxTrackedKeys, Clock.systemDefaultZone());
+    }
+
+    LoginAttemptThrottle(UserRepository userRepository,
+                         CustomUserDetailsService userDetailsService,
+                         MeterRegistry meterRegistry,
+                         int maxFailuresPerAccount,
+                         int maxFailuresPerAddress,
+                         Duration window,
+                         Duration lockDuration,
+                         long maxTrackedKeys,
+                         Clock clock)
+    {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.clock = clock;
+        this.maxFailuresPerAccount = maxFailuresPerAccount;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.windowMillis = window.toMillis();
+        this.lockDuration = lockDuration;
+
+        // idle keys are dropped once neither their window nor a lock can still matter
+        Duration idle = window.multipliedBy(2).plus(lockDuration);
+        this.accounts = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(idle).build();
+        this.addresses = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterAccess(idle).build();
+
+        this.throttledAccount = throttledCounter(meterRegistry, "account");
+        this.throttledAddress = throttledCounter(meterRegistry, "address");
+        this.locks = Counter.builder("auth.login.locks")
+                .description("Accounts locked after too many failed logins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refuses a login attempt for an account or client address that has failed too often recently.
+     * @param email the email the client tries to log in with
+     * @param clientAddress the remote address of the client, may be null
+     * @throws LoginThrottledException if the attempt must not be evaluated
+     */
+    public void checkAllowed(String email, String clientAddress){
+        long now = clock.millis();
+
+        Window address = clientAddress != null ? addresses.getIfPresent(clientAddress) : null;
+        if(address != null && address.estimate(now, windowMillis) >= maxFailuresPerAddress){
+            throttledAddress.increment();
+            throw new LoginThrottledException(secondsUntil(now + windowMillis / 2, now));
+        }
+
+        Window account = accounts.getIfPresent(key(email));
+        if(account != null && account.lockedUntil.get() > now){
+            throttledAccount.increment();
+            throw new LoginThrottledException(secondsUntil(account.lockedUntil.get(), now));
+        }
+    }
+
+    /**
+     * Records a failed login and locks the account when it reaches the failure limit.
+     * @param email the email used for the failed attempt
+     * @param clientAddress the remote address of the client, may be null
+     */
+    public void recordFailure(String email, String clientAddress){
+        long now = clock.millis();
+
+        if(clientAddress != null){
+            addresses.get(clientAddress, k -> new Window()).increment(now, windowMillis);
+        }
+
+        Window account = accounts.get(key(email), k -> new Window());
+        int failures = account.increment(now, windowMillis);
+
+        long lockedUntil = account.lockedUntil.get();
+        if(failures >= maxFailuresPerAccount && lockedUntil <= now
+                && account.lockedUntil.compareAndSet(lockedUntil, now + lockDuration.toMillis()))
+        {
+            // only the thread that won the transition writes it
+            account.reset();
+            userRepository.lockAccount(key(email), LocalDateTime.now(clock), failures);
+            userDetailsService.evict(email);
+            locks.increment();
+            logger.warn("Account locked after {} failed logins: {}", failures, email);
+        }
+    }
+
+    /**
+     * Forgets the failures of an account after a successful login.
+     * @param email the email that logged in
+     */
+    public void recordSuccess(String email){
+        accounts.invalidate(key(email));
+    }
+
+    /**
+     * Unlocks an account whose persisted lock is older than the lock duration, e.g. after a restart dropped the
+     * in-memory state that would otherwise have released it.
+     * @param email the email of the locked account
+     * @return true if the account was unlocked and the login may be retried
+     * @throws LoginThrottledException if the account is still locked
+     */
+    public boolean unlockIfExpired(String email){
+        LocalDateTime lockedBefore = LocalDateTime.now(clock).minus(lockDuration);
+
+        if(userRepository.unlockAccount(key(email), lockedBefore) > 0){
+            userDetailsService.evict(email);
+            logger.info("Account lock expired: {}", email);
+            return true;
+        }
+
+        throttledAccount.increment();
+        throw new LoginThrottledException(lockDuration.toSeconds());
+    }
+
+    private static String key(String email){
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long secondsUntil(long epochMillis, long now){
+        return Math.max(1, (epochMillis - now + 999) / 1000);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String reason){
+        return Counter.builder("auth.login.throttled")
+                .tag("reason", reason)
+                .description("Login attempts refused before password verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sliding window approximated from the current and previous fixed windows:
+     * the previous count is weighted by how much of it still overlaps the sliding window.
+     */
+    static final class Window {
+
+        private record Counts(long window, int current, int previous) { }
+
+        private final AtomicReference<Counts> counts = new AtomicReference<>(new Counts(0, 0, 0));
+        final AtomicLong lockedUntil = new AtomicLong();
+
+        int increment(long now, long windowMillis){
+            long window = now / windowMillis;
+
+            Counts current;
+            Counts next;
+            do{
+                current = counts.get();
+                Counts rolled = roll(current, window);
+                next = new Counts(window, rolled.current() + 1, rolled.previous());
+            }
+            while(!counts.compareAndSet(current, next));
+
+            return estimate(next, now, windowMillis);
+        }
+
+        int estimate(long now, long windowMillis){
+            return estimate(roll(counts.get(), now / windowMillis), now, windowMillis);
+        }
+
+        void reset(){
+            counts.set(new Counts(0, 0, 0));
+        }
+
+        private static Counts roll(Counts counts, long window){
+            if(counts.window() == window){
+                return counts;
+            }
+            int previous = counts.window() == window - 1 ? counts.current() : 0;
+            return new Counts(window, 0, previous);
+        }
+
+        private static int estimate(Counts counts, long now, long windowMillis){
+            double elapsed = (double) (now % windowMillis) / windowMillis;
+            return (int) Math.ceil(counts.current() + counts.previous() * (1 - elapsed));
+        }
+    }
+}
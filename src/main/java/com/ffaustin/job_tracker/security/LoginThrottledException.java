@@ -0,0 +1,22 @@
+package com.ffaustin.job_tracker.security;
+
+/**
+ * Thrown when a login is refused because of too many recent failures for the account or the client address;
+ * mapped to 429 Too Many Requests.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds){
+        super("Too many failed login attempts, please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return how long the client should wait before retrying, in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
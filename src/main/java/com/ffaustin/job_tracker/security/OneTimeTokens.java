@@ -0,0 +1,50 @@
+package com.ffaustin.job_tracker.security;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Generates the single-use tokens mailed to users and the digests they are stored and looked up by.
+ * Each thread has its own SecureRandom and digest, so concurrent registrations never contend on a shared generator.
+ */
+@Component
+public class OneTimeTokens {
+
+    // 256 bits of randomness, 43 characters once encoded
+    private static final int TOKEN_BYTES = 32;
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    /**
+     * @return a new random URL-safe token
+     */
+    public String generate(){
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.get().nextBytes(bytes);
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    /**
+     * @param token a token as sent to the user
+     * @return the URL-safe SHA-256 digest the token is stored under
+     */
+    public String hash(String token){
+        // digest() resets the instance, so it can be reused by the next call on this thread
+        return BASE64_URL.encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
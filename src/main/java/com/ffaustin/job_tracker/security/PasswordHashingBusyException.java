@@ -0,0 +1,21 @@
+package com.ffaustin.job_tracker.security;
+
+/**
+ * Thrown when the password hashing pool has no room for more work; mapped to 429 Too Many Requests.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds){
+        super("Server is busy, please retry shortly.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return how long the client should wait before retrying, in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ffaustin.job_tracker.security;
+
+import com.ffaustin.job_tracker.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Bounded, expiring cache of already verified JWTs, keyed by a SHA-256 digest of the token.
+ * Repeat requests from the same session skip the HMAC check and claims parsing.
+ * Entries never outlive the token they were created from.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    /**
+     * The parts of a verified token the authentication filter needs.
+     * @param userId the user id claim, may be null for tokens issued without one
+     * @param email the subject of the token
+     * @param expiresAtMillis the token expiry, in epoch milliseconds
+     */
+    public record VerifiedToken(Long userId, String email, long expiresAtMillis) {
+
+        boolean isExpired(){
+            return expiresAtMillis <= System.currentTimeMillis();
+        }
+    }
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.max-ttl:PT15M}") Duration maxTtl)
+    {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expireAtTokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    /**
+     * Returns the verified content of the token, verifying and caching it on a miss.
+     * @param token the compact JWT from the Authorization header
+     * @return the verified token, or null if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token){
+        String key = digest(token);
+
+        VerifiedToken cached = cache.getIfPresent(key);
+        if(cached != null && !cached.isExpired()){
+            return cached;
+        }
+
+        try{
+            Claims claims = jwtUtil.parseClaims(token);
+            VerifiedToken verified = new VerifiedToken(
+                    claims.get(JwtUtil.USER_ID_CLAIM, Long.class),
+                    claims.getSubject(),
+                    claims.getExpiration().getTime()
+            );
+
+            cache.put(key, verified);
+            return verified;
+        }
+        catch(JwtException | IllegalArgumentException e){
+            logger.debug("JWT verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Expiry<String, VerifiedToken> expireAtTokenExpiry(Duration maxTtl){
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                long untilExpiry = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static String digest(String token){
+        try{
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        }
+        catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -9,11 +9,17 @@ import com.ffaustin.job_tracker.entity.VerificationToken;
 import com.ffaustin.job_tracker.repository.PasswordResetTokenRepository;
 import com.ffaustin.job_tracker.repository.UserRepository;
 import com.ffaustin.job_tracker.repository.VerificationTokenRepository;
+import com.ffaustin.job_tracker.security.AuthenticatedUser;
+import com.ffaustin.job_tracker.security.CustomUserDetailsService;
+import com.ffaustin.job_tracker.security.LoginAttemptThrottle;
+import com.ffaustin.job_tracker.security.OneTimeTokens;
 import com.ffaustin.job_tracker.util.JwtUtil;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,7 +28,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -36,6 +41,10 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final SendGridService sendGridService;
+    private final EmailOutboxService emailOutboxService;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
+    private final OneTimeTokens oneTimeTokens;
 
     public AuthService(
             UserRepository userRepository,
@@ -45,7 +54,11 @@ public class AuthService {
             AuthenticationManager authManager,
             JwtUtil jwtUtil,
             PasswordResetTokenRepository passwordResetTokenRepository,
-            SendGridService sendGridService)
+            SendGridService sendGridService,
+            EmailOutboxService emailOutboxService,
+            CustomUserDetailsService userDetailsService,
+            LoginAttemptThrottle loginAttemptThrottle,
+            OneTimeTokens oneTimeTokens)
     {
         this.userRepository = userRepository;
         this.verificationTokenRepository = verificationTokenRepository;
@@ -55,11 +68,16 @@ public class AuthService {
         this.jwtUtil = jwtUtil;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.sendGridService = sendGridService;
+        this.emailOutboxService = emailOutboxService;
+        this.userDetailsService = userDetailsService;
+        this.loginAttemptThrottle = loginAttemptThrottle;
+        this.oneTimeTokens = oneTimeTokens;
     }
 
 
     /**
-     * Handles new user registration. Saves user and sends email verification token.
+     * Handles new user registration. Saves user and queues the email verification token,
+     * which is delivered after commit by the outbox dispatcher.
      * @param registerRequest the user's registration request
      */
     @Transactional
@@ -81,9 +99,9 @@ public class AuthService {
         userRepository.save(user);
 
         //generate token
-        String token = UUID.randomUUID().toString();
+        String token = oneTimeTokens.generate();
         VerificationToken verificationToken = new VerificationToken();
-        verificationToken.setToken(token);
+        verificationToken.setTokenHash(oneTimeTokens.hash(token));
         verificationToken.setUser(user);
         verificationToken.setExpiryDate(LocalDateTime.now().plusMinutes(15));
 
@@ -91,9 +109,9 @@ public class AuthService {
 
         String html = sendGridService.buildVerificationEmail(token);
 
-        //send email
-        sendGridService.sendEmail(user.getEmail(), "Verify Your JobTrackr Account", html);
-        logger.info("Verification token sent to user: {}", user.getEmail());
+        //queue email, committed together with the user and token
+        emailOutboxService.enqueue(user.getEmail(), "Verify Your JobTrackr Account", html);
+        logger.info("Verification token queued for user: {}", user.getEmail());
     }
 
 
@@ -103,7 +121,7 @@ public class AuthService {
      */
     @Transactional
     public void verifyEmailToken(String token){
-        VerificationToken verificationToken = verificationTokenRepository.findByToken(token)
+        VerificationToken verificationToken = verificationTokenRepository.findByTokenHash(oneTimeTokens.hash(token))
                 .orElseThrow(()->{
                     logger.warn("Invalid verification token received: {}", token);
                     return new RuntimeException("Invalid verification token.");
@@ -117,6 +135,7 @@ public class AuthService {
         User user = verificationToken.getUser();
         user.setEnabled(true);
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         verificationTokenRepository.delete(verificationToken);
 
@@ -126,16 +145,32 @@ public class AuthService {
 
     /**
      * Authenticates the user and issues a JWT if credentials are valid.
+     * Password verification runs on the bounded hashing pool and fails with 429 when that pool is saturated.
+     * Accounts and client addresses with too many recent failures are refused before the password is checked.
      * @param request
+     * @param clientAddress the remote address of the client, used for throttling
      * @return
      */
-    public LoginResponse login(LoginRequest request){
+    public LoginResponse login(LoginRequest request, String clientAddress){
+        loginAttemptThrottle.checkAllowed(request.email(), clientAddress);
 
-        Authentication authentication = authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.email(),
-                        request.password()
-                ));
+        Authentication authentication;
+        try{
+            authentication = authenticateReleasingExpiredLock(request);
+        }
+        catch(BadCredentialsException e){
+            loginAttemptThrottle.recordFailure(request.email(), clientAddress);
+            throw e;
+        }
+        loginAttemptThrottle.recordSuccess(request.email());
+
+        //the authenticated principal already carries the id and email, so the user is loaded only once
+        if(authentication.getPrincipal() instanceof AuthenticatedUser principal){
+            String token = jwtUtil.generateToken(principal.getId(), principal.getEmail());
+            logger.info("User logged in: {}", principal.getEmail());
+
+            return new LoginResponse(principal.getEmail(), token);
+        }
 
         User user = userRepository.findByEmail(request.email())
                         .orElseThrow(()-> {
@@ -143,17 +178,39 @@ public class AuthService {
                             return new RuntimeException("User not found.");
                         });
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail());
         logger.info("User logged in: {}", user.getEmail());
 
         return new LoginResponse(user.getEmail(), token);
     }
 
 
+    //a wrong password on the retry is thrown to the caller like any other, so it is counted as a failure too
+    private Authentication authenticateReleasingExpiredLock(LoginRequest request){
+        try{
+            return authenticate(request);
+        }
+        catch(LockedException e){
+            //a lock persisted before a restart is only released here, once it has expired
+            loginAttemptThrottle.unlockIfExpired(request.email());
+            return authenticate(request);
+        }
+    }
+
+    private Authentication authenticate(LoginRequest request){
+        return authManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                        request.email(),
+                        request.password()
+                ));
+    }
+
+
     /**
-     * Sends a password reset token to the user's email
+     * Queues a password reset token for delivery to the user's email
      * @param email
      */
+    @Transactional
     public void sendPasswordResetToken(String email){
         User user = userRepository.findByEmail(email)
                 .orElseThrow(()->
@@ -164,26 +221,23 @@ public class AuthService {
 
         //invalidate old token if any
         passwordResetTokenRepository.deleteByUser(user);
+        //the old token must be gone before the new one is inserted for the same user
+        passwordResetTokenRepository.flush();
 
         //generate new token and expiry
-        String token = UUID.randomUUID().toString();
+        String token = oneTimeTokens.generate();
         LocalDateTime expiryDate = LocalDateTime.now().plusMinutes(30);
 
-        PasswordResetToken resetToken = new PasswordResetToken(token, user, expiryDate);
+        PasswordResetToken resetToken = new PasswordResetToken(oneTimeTokens.hash(token), user, expiryDate);
 
         passwordResetTokenRepository.save(resetToken);
 
-        //send email (mock)
-        //String resetLink = "http://localhost:80080/api/auth/reset-password?token="+ token;
-        //emailService.sendVerificationEmail(user.getEmail(), token);
-
-        String html = "<p>Click below to reset your password:</p>" +
-                "<a href=\"http://localhost:8080/api/auth/verify?token=" + token + "\">Reset Password</a>";
+        String html = sendGridService.buildPasswordResetEmail(token);
 
-        //send email
-        sendGridService.sendEmail(user.getEmail(), "Confirm Your Reset Password Request", html);
+        //queue email, committed together with the token
+        emailOutboxService.enqueue(user.getEmail(), "Confirm Your Reset Password Request", html);
 
-        logger.info("Password reset token sent to: {}", user.getEmail());
+        logger.info("Password reset token queued for: {}", user.getEmail());
     }
 
 
@@ -193,7 +247,7 @@ public class AuthService {
      * @param newPassword
      */
     public void resetPassword(String token, String newPassword){
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(token)
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByTokenHash(oneTimeTokens.hash(token))
                 .orElseThrow(()-> {
                     logger.warn("Invalid password reset token used: {}", token);
                     return new IllegalArgumentException("Invalid password reset token.");
@@ -208,6 +262,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         passwordResetTokenRepository.delete(resetToken);
 
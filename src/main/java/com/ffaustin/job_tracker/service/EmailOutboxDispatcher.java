@@ -0,0 +1,211 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers queued emails from the email_outbox table.
+ * Each poll claims due rows in a short transaction (skipping rows other instances hold),
+ * sends them on virtual threads with bounded concurrency, and records each outcome in its own short transaction.
+ * Failed sends are retried with exponential backoff until the attempt limit.
+ */
+@Component
+public class EmailOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SendGridService sendGridService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    // bounds in-flight sends, however many rows a poll claims
+    private final Semaphore inFlight;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 SendGridService sendGridService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.concurrency:8}") int concurrency,
+                                 @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${mail.outbox.lease:PT5M}") Duration lease,
+                                 @Value("${mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${mail.outbox.max-backoff:PT1H}") Duration maxBackoff)
+    {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.sendGridService = sendGridService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.inFlight = new Semaphore(concurrency);
+
+        this.sent = meterRegistry.counter("mail.outbox.deliveries", "result", "sent");
+        this.retried = meterRegistry.counter("mail.outbox.deliveries", "result", "retry");
+        this.failed = meterRegistry.counter("mail.outbox.deliveries", "result", "failed");
+    }
+
+    /**
+     * Claims one batch of due emails and waits until each has been sent or rescheduled.
+     * A poll never takes more than one batch, so a backlog cannot hold the scheduler thread shared with the other
+     * scheduled jobs; the rest is claimed by the next polls, at up to batch-size emails per poll interval.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public void dispatch(){
+        List<ClaimedEmail> batch = claimDue();
+        if(batch.isEmpty()){
+            return;
+        }
+
+        List<Future<?>> deliveries = new ArrayList<>(batch.size());
+        try{
+            for(ClaimedEmail email : batch){
+                inFlight.acquire();
+                deliveries.add(executor.submit(() -> {
+                    try{
+                        deliver(email);
+                    }
+                    finally{
+                        inFlight.release();
+                    }
+                }));
+            }
+
+            for(Future<?> delivery : deliveries){
+                delivery.get();
+            }
+        }
+        catch(InterruptedException e){
+            // unsent claims become due again when their lease ends
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e){
+            logger.error("Email delivery task failed", e.getCause());
+        }
+    }
+
+    private List<ClaimedEmail> claimDue(){
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            List<ClaimedEmail> due = emailOutboxRepository
+                    .findDueForUpdate(EmailOutbox.Status.PENDING, now, Limit.of(batchSize))
+                    .stream()
+                    .map(ClaimedEmail::of)
+                    .toList();
+
+            if(!due.isEmpty()){
+                emailOutboxRepository.claim(due.stream().map(ClaimedEmail::id).toList(), now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(ClaimedEmail email){
+        try{
+            sendGridService.sendEmail(email.recipient(), email.subject(), email.html());
+        }
+        catch(RuntimeException e){
+            recordFailure(email, e);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.markSent(email.id(), EmailOutbox.Status.SENT, LocalDateTime.now()));
+        sent.increment();
+        logger.info("Sent email {} to {}", email.id(), email.recipient());
+    }
+
+    private void recordFailure(ClaimedEmail email, RuntimeException error){
+        String message = truncate(error.getMessage());
+
+        if(email.attempt() >= maxAttempts){
+            transactionTemplate.executeWithoutResult(status ->
+                    emailOutboxRepository.markFailed(email.id(), EmailOutbox.Status.FAILED, LocalDateTime.now(), message));
+            failed.increment();
+            logger.error("Giving up on email {} to {} after {} attempts: {}", email.id(), email.recipient(), email.attempt(), message);
+            return;
+        }
+
+        LocalDateTime retryAt = LocalDateTime.now().plus(backoff(email.attempt()));
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.markFailedAttempt(email.id(), EmailOutbox.Status.PENDING, retryAt, message));
+        retried.increment();
+        logger.warn("Email {} to {} failed on attempt {}, retrying at {}: {}", email.id(), email.recipient(), email.attempt(), retryAt, message);
+    }
+
+    /**
+     * Doubles the delay after each attempt up to the maximum, randomized over its upper half
+     * so emails that failed together are not retried together.
+     */
+    Duration backoff(int attempt){
+        long capped = initialBackoff.toMillis() << Math.min(attempt - 1, 30);
+        if(capped <= 0 || capped > maxBackoff.toMillis()){
+            capped = maxBackoff.toMillis();
+        }
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private static String truncate(String message){
+        if(message == null){
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if(!executor.awaitTermination(10, TimeUnit.SECONDS)){
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * What a delivery needs from a claimed row, read before the claiming transaction ends.
+     * @param attempt the number of this attempt, counting it
+     */
+    private record ClaimedEmail(Long id, String recipient, String subject, String html, int attempt) {
+
+        static ClaimedEmail of(EmailOutbox email){
+            return new ClaimedEmail(email.getId(), email.getRecipient(), email.getSubject(), email.getHtml(), email.getAttempts() + 1);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes sent and failed emails from the email_outbox table once they are older than the retention period,
+ * so the table only ever holds pending emails and recent history.
+ * Rows are removed in chunks, each in its own short transaction, like ExpiredTokenPurger does for tokens.
+ */
+@Component
+public class EmailOutboxPurger {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxPurger.class);
+
+    private static final Set<EmailOutbox.Status> FINISHED = EnumSet.of(EmailOutbox.Status.SENT, EmailOutbox.Status.FAILED);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+
+    private final Counter purged;
+
+    public EmailOutboxPurger(EmailOutboxRepository emailOutboxRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${mail.outbox.retention:P7D}") Duration retention,
+                             @Value("${mail.outbox.purge.chunk-size:500}") int chunkSize)
+    {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+
+        this.purged = meterRegistry.counter("mail.outbox.purged");
+    }
+
+    /**
+     * Purges every sent or failed email whose last attempt is older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.purge.interval-ms:3600000}", initialDelayString = "${mail.outbox.purge.initial-delay-ms:120000}")
+    public void purge(){
+        // a finished email's next_attempt_at is when it was last tried, so the status index serves the lookup
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long total = 0;
+
+        while(true){
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = emailOutboxRepository.findFinishedIdsBefore(FINISHED, before, Limit.of(chunkSize));
+                if(!ids.isEmpty()){
+                    emailOutboxRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+
+            if(deleted == null || deleted == 0){
+                break;
+            }
+
+            total += deleted;
+            purged.increment(deleted);
+
+            if(deleted < chunkSize){
+                break;
+            }
+        }
+
+        if(total > 0){
+            logger.info("Purged {} sent or failed emails older than {}", total, retention);
+        }
+    }
+}
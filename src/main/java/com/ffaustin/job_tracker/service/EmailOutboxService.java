@@ -0,0 +1,38 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues outgoing emails in the email_outbox table. Queuing joins the caller's transaction,
+ * so an email exists exactly when the change that triggered it commits, and no request waits on the mail provider.
+ */
+@Service
+public class EmailOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository){
+        this.emailOutboxRepository = emailOutboxRepository;
+    }
+
+    /**
+     * Queues an HTML email for delivery by EmailOutboxDispatcher.
+     * @param to the recipient's address
+     * @param subject the subject line
+     * @param html the rendered body
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void enqueue(String to, String subject, String html){
+        EmailOutbox email = emailOutboxRepository.save(new EmailOutbox(to, subject, html, LocalDateTime.now()));
+
+        logger.debug("Queued email {} to {}", email.getId(), to);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.repository.OneTimeTokenRepository;
+import com.ffaustin.job_tracker.repository.PasswordResetTokenRepository;
+import com.ffaustin.job_tracker.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes expired verification and password reset tokens.
+ * Rows are removed in chunks, each in its own short transaction, so a large backlog never holds locks for long
+ * or builds one huge delete.
+ */
+@Component
+public class ExpiredTokenPurger {
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredTokenPurger.class);
+
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final Counter verificationPurged;
+    private final Counter passwordResetPurged;
+
+    public ExpiredTokenPurger(VerificationTokenRepository verificationTokenRepository,
+                              PasswordResetTokenRepository passwordResetTokenRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${tokens.purge.chunk-size:500}") int chunkSize)
+    {
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        this.verificationPurged = meterRegistry.counter("tokens.purged", "type", "verification");
+        this.passwordResetPurged = meterRegistry.counter("tokens.purged", "type", "password_reset");
+    }
+
+    /**
+     * Purges every token that expired before now.
+     */
+    @Scheduled(fixedDelayString = "${tokens.purge.interval-ms:3600000}", initialDelayString = "${tokens.purge.initial-delay-ms:60000}")
+    public void purge(){
+        LocalDateTime now = LocalDateTime.now();
+
+        long verification = purge(verificationTokenRepository, now, verificationPurged);
+        long passwordReset = purge(passwordResetTokenRepository, now, passwordResetPurged);
+
+        if(verification + passwordReset > 0){
+            logger.info("Purged {} expired verification and {} expired password reset tokens", verification, passwordReset);
+        }
+    }
+
+    private long purge(OneTimeTokenRepository<?> repository, LocalDateTime now, Counter purged){
+        long total = 0;
+
+        while(true){
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.findExpiredIds(now, Limit.of(chunkSize));
+                if(!ids.isEmpty()){
+                    repository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+
+            if(deleted == null || deleted == 0){
+                return total;
+            }
+
+            total += deleted;
+            purged.increment(deleted);
+
+            if(deleted < chunkSize){
+                return total;
+            }
+        }
+    }
+}
@@ -1,52 +1,96 @@
 package com.ffaustin.job_tracker.service;
 
+import com.ffaustin.job_tracker.dto.BulkJobRequest;
+import com.ffaustin.job_tracker.dto.BulkJobResult;
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.CursorPage;
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobCursor;
 import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
 import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
 import com.ffaustin.job_tracker.entity.JobApplication;
 import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.exception.PreconditionFailedException;
 import com.ffaustin.job_tracker.repository.JobApplicationRepository;
 import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.search.JobSearchDocument;
+import com.ffaustin.job_tracker.search.JobSearchIndex;
+import com.ffaustin.job_tracker.search.JobSearchIndexLoader;
 import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
-import jakarta.validation.Valid;
+import com.ffaustin.job_tracker.specifications.JobSortPlanner;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 @Service
 public class JobApplicationService {
 
     private static final Logger logger = LoggerFactory.getLogger(JobApplicationService.class);
 
-    private final UserRepository userRepository;
-    private final JobApplicationRepository jobApplicationRepository;
+    // Upper bound on any page or slice size a client can request
+    public static final int MAX_PAGE_SIZE = 100;
 
+    // Upper bound on the ids a bulk operation can list explicitly
+    public static final int MAX_BULK_IDS = 1000;
 
-    public JobApplicationService(UserRepository userRepository, JobApplicationRepository jobApplicationRepository){
+    private final UserRepository userRepository;
+    private final JobApplicationRepository jobApplicationRepository;
+    private final JobSearchIndex searchIndex;
+    private final JobSearchIndexLoader searchIndexLoader;
+    private final JobStatsService jobStatsService;
+    private final JobStatusHistoryService jobStatusHistoryService;
+    private final JobDataVersions dataVersions;
+
+
+    public JobApplicationService(UserRepository userRepository,
+                                 JobApplicationRepository jobApplicationRepository,
+                                 JobSearchIndex searchIndex,
+                                 JobSearchIndexLoader searchIndexLoader,
+                                 JobStatsService jobStatsService,
+                                 JobStatusHistoryService jobStatusHistoryService,
+                                 JobDataVersions dataVersions){
         this.userRepository = userRepository;
         this.jobApplicationRepository = jobApplicationRepository;
+        this.searchIndex = searchIndex;
+        this.searchIndexLoader = searchIndexLoader;
+        this.jobStatsService = jobStatsService;
+        this.jobStatusHistoryService = jobStatusHistoryService;
+        this.dataVersions = dataVersions;
     }
 
 
     /**
      * Creates and saves a new job application associated with the authenticated user
      * @param jobRequest the incoming job application details
-     * @param userEmail the email of the authenticated user
+     * @param userId the id of the authenticated user
      */
-    public void createJob(JobRequest jobRequest, String userEmail)
+    @Transactional
+    public void createJob(JobRequest jobRequest, Long userId)
     {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(()->{
-                    logger.warn("Could not find user associated with a job request: {}", userEmail);
-                    return new UsernameNotFoundException("User not found: " + userEmail);
-                });
+        //reference only, the user row is not loaded
+        User user = userRepository.getReferenceById(userId);
 
         JobApplication job = JobApplication.builder()
                 .company(jobRequest.company())
@@ -60,34 +104,89 @@ public class JobApplicationService {
                 .build();
 
         jobApplicationRepository.save(job);
+        jobStatsService.recordCreated(userId, job);
+        jobStatusHistoryService.recordCreated(userId, job);
+        JobSearchDocument document = searchDocumentOf(job, userId);
+        afterCommit(() -> {
+            dataVersions.bump(userId);
+            searchIndex.index(document);
+        });
 
-        logger.info("Job application created for user {}: {} at {}", userEmail, jobRequest.position(), jobRequest.company());
+        logger.info("Job application created for user {}: {} at {}", userId, jobRequest.position(), jobRequest.company());
     }
 
 
-    public Page<JobApplication> getUserJobs(String userEmail, int page, int size)
+    public Page<JobApplicationSummary> getUserJobs(Long userId, int page, int size)
     {
-        //retrieve corresponding user object
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(()->new UsernameNotFoundException("User not found: " + userEmail));
-
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(page, clampPageSize(size));
 
-        return jobApplicationRepository.findByUser(user, pageable);
+        return jobApplicationRepository.findSummariesByUserId(userId, pageable);
     }
 
 
-    public void updateJob(Long jobId, JobRequest request, String userEmail) {
-        //find the user
-        User user = userRepository.findByEmail(userEmail).orElseThrow(()->{
-            logger.warn("User not found: {}", userEmail);
-            return new UsernameNotFoundException("User not found");
-        });
+    /**
+     * Retrieves one keyset-paginated slice of the user's job applications, newest application date first.
+     * Unlike {@link #getUserJobs(Long, int, int)} this never runs an OFFSET scan, and only counts when asked to.
+     * @param userId the id of the authenticated user
+     * @param after the cursor returned with the previous slice, null or blank for the first slice
+     * @param size the requested slice size, capped at {@link #MAX_PAGE_SIZE}
+     * @param includeTotal whether to include the user's total number of applications
+     * @return the slice with the cursor of the next one
+     */
+    public CursorPage<JobApplicationSummary> getUserJobsAfter(Long userId, String after, int size, boolean includeTotal)
+    {
+        int limit = clampPageSize(size);
+
+        // fetch one extra row to learn whether another slice follows
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<JobApplicationSummary> rows;
+
+        if(after == null || after.isBlank()){
+            rows = withUndatedTail(userId, jobApplicationRepository.findFirstDatedKeysetSlice(userId, fetchLimit), fetchLimit);
+        }
+        else{
+            JobCursor cursor = JobCursor.decode(after);
+
+            rows = cursor.dateApplied() == null
+                    ? jobApplicationRepository.findUndatedKeysetSliceAfter(userId, cursor.id(), fetchLimit)
+                    : withUndatedTail(userId,
+                        jobApplicationRepository.findDatedKeysetSliceAfter(userId, cursor.dateApplied(), cursor.id(), fetchLimit),
+                        fetchLimit);
+        }
 
-        //retrieve the specific job
-        JobApplication job = jobApplicationRepository.findByIdAndUser(jobId, user).orElseThrow(
+        boolean hasNext = rows.size() > limit;
+        List<JobApplicationSummary> items = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if(hasNext){
+            JobApplicationSummary last = items.get(items.size() - 1);
+            nextCursor = new JobCursor(last.dateApplied(), last.id()).encode();
+        }
+
+        Long total = includeTotal ? jobApplicationRepository.countByUserId(userId) : null;
+
+        return new CursorPage<>(items, nextCursor, hasNext, total);
+    }
+
+
+    /**
+     * Replaces the fields of one of the user's job applications.
+     * @param jobId the id of the application
+     * @param request the new field values
+     * @param userId the id of the authenticated user
+     * @param expectedVersion the version the client last read (If-Match), or null to update unconditionally
+     * @return the new version of the application
+     */
+    @Transactional
+    public Long updateJob(Long jobId, JobRequest request, Long userId, Long expectedVersion) {
+        //retrieve the specific job; the versioned update fails if it changes before this one commits,
+        //so the statistics and history below replace exactly what was read
+        JobApplication job = jobApplicationRepository.findByIdAndUserId(jobId, userId).orElseThrow(
                 ()->new NoSuchElementException("Job not found for this user.")
         );
+        checkVersion(job, expectedVersion);
+        JobBucketCount before = JobStatsService.bucketsOf(job);
+        JobStatus previousStatus = job.getStatus();
 
         //update the job
         job.setCompany(request.company());
@@ -98,36 +197,306 @@ public class JobApplicationService {
         job.setDateApplied(request.applicationDate());
         job.setInterviewDate(request.interviewDate());
 
-        jobApplicationRepository.save(job);
+        //flushed here so the incremented version can be returned
+        jobApplicationRepository.saveAndFlush(job);
+        jobStatsService.recordUpdated(userId, before, job);
+        jobStatusHistoryService.recordTransition(userId,
+                new JobStatusSnapshot(job.getId(), previousStatus, job.getJobBoardUsed(), job.getDateApplied()), job.getStatus());
+        JobSearchDocument document = searchDocumentOf(job, userId);
+        afterCommit(() -> {
+            dataVersions.bump(userId);
+            searchIndex.index(document);
+        });
 
         logger.info("Job at id {} updated successfully.", jobId);
+        return job.getVersion();
     }
 
 
-    public void deleteJob(Long jobId, @Valid JobRequest request, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(()->new UsernameNotFoundException("User not found: " + userEmail));
+    /**
+     * Changes some fields of one of the user's job applications with a single UPDATE of its row, without loading it.
+     * The UPDATE returns the status, job board and application date it replaced, for the statistics and status history.
+     * @param jobId the id of the application
+     * @param patch the fields to change
+     * @param userId the id of the authenticated user
+     * @param expectedVersion the version the client last read (If-Match), or null to update unconditionally
+     * @return the new version of the application when an expected one was given, else null
+     */
+    @Transactional
+    public Long patchJob(Long jobId, JobPatchRequest patch, Long userId, Long expectedVersion) {
+        if(patch.isEmpty()){
+            throw new IllegalArgumentException("Give at least one field to update.");
+        }
 
-        JobApplication job = jobApplicationRepository.findByIdAndUser(jobId, user)
-                .orElseThrow(()-> new NoSuchElementException("The job specified could not be found for this user"));
+        JobStatusSnapshot before = jobApplicationRepository.patchReturningSnapshot(userId, jobId, expectedVersion, patch)
+                .orElseThrow(() -> missingOrChanged(jobId, userId, expectedVersion));
 
-        jobApplicationRepository.delete(job);
+        if(patch.changesBuckets()){
+            JobStatusSnapshot after = patched(before, patch);
+            jobStatusHistoryService.recordTransition(userId,
+                    new JobStatusSnapshot(jobId, before.status(), after.jobBoardUsed(), after.dateApplied()), after.status());
+            jobStatsService.recordUpdated(userId,
+                    new JobBucketCount(before.status(), before.jobBoardUsed(), before.dateApplied(), 1),
+                    new JobBucketCount(after.status(), after.jobBoardUsed(), after.dateApplied(), 1));
+        }
+
+        afterCommit(() -> {
+            dataVersions.bump(userId);
+            if(patch.changesSearchFields() && !searchIndex.update(userId, jobId, document -> patched(document, patch))){
+                searchIndexLoader.reindexUser(userId);
+            }
+        });
 
-        logger.info("Deleted job {} for user {}", jobId, userEmail);
+        logger.info("Job at id {} patched successfully.", jobId);
+        return expectedVersion == null ? null : expectedVersion + 1;
     }
 
 
-    public Page<JobApplication> filterJobs(String userEmail, JobFilterRequest filter, int page, int size){
-        Specification<JobApplication> specs = JobApplicationSpecification.withFilters(userEmail, filter);
+    /**
+     * Deletes one of the user's job applications with a single DELETE of its row,
+     * which returns the buckets the statistics remove it from.
+     * @param jobId the id of the application
+     * @param userId the id of the authenticated user
+     * @param expectedVersion the version the client last read (If-Match), or null to delete unconditionally
+     */
+    @Transactional
+    public void deleteJob(Long jobId, Long userId, Long expectedVersion) {
+        JobStatusSnapshot removed = jobApplicationRepository.deleteReturningSnapshot(userId, jobId, expectedVersion)
+                .orElseThrow(() -> missingOrChanged(jobId, userId, expectedVersion));
+        jobStatsService.recordRemoved(userId, bucketsOf(List.of(removed)));
+
+        afterCommit(() -> {
+            dataVersions.bump(userId);
+            searchIndex.remove(userId, jobId);
+        });
+
+        logger.info("Deleted job {} for user {}", jobId, userId);
+    }
+
+
+    public Page<JobApplicationSummary> filterJobs(Long userId, JobFilterRequest filter, int page, int size){
+        //reject unsupported sorts before touching the database
+        Sort sort = JobSortPlanner.plan(filter.sortBy(), filter.direction());
+
+        Specification<JobApplication> specs = JobApplicationSpecification.withFilters(userId, filter);
+
+        Pageable pageable = PageRequest.of(page, clampPageSize(size), sort);
+        return jobApplicationRepository.findSummaries(specs, pageable);
+    }
+
+
+    /**
+     * Sets the status of many of the user's job applications with a single UPDATE.
+     * @param userId the id of the authenticated user
+     * @param request the ids or filter selecting the applications, and the new status
+     * @return the number of applications updated
+     */
+    @Transactional
+    public BulkJobResult bulkUpdateStatus(Long userId, BulkJobRequest request){
+        if(request.status() == null){
+            throw new IllegalArgumentException("A status is required for a bulk update.");
+        }
 
-        Sort sort = Sort.by("appliedDate").descending(); //default sorting
+        Specification<JobApplication> selection = bulkSelection(userId, request);
 
-        if(filter.sortBy() != null && filter.direction() != null){
-            Sort.Direction direction = Sort.Direction.fromString(filter.direction());
-            sort = Sort.by(direction, filter.sortBy());
+        List<JobStatusSnapshot> selected = jobApplicationRepository.lockStatusSnapshots(selection);
+        // the history is read through the selection, so it is recorded before the update changes what it matches
+        jobStatusHistoryService.recordTransitions(userId, selected, selection, request.status());
+        int updated = jobApplicationRepository.updateStatus(selection, request.status());
+        checkSelectionUnchanged(selected, updated);
+        jobStatsService.recordStatusChange(userId, bucketsOf(selected), request.status());
+
+        if(updated > 0){
+            afterCommit(() -> dataVersions.bump(userId));
+        }
+
+        logger.info("Bulk set status {} on {} job applications for user {}", request.status(), updated, userId);
+        return new BulkJobResult(updated);
+    }
+
+
+    /**
+     * Deletes many of the user's job applications with a single DELETE.
+     * @param userId the id of the authenticated user
+     * @param request the ids or filter selecting the applications
+     * @return the number of applications deleted
+     */
+    @Transactional
+    public BulkJobResult bulkDelete(Long userId, BulkJobRequest request){
+        Specification<JobApplication> selection = bulkSelection(userId, request);
+
+        List<JobStatusSnapshot> selected = jobApplicationRepository.lockStatusSnapshots(selection);
+        long deleted = jobApplicationRepository.delete(selection);
+        checkSelectionUnchanged(selected, deleted);
+        jobStatsService.recordRemoved(userId, bucketsOf(selected));
+
+        if(deleted > 0){
+            afterCommit(() -> {
+                dataVersions.bump(userId);
+                searchIndexLoader.reindexUser(userId);
+            });
         }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        return jobApplicationRepository.findAll(specs, pageable);
+        logger.info("Bulk deleted {} job applications for user {}", deleted, userId);
+        return new BulkJobResult(deleted);
+    }
+
+
+    /**
+     * Returns the user's statistics, read from counters kept current by every write rather than computed from their applications.
+     * @param userId the id of the authenticated user
+     * @return counts by status, job board and month, and conversion rates
+     */
+    public JobStatsResponse getStats(Long userId){
+        return jobStatsService.getStats(userId);
+    }
+
+
+    /**
+     * Returns how long the user's applications take to reach an interview and an offer, and to leave each status,
+     * read from duration histograms kept current by every status change rather than from the status event log.
+     * @param userId the id of the authenticated user
+     * @return median and 90th percentile durations in days, overall and per job board
+     */
+    public JobStageStatsResponse getStageStats(Long userId){
+        return jobStatusHistoryService.getStageStats(userId);
+    }
+
+
+    /**
+     * Searches the user's job applications by company, position and job board,
+     * using the in-process search index rather than LIKE scans.
+     * @param userId the id of the authenticated user
+     * @param query free text, matched by whole tokens or prefixes, ignoring case and accents
+     * @param limit the maximum number of results, capped at {@link #MAX_PAGE_SIZE}
+     * @return matching applications, most relevant and most recent first
+     */
+    public List<JobApplicationSummary> searchJobs(Long userId, String query, int limit){
+        if(query == null || query.isBlank()){
+            throw new IllegalArgumentException("Search query must not be blank.");
+        }
+
+        if(!searchIndex.isReady()){
+            logger.warn("Search index is still being rebuilt; results for user {} may be incomplete", userId);
+        }
+
+        List<Long> rankedIds = searchIndex.search(userId, query, clampPageSize(limit));
+        if(rankedIds.isEmpty()){
+            return List.of();
+        }
+
+        Map<Long, JobApplicationSummary> byId = new HashMap<>();
+        jobApplicationRepository.findSummariesByUserIdAndIdIn(userId, rankedIds)
+                .forEach(summary -> byId.put(summary.id(), summary));
+
+        //keep the index's ranking; ids deleted since they were indexed are dropped
+        return rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+
+    //undated applications come after every dated one: once the dated ones run out, the slice continues with them
+    private List<JobApplicationSummary> withUndatedTail(Long userId, List<JobApplicationSummary> dated, Limit fetchLimit){
+        if(dated.size() >= fetchLimit.max()){
+            return dated;
+        }
+
+        List<JobApplicationSummary> rows = new ArrayList<>(dated);
+        rows.addAll(jobApplicationRepository.findFirstUndatedKeysetSlice(userId, Limit.of(fetchLimit.max() - dated.size())));
+        return rows;
+    }
+
+
+    // the selected rows are locked, so only an application that started matching since they were read
+    // (created or changed by a concurrent request) can make the counts differ; its buckets were not read
+    private static void checkSelectionUnchanged(List<JobStatusSnapshot> selected, long written){
+        if(written != selected.size()){
+            throw new OptimisticLockingFailureException("The selected job applications changed while they were being written.");
+        }
+    }
+
+
+    private static List<JobBucketCount> bucketsOf(List<JobStatusSnapshot> jobs){
+        return jobs.stream()
+                .map(job -> new JobBucketCount(job.status(), job.jobBoardUsed(), job.dateApplied(), 1))
+                .toList();
+    }
+
+
+    private static void checkVersion(JobApplication job, Long expectedVersion){
+        if(expectedVersion != null && !expectedVersion.equals(job.getVersion())){
+            throw new PreconditionFailedException("The job application was changed since it was read; it is now at version " + job.getVersion() + ".");
+        }
+    }
+
+
+    // tells a missing application from one whose version moved on, once a conditional write matched no row
+    private RuntimeException missingOrChanged(Long jobId, Long userId, Long expectedVersion){
+        if(expectedVersion != null && jobApplicationRepository.existsByIdAndUserId(jobId, userId)){
+            return new PreconditionFailedException("The job application was changed since it was read.");
+        }
+        return new NoSuchElementException("Job not found for this user.");
+    }
+
+
+    private static JobStatusSnapshot patched(JobStatusSnapshot job, JobPatchRequest patch){
+        return new JobStatusSnapshot(job.id(),
+                patch.status() != null ? patch.status() : job.status(),
+                patch.jobBoardUsed() != null ? patch.jobBoardUsed() : job.jobBoardUsed(),
+                patch.applicationDate() != null ? patch.applicationDate() : job.dateApplied());
+    }
+
+
+    private static JobSearchDocument patched(JobSearchDocument document, JobPatchRequest patch){
+        return new JobSearchDocument(document.id(), document.userId(),
+                patch.company() != null ? patch.company() : document.company(),
+                patch.position() != null ? patch.position() : document.position(),
+                patch.jobBoardUsed() != null ? patch.jobBoardUsed() : document.jobBoardUsed(),
+                patch.applicationDate() != null ? patch.applicationDate() : document.dateApplied());
+    }
+
+
+    private static Specification<JobApplication> bulkSelection(Long userId, BulkJobRequest request){
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        boolean hasFilter = request.filter() != null && JobApplicationSpecification.hasCriteria(request.filter());
+
+        if(hasIds == hasFilter){
+            throw new IllegalArgumentException("Select the job applications with either ids or a filter on status or company.");
+        }
+        if(hasIds && request.ids().size() > MAX_BULK_IDS){
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids can be given; use a filter for more.");
+        }
+
+        return hasIds
+                ? JobApplicationSpecification.withIds(userId, request.ids())
+                : JobApplicationSpecification.withFilters(userId, request.filter());
+    }
+
+
+    //runs once the surrounding transaction has committed, or right away outside of one
+    private static void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+
+    private static JobSearchDocument searchDocumentOf(JobApplication job, Long userId){
+        return new JobSearchDocument(job.getId(), userId, job.getCompany(), job.getPosition(), job.getJobBoardUsed(), job.getDateApplied());
+    }
+
+
+    private static int clampPageSize(int size){
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 }
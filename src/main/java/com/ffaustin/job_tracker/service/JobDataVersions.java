@@ -0,0 +1,77 @@
+package com.ffaustin.job_tracker.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version of each user's job applications, bumped after every committed write, from which the job read
+ * endpoints derive ETags. A matching If-None-Match is answered with 304 without touching the database.
+ * Versions come from one process-wide sequence, so a user's version only ever grows; the ETags also carry a random
+ * epoch drawn at startup, so none issued before a restart can match after it.
+ * Like the search index, this assumes a single application instance.
+ */
+@Component
+public class JobDataVersions {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @param userId the owner of the applications
+     * @return the version of the user's applications, 0 if they did not change since startup
+     */
+    public long current(Long userId){
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Marks the user's applications as changed. Must be called once the change is committed: bumping earlier would let
+     * a concurrent read tag data from before the change with the new version.
+     * @param userId the owner of the applications
+     */
+    public void bump(Long userId){
+        // max, so two bumps storing in the opposite order of their draws still leave the higher one
+        versions.merge(userId, sequence.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Builds the ETag of a read of the user's applications.
+     * @param userId the owner of the applications
+     * @param query what identifies the read: the endpoint and its parameters, as values whose string forms tell them apart
+     * @return a strong, quoted ETag that changes with the user's version and with the query
+     */
+    public String etag(Long userId, Object... query){
+        return "\"" + epoch + "-" + current(userId) + "-" + digest(query) + "\"";
+    }
+
+    // SHA-256 of the parameters, each prefixed with its length (null as "~") so no two queries encode alike;
+    // a hash code would let two queries of the same version share an ETag
+    private static String digest(Object... query){
+        StringBuilder encoded = new StringBuilder();
+        for(Object part : query){
+            if(part == null){
+                encoded.append('~');
+                continue;
+            }
+            String value = part.toString();
+            encoded.append(value.length()).append(':').append(value);
+        }
+
+        try{
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(encoded.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        }
+        catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ffaustin.job_tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobFileFormat;
+import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import com.ffaustin.job_tracker.specifications.JobSortPlanner;
+import com.ffaustin.job_tracker.util.CsvWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Exports a user's job applications as CSV or NDJSON. Rows are streamed from a database cursor
+ * straight to the response, so memory use does not grow with the number of applications.
+ */
+@Service
+public class JobExportService {
+    private static final Logger logger = LoggerFactory.getLogger(JobExportService.class);
+
+    // the CSV header doubles as the import column names, so an export can be imported back
+    private static final String[] CSV_HEADER = {
+            "id", "position", "company", "jobBoardUsed", "applicationLink", "status", "dateApplied", "interviewDate"
+    };
+
+    private final JobApplicationRepository jobApplicationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public JobExportService(JobApplicationRepository jobApplicationRepository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${jobs.export.fetch-size:500}") int fetchSize)
+    {
+        this.jobApplicationRepository = jobApplicationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonWriter = objectMapper.writerFor(JobApplicationSummary.class);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Prepares an export of the user's job applications matching a filter.
+     * The filter and sort are validated here, before any of the response is written.
+     * @param userId the id of the authenticated user
+     * @param filter the same filter accepted by /api/jobs/filter; all fields optional
+     * @param format the format to write
+     * @return the body that streams the export when the response is written
+     */
+    public StreamingResponseBody export(Long userId, JobFilterRequest filter, JobFileFormat format){
+        Sort sort = JobSortPlanner.plan(filter.sortBy(), filter.direction());
+        Specification<JobApplication> spec = JobApplicationSpecification.withFilters(userId, filter);
+
+        return output -> write(userId, spec, sort, format, output);
+    }
+
+    private void write(Long userId, Specification<JobApplication> spec, Sort sort, JobFileFormat format, OutputStream output)
+            throws IOException
+    {
+        long started = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        try{
+            long rows = readOnlyTransaction.execute(status -> {
+                try(Stream<JobApplicationSummary> summaries = jobApplicationRepository.streamSummaries(spec, sort, fetchSize)){
+                    return format == JobFileFormat.CSV ? writeCsv(summaries, writer) : writeNdjson(summaries, writer);
+                }
+                catch(IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+            logger.info("Exported {} job applications for user {} as {} in {} ms",
+                    rows, userId, format, System.currentTimeMillis() - started);
+        }
+        catch(UncheckedIOException e){
+            // usually the client went away mid-download
+            throw e.getCause();
+        }
+    }
+
+    private static long writeCsv(Stream<JobApplicationSummary> summaries, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord((Object[]) CSV_HEADER);
+
+        long rows = 0;
+        for(JobApplicationSummary job : (Iterable<JobApplicationSummary>) summaries::iterator){
+            csv.writeRecord(job.id(), job.position(), job.company(), job.jobBoardUsed(), job.applicationLink(),
+                    job.status(), job.dateApplied(), job.interviewDate());
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeNdjson(Stream<JobApplicationSummary> summaries, Writer writer) throws IOException {
+        long rows = 0;
+        for(JobApplicationSummary job : (Iterable<JobApplicationSummary>) summaries::iterator){
+            writer.write(jsonWriter.writeValueAsString(job));
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,396 @@
+package com.ffaustin.job_tracker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ffaustin.job_tracker.dto.ImportReport;
+import com.ffaustin.job_tracker.dto.ImportRowError;
+import com.ffaustin.job_tracker.dto.JobFileFormat;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.repository.JobApplicationBatchWriter;
+import com.ffaustin.job_tracker.search.JobSearchIndexLoader;
+import com.ffaustin.job_tracker.util.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk imports job applications from a CSV or NDJSON upload. The upload is parsed as a stream,
+ * valid rows are written in JDBC batches, each batch in its own short transaction,
+ * and every rejected row is reported with its line number.
+ */
+@Service
+public class JobImportService {
+    private static final Logger logger = LoggerFactory.getLogger(JobImportService.class);
+
+    // rows with a problem beyond this are counted but not described
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_RECORD_LENGTH = 16 * 1024;
+
+    private final JobApplicationBatchWriter batchWriter;
+    private final JobSearchIndexLoader searchIndexLoader;
+    private final JobStatsService jobStatsService;
+    private final JobDataVersions dataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxRows;
+
+    public JobImportService(JobApplicationBatchWriter batchWriter,
+                            JobSearchIndexLoader searchIndexLoader,
+                            JobStatsService jobStatsService,
+                            JobDataVersions dataVersions,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${jobs.import.batch-size:500}") int batchSize,
+                            @Value("${jobs.import.max-rows:50000}") int maxRows)
+    {
+        this.batchWriter = batchWriter;
+        this.searchIndexLoader = searchIndexLoader;
+        this.jobStatsService = jobStatsService;
+        this.dataVersions = dataVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Picks the format of an upload: an explicit format wins, then the file extension, then the content type.
+     * @param format "csv" or "ndjson", or null to detect
+     * @param filename the original file name, may be null
+     * @param contentType the declared content type, may be null
+     * @return the format to parse the upload with
+     */
+    public static JobFileFormat resolveFormat(String format, String filename, String contentType){
+        if(format != null && !format.isBlank()){
+            return JobFileFormat.of(format);
+        }
+
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+
+        if(name.endsWith(".csv") || type.startsWith("text/csv")){
+            return JobFileFormat.CSV;
+        }
+        if(name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.startsWith("application/x-ndjson")){
+            return JobFileFormat.NDJSON;
+        }
+
+        throw new IllegalArgumentException("Could not tell the import format; upload a .csv or .ndjson file or pass format.");
+    }
+
+    /**
+     * Imports job applications for a user.
+     * Columns (CSV header names or NDJSON keys) match the JobRequest fields, case-insensitively;
+     * position and company are required, dates are yyyy-MM-dd and unknown columns are ignored.
+     * @param userId the id of the authenticated user
+     * @param input the uploaded file, UTF-8
+     * @param format the format of the upload
+     * @return how many rows were imported and why the others were not
+     * @throws IOException if the upload cannot be read
+     */
+    public ImportReport importJobs(Long userId, InputStream input, JobFileFormat format) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportRun run = new ImportRun(userId);
+
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))){
+            if(format == JobFileFormat.CSV){
+                readCsv(reader, run);
+            }
+            else{
+                readNdjson(reader, run);
+            }
+            run.flush();
+        }
+        finally{
+            //refresh even after a failure, since earlier batches are already committed
+            if(run.imported > 0){
+                searchIndexLoader.reindexUser(userId);
+            }
+        }
+
+        logger.info("Imported {} job applications for user {} ({} rejected) in {} ms",
+                run.imported, userId, run.rejected, System.currentTimeMillis() - started);
+
+        return run.report();
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader, MAX_RECORD_LENGTH);
+
+        List<String> header = csv.next();
+        if(header == null){
+            throw new IllegalArgumentException("The import file is empty.");
+        }
+        if(!header.isEmpty() && header.get(0).startsWith("\uFEFF")){
+            header.set(0, header.get(0).substring(1));
+        }
+
+        List<String> columns = header.stream().map(JobImportService::normalizeColumn).toList();
+
+        while(!run.full()){
+            List<String> record;
+            try{
+                record = csv.next();
+            }
+            catch(IllegalArgumentException e){
+                run.reject(csv.recordLine(), e.getMessage());
+                continue;
+            }
+
+            if(record == null){
+                return;
+            }
+            if(record.size() == 1 && record.get(0).isBlank()){
+                continue;
+            }
+            if(record.size() > columns.size()){
+                run.reject(csv.recordLine(), "Row has " + record.size() + " fields but the header has " + columns.size());
+                continue;
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for(int i = 0; i < record.size(); i++){
+                fields.put(columns.get(i), record.get(i));
+            }
+            run.accept(csv.recordLine(), fields);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        long line = 0;
+        String text;
+
+        while(!run.full() && (text = reader.readLine()) != null){
+            line++;
+            if(text.isBlank()){
+                continue;
+            }
+            if(text.length() > MAX_RECORD_LENGTH){
+                run.reject(line, "Record is longer than " + MAX_RECORD_LENGTH + " characters");
+                continue;
+            }
+
+            JsonNode node;
+            try{
+                node = objectMapper.readTree(text);
+            }
+            catch(IOException e){
+                run.reject(line, "Invalid JSON");
+                continue;
+            }
+            if(node == null || !node.isObject()){
+                run.reject(line, "Expected a JSON object");
+                continue;
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for(Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ){
+                Map.Entry<String, JsonNode> field = it.next();
+                fields.put(normalizeColumn(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            run.accept(line, fields);
+        }
+    }
+
+    /**
+     * Maps a row's fields onto a JobRequest, rejecting the row if any value is missing or malformed.
+     */
+    static JobRequest toJobRequest(Map<String, String> fields){
+        String position = required(fields, "position");
+        String company = required(fields, "company");
+
+        return new JobRequest(
+                position,
+                company,
+                optional(fields, "jobboardused", "jobboard"),
+                optional(fields, "applicationlink", "link"),
+                parseStatus(optional(fields, "status")),
+                parseDate(fields, "interviewdate"),
+                parseDate(fields, "applicationdate", "dateapplied")
+        );
+    }
+
+    private static String required(Map<String, String> fields, String column){
+        String value = optional(fields, column);
+        if(value == null){
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String... aliases){
+        for(String alias : aliases){
+            String value = fields.get(alias);
+            if(value != null && !value.isBlank()){
+                value = value.trim();
+                if(value.length() > MAX_FIELD_LENGTH){
+                    throw new IllegalArgumentException(aliases[0] + " is longer than " + MAX_FIELD_LENGTH + " characters");
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static JobStatus parseStatus(String status){
+        if(status == null){
+            return null;
+        }
+        try{
+            return JobStatus.valueOf(status.toUpperCase(Locale.ROOT).replace(' ', '_'));
+        }
+        catch(IllegalArgumentException e){
+            throw new IllegalArgumentException("Unknown job status: " + status);
+        }
+    }
+
+    private static LocalDate parseDate(Map<String, String> fields, String... aliases){
+        String value = optional(fields, aliases);
+        if(value == null){
+            return null;
+        }
+        try{
+            return LocalDate.parse(value);
+        }
+        catch(DateTimeParseException e){
+            throw new IllegalArgumentException(aliases[0] + " '" + value + "' is not a yyyy-MM-dd date");
+        }
+    }
+
+    // "Job Board Used", "job_board_used" and "jobBoardUsed" all name the same column
+    private static String normalizeColumn(String column){
+        StringBuilder normalized = new StringBuilder(column.length());
+        for(int i = 0; i < column.length(); i++){
+            char c = column.charAt(i);
+            if(Character.isLetterOrDigit(c)){
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * State of one import: the batch being filled and the running tally.
+     */
+    private final class ImportRun {
+        private final Long userId;
+        private final List<JobRequest> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ImportRowError> errors = new ArrayList<>();
+
+        private int imported = 0;
+        private int rejected = 0;
+        private int rows = 0;
+        private boolean stopped = false;
+        private boolean errorsTruncated = false;
+
+        ImportRun(Long userId){
+            this.userId = userId;
+        }
+
+        boolean full(){
+            return stopped;
+        }
+
+        void accept(long line, Map<String, String> fields){
+            if(reachedLimit(line)){
+                return;
+            }
+            rows++;
+
+            JobRequest job;
+            try{
+                job = toJobRequest(fields);
+            }
+            catch(IllegalArgumentException e){
+                rejected++;
+                record(line, e.getMessage());
+                return;
+            }
+
+            batch.add(job);
+            batchLines.add(line);
+            if(batch.size() >= batchSize){
+                flush();
+            }
+        }
+
+        void reject(long line, String message){
+            if(reachedLimit(line)){
+                return;
+            }
+            rows++;
+            rejected++;
+            record(line, message);
+        }
+
+        void flush(){
+            if(batch.isEmpty()){
+                return;
+            }
+
+            try{
+                transactionTemplate.executeWithoutResult(status -> {
+                    batchWriter.insertAll(userId, batch);
+                    jobStatsService.recordImported(userId, batch);
+                });
+                dataVersions.bump(userId);
+                imported += batch.size();
+            }
+            catch(DataAccessException e){
+                logger.warn("Import batch of {} rows failed for user {}", batch.size(), userId, e);
+                rejected += batch.size();
+                batchLines.forEach(line -> record(line, "Could not be saved"));
+            }
+
+            batch.clear();
+            batchLines.clear();
+        }
+
+        ImportReport report(){
+            return new ImportReport(imported, rejected, List.copyOf(errors), errorsTruncated);
+        }
+
+        private boolean reachedLimit(long line){
+            if(rows < maxRows){
+                return false;
+            }
+
+            stopped = true;
+            errors.add(new ImportRowError(line, "Row limit of " + maxRows + " reached; this and later rows were not imported"));
+            logger.warn("Import for user {} stopped at the {} row limit", userId, maxRows);
+            return true;
+        }
+
+        private void record(long line, String message){
+            if(errors.size() < MAX_REPORTED_ERRORS){
+                errors.add(new ImportRowError(line, message));
+            }
+            else{
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically checks every user's statistics counters against their job applications and rebuilds the ones that drifted,
+ * e.g. after rows were changed by hand in the database, or that were never built because the applications predate them.
+ * Each user is checked in their own short transaction.
+ */
+@Component
+public class JobStatsReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(JobStatsReconciler.class);
+
+    private final UserRepository userRepository;
+    private final JobStatsService jobStatsService;
+    private final int batchSize;
+    private final Counter corrected;
+
+    public JobStatsReconciler(UserRepository userRepository,
+                              JobStatsService jobStatsService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jobs.stats.reconcile.batch-size:500}") int batchSize)
+    {
+        this.userRepository = userRepository;
+        this.jobStatsService = jobStatsService;
+        this.batchSize = batchSize;
+        this.corrected = meterRegistry.counter("jobs.stats.corrected");
+    }
+
+    /**
+     * Reconciles the statistics of every user.
+     * @return the number of users whose statistics were corrected
+     */
+    @Scheduled(fixedDelayString = "${jobs.stats.reconcile.interval-ms:86400000}", initialDelayString = "${jobs.stats.reconcile.initial-delay-ms:600000}")
+    public long reconcileAll(){
+        long checked = 0;
+        long fixed = 0;
+        Long afterId = 0L;
+
+        while(true){
+            List<Long> userIds = userRepository.findIdsAfter(afterId, Limit.of(batchSize));
+
+            for(Long userId : userIds){
+                if(jobStatsService.reconcile(userId)){
+                    fixed++;
+                    corrected.increment();
+                }
+            }
+            checked += userIds.size();
+
+            if(userIds.size() < batchSize){
+                break;
+            }
+            afterId = userIds.get(userIds.size() - 1);
+        }
+
+        logger.info("Reconciled the statistics of {} users, {} corrected", checked, fixed);
+        return fixed;
+    }
+}
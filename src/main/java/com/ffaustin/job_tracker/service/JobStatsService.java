@@ -0,0 +1,261 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.JobStatsCounter;
+import com.ffaustin.job_tracker.entity.JobStatsCounter.Dimension;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterWriter;
+import com.ffaustin.job_tracker.repository.JobStatsCounterWriter.CounterDelta;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains per-user counters of job applications by status, job board and application month, so statistics
+ * are read from a handful of rows instead of grouping the user's whole history.
+ * Every transaction that changes a user's applications calls one of the record methods with the buckets it added
+ * or removed, which the counters absorb as atomic deltas: writes of the same user run concurrently, and the counters
+ * stay exact as long as each write knows exactly what it replaced (a version check, or the rows locked while read).
+ * Counters missing for a bucket are created by the first write to it; those of applications that predate
+ * the counters, or that were changed behind the service's back, are built by {@link #reconcile(Long)}.
+ */
+@Service
+public class JobStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobStatsService.class);
+
+    // the statuses an application can only reach after an interview, and after an offer; the rates count the applications in them now
+    static final Set<JobStatus> INTERVIEWED = EnumSet.of(JobStatus.INTERVIEW_SCHEDULED, JobStatus.OFFER_RECEIVED, JobStatus.ACCEPTED, JobStatus.DECLINED);
+    static final Set<JobStatus> OFFERED = EnumSet.of(JobStatus.OFFER_RECEIVED, JobStatus.ACCEPTED, JobStatus.DECLINED);
+
+    // key of the values missing from an application in the response
+    static final String UNSPECIFIED = "unspecified";
+
+    private final JobStatsCounterRepository counterRepository;
+    private final JobStatsCounterWriter counterWriter;
+    private final JobApplicationRepository jobApplicationRepository;
+    private final UserRepository userRepository;
+
+    public JobStatsService(JobStatsCounterRepository counterRepository,
+                           JobStatsCounterWriter counterWriter,
+                           JobApplicationRepository jobApplicationRepository,
+                           UserRepository userRepository){
+        this.counterRepository = counterRepository;
+        this.counterWriter = counterWriter;
+        this.jobApplicationRepository = jobApplicationRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @param job a job application
+     * @return the buckets the application counts in, e.g. to compare before and after an update
+     */
+    public static JobBucketCount bucketsOf(JobApplication job){
+        return new JobBucketCount(job.getStatus(), job.getJobBoardUsed(), job.getDateApplied(), 1);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordCreated(Long userId, JobApplication job){
+        Map<Bucket, Long> deltas = new HashMap<>();
+        add(deltas, bucketsOf(job), 1);
+        apply(userId, deltas);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordUpdated(Long userId, JobBucketCount before, JobApplication after){
+        recordUpdated(userId, before, bucketsOf(after));
+    }
+
+    /**
+     * Records an update of an application that was not loaded, from its buckets before and after.
+     * @param userId the owner of the application
+     * @param before the buckets it counted in before the update
+     * @param after the buckets it counts in now
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordUpdated(Long userId, JobBucketCount before, JobBucketCount after){
+        Map<Bucket, Long> deltas = new HashMap<>();
+        add(deltas, before, -1);
+        add(deltas, after, 1);
+        apply(userId, deltas);
+    }
+
+    /**
+     * Records the deletion of applications counted before they were deleted.
+     * @param userId the owner of the applications
+     * @param removed the applications' buckets, as counted by JobApplicationRepository#countBuckets
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRemoved(Long userId, List<JobBucketCount> removed){
+        Map<Bucket, Long> deltas = new HashMap<>();
+        removed.forEach(count -> add(deltas, count, -1));
+        apply(userId, deltas);
+    }
+
+    /**
+     * Records a status change of applications counted before they were updated.
+     * @param userId the owner of the applications
+     * @param updated the applications' buckets, as counted by JobApplicationRepository#countBuckets
+     * @param status the status they now have
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordStatusChange(Long userId, List<JobBucketCount> updated, JobStatus status){
+        Map<Bucket, Long> deltas = new HashMap<>();
+        updated.forEach(count -> {
+            deltas.merge(new Bucket(Dimension.STATUS, statusBucket(count.status())), -count.applications(), Long::sum);
+            deltas.merge(new Bucket(Dimension.STATUS, statusBucket(status)), count.applications(), Long::sum);
+        });
+        apply(userId, deltas);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordImported(Long userId, List<JobRequest> jobs){
+        Map<Bucket, Long> deltas = new HashMap<>();
+        jobs.forEach(job -> add(deltas, new JobBucketCount(job.status(), job.jobBoardUsed(), job.applicationDate(), 1), 1));
+        apply(userId, deltas);
+    }
+
+    /**
+     * Reads a user's statistics from their counters, without writing: a user without counters reads as all zeros.
+     * @param userId the id of the authenticated user
+     * @return the user's statistics
+     */
+    public JobStatsResponse getStats(Long userId){
+        return toResponse(counterRepository.findByUserId(userId));
+    }
+
+    /**
+     * Compares a user's counters with their applications and replaces them if they differ,
+     * which also builds the counters of applications that predate them.
+     * Serialized per user by a lock on the user's row; writes of the user's applications do not take it.
+     * @param userId the user to check
+     * @return whether the counters had drifted and were corrected
+     */
+    @Transactional
+    public boolean reconcile(Long userId){
+        userRepository.lockById(userId);
+
+        Map<Bucket, Long> expected = expectedCounts(userId);
+        Map<Bucket, Long> actual = new HashMap<>();
+        for(JobStatsCounter counter : counterRepository.findByUserId(userId)){
+            if(counter.getApplications() != 0){
+                actual.put(new Bucket(counter.getDimension(), counter.getBucket()), counter.getApplications());
+            }
+        }
+
+        if(expected.equals(actual)){
+            return false;
+        }
+
+        logger.warn("Statistics of user {} had drifted from their job applications; rebuilding them", userId);
+        replace(userId, expected);
+        return true;
+    }
+
+    private void apply(Long userId, Map<Bucket, Long> deltas){
+        List<CounterDelta> changes = new ArrayList<>();
+        deltas.forEach((bucket, delta) -> {
+            if(delta != 0){
+                changes.add(new CounterDelta(bucket.dimension(), bucket.value(), delta));
+            }
+        });
+
+        counterWriter.add(userId, changes);
+    }
+
+    private void replace(Long userId, Map<Bucket, Long> counts){
+        counterRepository.deleteByUserId(userId);
+
+        List<CounterDelta> counters = new ArrayList<>(counts.size());
+        counts.forEach((bucket, applications) -> counters.add(new CounterDelta(bucket.dimension(), bucket.value(), applications)));
+        counterWriter.insertAll(userId, counters);
+    }
+
+    private Map<Bucket, Long> expectedCounts(Long userId){
+        Map<Bucket, Long> counts = new HashMap<>();
+        jobApplicationRepository.countBuckets(JobApplicationSpecification.ofUser(userId))
+                .forEach(count -> add(counts, count, 1));
+        return counts;
+    }
+
+    private static void add(Map<Bucket, Long> deltas, JobBucketCount count, int sign){
+        long delta = sign * count.applications();
+
+        deltas.merge(new Bucket(Dimension.TOTAL, ""), delta, Long::sum);
+        deltas.merge(new Bucket(Dimension.STATUS, statusBucket(count.status())), delta, Long::sum);
+        deltas.merge(new Bucket(Dimension.JOB_BOARD, count.jobBoardUsed() == null ? "" : count.jobBoardUsed()), delta, Long::sum);
+        deltas.merge(new Bucket(Dimension.MONTH, monthBucket(count.dateApplied())), delta, Long::sum);
+    }
+
+    private static String statusBucket(JobStatus status){
+        return status == null ? "" : status.name();
+    }
+
+    private static String monthBucket(LocalDate date){
+        return date == null ? "" : YearMonth.from(date).toString();
+    }
+
+    private static JobStatsResponse toResponse(List<JobStatsCounter> counters){
+        long total = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for(JobStatus status : JobStatus.values()){
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Long> byJobBoard = new HashMap<>();
+        Map<String, Long> byMonth = new TreeMap<>();
+
+        for(JobStatsCounter counter : counters){
+            if(counter.getDimension() == Dimension.TOTAL){
+                total = counter.getApplications();
+                continue;
+            }
+            if(counter.getApplications() == 0){
+                continue;
+            }
+
+            String key = counter.getBucket().isEmpty() ? UNSPECIFIED : counter.getBucket();
+            switch(counter.getDimension()){
+                case STATUS -> byStatus.merge(key, counter.getApplications(), Long::sum);
+                case JOB_BOARD -> byJobBoard.merge(key, counter.getApplications(), Long::sum);
+                case MONTH -> byMonth.merge(key, counter.getApplications(), Long::sum);
+                default -> { }
+            }
+        }
+
+        long interviewed = INTERVIEWED.stream().mapToLong(status -> byStatus.get(status.name())).sum();
+        long offered = OFFERED.stream().mapToLong(status -> byStatus.get(status.name())).sum();
+
+        Map<String, Long> boardsByUse = new LinkedHashMap<>();
+        byJobBoard.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> boardsByUse.put(entry.getKey(), entry.getValue()));
+
+        return new JobStatsResponse(total, byStatus, boardsByUse, byMonth, rate(interviewed, total), rate(offered, total));
+    }
+
+    private static double rate(long part, long total){
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+
+    private record Bucket(Dimension dimension, String value) { }
+}
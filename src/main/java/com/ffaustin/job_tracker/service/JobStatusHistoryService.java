@@ -0,0 +1,239 @@
+package com.ffaustin.job_tracker.service;
+
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse.Durations;
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse.Stages;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusHistory;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.JobStageDuration;
+import com.ffaustin.job_tracker.entity.JobStageDuration.Stage;
+import com.ffaustin.job_tracker.repository.JobStageDurationRepository;
+import com.ffaustin.job_tracker.repository.JobStatusEventRepository;
+import com.ffaustin.job_tracker.repository.JobStatusHistoryWriter;
+import com.ffaustin.job_tracker.repository.JobStatusHistoryWriter.DurationSamples;
+import com.ffaustin.job_tracker.repository.JobStatusHistoryWriter.StatusEvent;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Appends every status transition of a job application to the job_status_event log, and folds the time each
+ * transition took into per-day histograms (JobStageDuration), from which stage durations are read.
+ * Must be called in the transaction that changes the statuses, with their rows locked or version-checked,
+ * so the statuses it logs as left are the ones the change replaced.
+ * Applications that were imported or predate the log are measured from their application date.
+ */
+@Service
+public class JobStatusHistoryService {
+
+    // durations are bucketed by whole days; longer ones share the last bucket
+    static final int MAX_DAYS = 365;
+
+    static final String UNSPECIFIED = JobStatsService.UNSPECIFIED;
+
+    private final JobStatusEventRepository eventRepository;
+    private final JobStageDurationRepository durationRepository;
+    private final JobStatusHistoryWriter historyWriter;
+
+    public JobStatusHistoryService(JobStatusEventRepository eventRepository,
+                                   JobStageDurationRepository durationRepository,
+                                   JobStatusHistoryWriter historyWriter){
+        this.eventRepository = eventRepository;
+        this.durationRepository = durationRepository;
+        this.historyWriter = historyWriter;
+    }
+
+    /**
+     * Logs the initial status of a job application created through the API.
+     * @param userId the owner of the application
+     * @param job the saved application
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordCreated(Long userId, JobApplication job){
+        historyWriter.insertEvents(userId, List.of(new StatusEvent(job.getId(), null, job.getStatus())), LocalDateTime.now());
+    }
+
+    /**
+     * Logs the status change of one job application.
+     * @param userId the owner of the application
+     * @param before the application as it was before the change
+     * @param status the status it now has
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordTransition(Long userId, JobStatusSnapshot before, JobStatus status){
+        if(before.status() == status){
+            return;
+        }
+        append(userId, List.of(before), status,
+                histories(JobApplicationSpecification.withIds(userId, List.of(before.id()))));
+    }
+
+    /**
+     * Logs the status change of many job applications, e.g. a bulk update.
+     * @param userId the owner of the applications
+     * @param before the applications as they were before the change, read with the same selection
+     * @param selection the selection the applications were read with, to read their history in one query
+     * @param status the status they now have
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordTransitions(Long userId, List<JobStatusSnapshot> before, Specification<JobApplication> selection, JobStatus status){
+        if(before.stream().allMatch(job -> job.status() == status)){
+            return;
+        }
+        append(userId, before, status, histories(selection));
+    }
+
+    /**
+     * Reads how long the user's applications took to move through their stages, from the duration histograms.
+     * @param userId the id of the authenticated user
+     * @return median and 90th percentile durations, overall and per job board
+     */
+    public JobStageStatsResponse getStageStats(Long userId){
+        Map<HistogramKey, TreeMap<Integer, Long>> overall = new HashMap<>();
+        Map<String, Map<HistogramKey, TreeMap<Integer, Long>>> byBoard = new TreeMap<>();
+
+        for(JobStageDuration bucket : durationRepository.findByUserId(userId)){
+            HistogramKey key = new HistogramKey(bucket.getStage(), bucket.getStatus());
+            String board = bucket.getJobBoard().isEmpty() ? UNSPECIFIED : bucket.getJobBoard();
+
+            overall.computeIfAbsent(key, k -> new TreeMap<>()).merge(bucket.getDays(), bucket.getSamples(), Long::sum);
+            byBoard.computeIfAbsent(board, b -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new TreeMap<>())
+                    .merge(bucket.getDays(), bucket.getSamples(), Long::sum);
+        }
+
+        Map<String, Stages> boards = new LinkedHashMap<>();
+        byBoard.forEach((board, histograms) -> boards.put(board, stagesOf(histograms)));
+
+        return new JobStageStatsResponse(stagesOf(overall), boards);
+    }
+
+    private Map<Long, JobStatusHistory> histories(Specification<JobApplication> selection){
+        return eventRepository.findHistories(selection, JobStatsService.INTERVIEWED, JobStatsService.OFFERED)
+                .stream()
+                .collect(Collectors.toMap(JobStatusHistory::jobId, Function.identity()));
+    }
+
+    private void append(Long userId, List<JobStatusSnapshot> before, JobStatus status, Map<Long, JobStatusHistory> histories){
+        LocalDateTime now = LocalDateTime.now();
+        List<StatusEvent> events = new ArrayList<>();
+        Map<DurationKey, Long> samples = new HashMap<>();
+
+        for(JobStatusSnapshot job : before){
+            if(job.status() == status){
+                continue;
+            }
+            events.add(new StatusEvent(job.id(), job.status(), status));
+
+            JobStatusHistory history = histories.get(job.id());
+            String board = job.jobBoardUsed() == null ? "" : job.jobBoardUsed();
+
+            LocalDateTime entered = enteredCurrentStatus(job, history);
+            if(job.status() != null && entered != null){
+                samples.merge(new DurationKey(Stage.TIME_IN_STATUS, job.status().name(), board, days(entered, now)), 1L, Long::sum);
+            }
+
+            LocalDateTime applied = appliedAt(job, history);
+            if(applied == null){
+                continue;
+            }
+            if(reachesFirst(JobStatsService.INTERVIEWED, job.status(), status, history == null ? 0 : history.interviews())){
+                samples.merge(new DurationKey(Stage.TIME_TO_INTERVIEW, "", board, days(applied, now)), 1L, Long::sum);
+            }
+            if(reachesFirst(JobStatsService.OFFERED, job.status(), status, history == null ? 0 : history.offers())){
+                samples.merge(new DurationKey(Stage.TIME_TO_OFFER, "", board, days(applied, now)), 1L, Long::sum);
+            }
+        }
+
+        historyWriter.insertEvents(userId, events, now);
+
+        List<DurationSamples> buckets = new ArrayList<>(samples.size());
+        samples.forEach((key, count) -> buckets.add(new DurationSamples(key.stage(), key.status(), key.jobBoard(), key.days(), count)));
+        historyWriter.addSamples(userId, buckets);
+    }
+
+    // when the application entered the status it is leaving: its last logged transition,
+    // else its application date, else its creation
+    private static LocalDateTime enteredCurrentStatus(JobStatusSnapshot job, JobStatusHistory history){
+        if(history != null && history.lastTransitionAt() != null){
+            return history.lastTransitionAt();
+        }
+        return appliedAt(job, history);
+    }
+
+    private static LocalDateTime appliedAt(JobStatusSnapshot job, JobStatusHistory history){
+        if(job.dateApplied() != null){
+            return job.dateApplied().atStartOfDay();
+        }
+        return history == null ? null : history.createdAt();
+    }
+
+    // whether the transition is the application's first into the given stage
+    private static boolean reachesFirst(Set<JobStatus> stage, JobStatus from, JobStatus to, long earlierEvents){
+        return stage.contains(to) && !stage.contains(from) && earlierEvents == 0;
+    }
+
+    private static int days(LocalDateTime from, LocalDateTime to){
+        long days = ChronoUnit.DAYS.between(from.toLocalDate(), to.toLocalDate());
+        return (int) Math.max(0, Math.min(days, MAX_DAYS));
+    }
+
+    private static Stages stagesOf(Map<HistogramKey, TreeMap<Integer, Long>> histograms){
+        Map<String, Durations> timeInStatus = new LinkedHashMap<>();
+        for(JobStatus status : JobStatus.values()){
+            TreeMap<Integer, Long> histogram = histograms.get(new HistogramKey(Stage.TIME_IN_STATUS, status.name()));
+            if(histogram != null){
+                timeInStatus.put(status.name(), durationsOf(histogram));
+            }
+        }
+
+        return new Stages(
+                durationsOf(histograms.get(new HistogramKey(Stage.TIME_TO_INTERVIEW, ""))),
+                durationsOf(histograms.get(new HistogramKey(Stage.TIME_TO_OFFER, ""))),
+                timeInStatus);
+    }
+
+    private static Durations durationsOf(TreeMap<Integer, Long> histogram){
+        if(histogram == null){
+            return null;
+        }
+
+        long samples = histogram.values().stream().mapToLong(Long::longValue).sum();
+        if(samples == 0){
+            return null;
+        }
+        return new Durations(samples, percentile(histogram, samples, 0.5), percentile(histogram, samples, 0.9));
+    }
+
+    // nearest-rank percentile over a histogram of days
+    private static int percentile(TreeMap<Integer, Long> histogram, long samples, double quantile){
+        long rank = Math.max(1, (long) Math.ceil(quantile * samples));
+        long seen = 0;
+        for(Map.Entry<Integer, Long> bucket : histogram.entrySet()){
+            seen += bucket.getValue();
+            if(seen >= rank){
+                return bucket.getKey();
+            }
+        }
+        return histogram.lastKey();
+    }
+
+    private record HistogramKey(Stage stage, String status) { }
+
+    private record DurationKey(Stage stage, String status, String jobBoard, int days) { }
+}
@@ -1,72 +1,95 @@
 package com.ffaustin.job_tracker.service;
 
-import com.sendgrid.Method;
-import com.sendgrid.Request;
-import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
+import com.ffaustin.job_tracker.mail.EmailTemplateEngine;
+import com.ffaustin.job_tracker.mail.MailDeliveryException;
+import com.ffaustin.job_tracker.mail.MailMessage;
+import com.ffaustin.job_tracker.mail.MailTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Entry point for outgoing email: renders the emails from their templates and hands them
+ * to the configured MailTransport (SendGrid unless mail.transport says otherwise).
+ */
 @Service
 public class SendGridService {
+    private static final Logger logger = LoggerFactory.getLogger(SendGridService.class);
 
-    @Value("${sendgrid.api.key}")
-    private String apiKey;
+    // the token is appended to these
+    @Value("${mail.links.verify:http://localhost:8080/api/auth/verify?token=}")
+    private String verifyLinkBase;
 
-    @Value("${sendgrid.from.email}")
-    private String fromEmail;
+    // the reset endpoint only takes a POST of the new password, so the link opens the front end's form, which sends it
+    @Value("${mail.links.password-reset:${app.frontend-url:http://localhost:5147}/reset-password?token=}")
+    private String resetLinkBase;
 
-    @Value("${sendgrid.from.name}")
-    private String fromName;
+    private final EmailTemplateEngine templateEngine;
+    private final MailTransport mailTransport;
 
-    public void sendEmail(String to, String subject, String htmlContent){
-        Email from = new Email(fromEmail, fromName);
-        Email recipient = new Email(to);
-
-        Content content = new Content("text/html", htmlContent);
-        Mail mail = new Mail(from, subject, recipient, content);
-
-        SendGrid sg = new SendGrid(apiKey);
-        Request request = new Request();
-
-        try{
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
+    public SendGridService(EmailTemplateEngine templateEngine, MailTransport mailTransport){
+        this.templateEngine = templateEngine;
+        this.mailTransport = mailTransport;
+    }
 
-            Response response = sg.api(request);
+    /**
+     * Sends one HTML email.
+     * @param to the recipient's address
+     * @param subject the subject line
+     * @param htmlContent the rendered body
+     * @throws MailDeliveryException if the email was not accepted
+     */
+    public void sendEmail(String to, String subject, String htmlContent){
+        mailTransport.send(new MailMessage(to, subject, htmlContent));
+        logger.debug("Email handed over for {}: {}", to, subject);
+    }
 
-            System.out.println("SendGrid response: " + response.getStatusCode());
-            System.out.println(response.getBody());
-            System.out.println(response.getHeaders());
-        }
-        catch(IOException ex){
-            System.err.println("SendGrid send failed: " + ex.getMessage());
-            throw new RuntimeException("Failed to send email");
-        }
+    /**
+     * Sends many emails; those sharing a subject and body go out together where the transport supports it.
+     * @param messages the emails to send
+     * @throws MailDeliveryException if any email was not accepted
+     */
+    public void sendEmails(List<MailMessage> messages){
+        mailTransport.sendBatch(messages);
+        logger.debug("{} emails handed over", messages.size());
     }
 
+    /**
+     * Renders the account verification email.
+     * @param token the verification token
+     * @return the email's HTML
+     */
     public String buildVerificationEmail(String token){
-        try{
-            //load the HTML template from resources
-            ClassPathResource resource = new ClassPathResource("templates/verification.html");
-            String template = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        return templateEngine.render("verification", Map.of(
+                "VERIFICATION_LINK", verifyLinkBase + encode(token),
+                "YEAR", currentYear()
+        ));
+    }
 
-            //construct the verification link
-            String link = "http://localhost:8080/api/auth/verify?token="+token;
+    /**
+     * Renders the password reset email.
+     * @param token the password reset token
+     * @return the email's HTML
+     */
+    public String buildPasswordResetEmail(String token){
+        return templateEngine.render("reset-password-verification", Map.of(
+                "RESET_LINK", resetLinkBase + encode(token),
+                "YEAR", currentYear()
+        ));
+    }
+
+    private static String encode(String token){
+        return URLEncoder.encode(token, StandardCharsets.UTF_8);
+    }
 
-            //replace placeholder in HTML template
-            return template.replace("{{VERIFICATION_LINK}}", link);
-        }
-        catch(IOException e){
-            throw new RuntimeException("Failed to load email template", e);
-        }
+    private static String currentYear(){
+        return String.valueOf(Year.now().getValue());
     }
 }
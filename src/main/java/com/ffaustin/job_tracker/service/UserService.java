@@ -3,6 +3,7 @@ package com.ffaustin.job_tracker.service;
 import com.ffaustin.job_tracker.dto.UserResponse;
 import com.ffaustin.job_tracker.entity.User;
 import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.security.CustomUserDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
@@ -19,10 +20,14 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder){
+    public UserService(UserRepository userRepository,
+                       BCryptPasswordEncoder passwordEncoder,
+                       CustomUserDetailsService userDetailsService){
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
     }
 
 
@@ -81,6 +86,7 @@ public class UserService {
 
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
+            userDetailsService.evict(email);
             logger.info("Password updated successfully for use: {}", email);
         }
     }
@@ -1,33 +1,76 @@
 package com.ffaustin.job_tracker.specifications;
 
 import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
 import com.ffaustin.job_tracker.entity.JobApplication;
-import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 public class JobApplicationSpecification {
 
-    public static Specification<JobApplication> withFilters(String userEmail, JobFilterRequest filter){
+    public static Specification<JobApplication> withFilters(Long userId, JobFilterRequest filter){
+        //validated up front so a bad value is reported as such rather than failing inside the query
+        JobStatus status = filter.status() != null && !filter.status().isBlank() ? parseStatus(filter.status()) : null;
+
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // join to access user's email
-            Join<?, ?> userJoin = root.join("user");
-            predicates.add(cb.equal(userJoin.get("email"), userEmail));
+            // match on the user_id foreign key directly, no join to users needed
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
 
-            if(filter.status() != null && !filter.status().isBlank()){
-                predicates.add(cb.equal(root.get("status"), filter.status()));
+            if(status != null){
+                predicates.add(cb.equal(root.get("status"), status));
             }
 
+            // substring match, scoped to the user's rows; ranked full-text search lives in JobSearchIndex
             if(filter.company() != null && !filter.company().isBlank()){
-                predicates.add(cb.equal(cb.lower(root.get("company")), "%" + filter.company().toLowerCase() + "%"));
+                predicates.add(cb.like(cb.lower(root.get("company")), "%" + escapeLike(filter.company().toLowerCase(Locale.ROOT)) + "%", '\\'));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Matches every job application of a user.
+     */
+    public static Specification<JobApplication> ofUser(Long userId){
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Matches the given job applications of a user; ids belonging to other users match nothing.
+     */
+    public static Specification<JobApplication> withIds(Long userId, Collection<Long> ids){
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("user").get("id"), userId),
+                root.get("id").in(ids)
+        );
+    }
+
+    /**
+     * @return whether the filter restricts anything beyond the owning user
+     */
+    public static boolean hasCriteria(JobFilterRequest filter){
+        return (filter.status() != null && !filter.status().isBlank())
+                || (filter.company() != null && !filter.company().isBlank());
+    }
+
+    private static String escapeLike(String value){
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static JobStatus parseStatus(String status){
+        try{
+            return JobStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        }
+        catch(IllegalArgumentException e){
+            throw new IllegalArgumentException("Unknown job status: " + status);
+        }
+    }
 }
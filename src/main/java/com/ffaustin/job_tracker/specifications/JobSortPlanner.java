@@ -0,0 +1,55 @@
+package com.ffaustin.job_tracker.specifications;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the sort keys clients may request on job application listings to orderings
+ * that are served by the composite indexes declared on JobApplication:
+ * <ul>
+ *     <li>{@code dateApplied} -> idx_job_user_date_desc_id (user_id, date_applied desc, id desc), read backwards for ascending</li>
+ *     <li>{@code status} -> idx_job_user_status_date (user_id, status, date_applied)</li>
+ * </ul>
+ * Any other key is rejected, so a client can never force a sort over an unindexed column.
+ */
+public class JobSortPlanner {
+
+    public static final String DEFAULT_SORT_KEY = "dateApplied";
+
+    private static final Map<String, String[]> ALLOWED_SORTS = Map.of(
+            "dateapplied", new String[]{"dateApplied", "id"},
+            "applieddate", new String[]{"dateApplied", "id"}, //accepted for clients sending the old default key
+            "status", new String[]{"status", "dateApplied", "id"}
+    );
+
+    /**
+     * Plans the ordering for a listing request.
+     * @param sortBy the requested sort key, null for the default (most recently applied first)
+     * @param direction "asc" or "desc", null for descending
+     * @return the planned sort, always ending on id so that pages are stable
+     * @throws IllegalArgumentException if the key or direction is not supported
+     */
+    public static Sort plan(String sortBy, String direction){
+        String key = sortBy == null || sortBy.isBlank() ? DEFAULT_SORT_KEY : sortBy.trim();
+
+        String[] properties = ALLOWED_SORTS.get(key.toLowerCase(Locale.ROOT));
+        if(properties == null){
+            throw new IllegalArgumentException("Unsupported sort key: " + key
+                    + ". Supported keys are dateApplied and status.");
+        }
+
+        return Sort.by(parseDirection(direction), properties);
+    }
+
+    private static Sort.Direction parseDirection(String direction){
+        if(direction == null || direction.isBlank()){
+            return Sort.Direction.DESC;
+        }
+
+        return Sort.Direction.fromOptionalString(direction.trim())
+                .orElseThrow(()->new IllegalArgumentException("Unsupported sort direction: " + direction
+                        + ". Use asc or desc."));
+    }
+}
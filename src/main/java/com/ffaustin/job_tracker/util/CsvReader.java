@@ -0,0 +1,138 @@
+package com.ffaustin.job_tracker.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 CSV reader: comma separated, double-quoted fields with "" escapes,
+ * quoted fields may span lines. Reads one record at a time, so memory use is bounded by the longest record.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final int maxRecordLength;
+
+    private long line = 1;
+    private long recordLine = 1;
+    private int pushedBack = EOF - 1;
+
+    /**
+     * @param reader the source, ideally buffered
+     * @param maxRecordLength the maximum number of characters in a record, guarding against an unterminated quote
+     */
+    public CsvReader(Reader reader, int maxRecordLength){
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Reads the next record.
+     * @return the fields of the record, or null at the end of the input
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if the record is malformed or too long
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if(c == EOF){
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        int length = 0;
+
+        while(true){
+            if(++length > maxRecordLength){
+                skipRestOfRecord(c, quoted);
+                throw new IllegalArgumentException("Record is longer than " + maxRecordLength + " characters");
+            }
+
+            if(quoted){
+                if(c == EOF){
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if(c == '"'){
+                    int peek = read();
+                    if(peek == '"'){
+                        field.append('"');
+                    }
+                    else{
+                        quoted = false;
+                        pushedBack = peek;
+                    }
+                }
+                else{
+                    field.append((char) c);
+                }
+            }
+            else if(c == '"' && field.isEmpty() && !fieldWasQuoted){
+                quoted = true;
+                fieldWasQuoted = true;
+            }
+            else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            }
+            else if(c == '\r' || c == '\n' || c == EOF){
+                if(c == '\r'){
+                    int peek = read();
+                    if(peek != '\n'){
+                        pushedBack = peek;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            else{
+                field.append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    /**
+     * @return the 1-based line on which the record last returned by {@link #next()} started
+     */
+    public long recordLine(){
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipRestOfRecord(int c, boolean quoted) throws IOException {
+        while(c != EOF && (quoted || (c != '\n' && c != '\r'))){
+            if(c == '"'){
+                quoted = !quoted;
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if(pushedBack >= EOF){
+            c = pushedBack;
+            pushedBack = EOF - 1;
+            return c;
+        }
+
+        c = reader.read();
+        if(c == '\n'){
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ffaustin.job_tracker.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV records, quoting only the fields that need it. Readable by {@link CsvReader}.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer){
+        this.writer = writer;
+    }
+
+    /**
+     * Writes one record followed by CRLF. Null fields are written as empty fields.
+     * @param fields the values of the record, converted with toString()
+     * @throws IOException if the target cannot be written
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for(int i = 0; i < fields.length; i++){
+            if(i > 0){
+                writer.write(',');
+            }
+            if(fields[i] != null){
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for(int i = 0; i < value.length() && !needsQuotes; i++){
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+
+        if(!needsQuotes){
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,5 +1,8 @@
 package com.ffaustin.job_tracker.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.stereotype.Component;
 
@@ -11,17 +14,27 @@ public class JwtUtil {
 
    private final SecretKey secretKey = Jwts.SIG.HS256.key().build();
 
+   // Parsers are immutable and thread-safe, so a single one is built and shared
+   private final JwtParser parser = Jwts.parser()
+           .verifyWith(secretKey)
+           .build();
+
    // Token validity duration (24 hours)
    private final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; //24 hours
 
+   // Claim carrying the user's numeric id
+   public static final String USER_ID_CLAIM = "uid";
+
     /**
-     * Generates a JWT containing the user's email as the subject.
+     * Generates a JWT containing the user's email as the subject and their id as a claim.
+     * @param userId the user's id.
      * @param email the user's email.
      * @return JWT response
      */
-    public String generateToken(String email){
+    public String generateToken(Long userId, String email){
         return Jwts.builder()
                 .subject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(secretKey)
@@ -29,35 +42,12 @@ public class JwtUtil {
     }
 
     /**
-     * Extracts the email (subject) from the JWT
-     * @param token
-     * @return
-     */
-    public String extractEmail(String token){
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    /**
-     * Validates the JWT signature and structure.
-     * @param token
-     * @return
+     * Verifies the JWT signature and expiry, parsing the token exactly once.
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws JwtException if the token is malformed, tampered with or expired
      */
-    public boolean isTokenValid(String token){
-        try{
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-
-            return true;
-        }
-        catch(Exception e){
-            return false;
-        }
+    public Claims parseClaims(String token){
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
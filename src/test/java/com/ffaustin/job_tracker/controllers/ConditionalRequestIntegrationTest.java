@@ -0,0 +1,183 @@
+package com.ffaustin.job_tracker.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.repository.JobStageDurationRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterRepository;
+import com.ffaustin.job_tracker.repository.JobStatusEventRepository;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.ffaustin.job_tracker.metrics.SqlStatementBudgets.statementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.iterableWithSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag revalidation of job reads and If-Match on job writes, through the full filter chain.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConditionalRequestIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private JobStatsCounterRepository jobStatsCounterRepository;
+    @Autowired private JobStatusEventRepository jobStatusEventRepository;
+    @Autowired private JobStageDurationRepository jobStageDurationRepository;
+    @Autowired private JwtUtil jwtUtil;
+
+    private final JobRequest request = new JobRequest("Engineer", "Walmart", "LinkedIn", null, JobStatus.PENDING, null, LocalDate.of(2025, 6, 1));
+
+    private User user;
+    private JobApplication job;
+    private String bearer;
+
+    @BeforeEach
+    void seed(){
+        user = userRepository.save(User.builder()
+                .email("etag-" + UUID.randomUUID() + "@example.com")
+                .password("x")
+                .enabled(true)
+                .build());
+        job = jobApplicationRepository.save(JobApplication.builder()
+                .position("Engineer")
+                .company("Google")
+                .status(JobStatus.PENDING)
+                .applicationDate(LocalDate.of(2025, 1, 1))
+                .user(user)
+                .build());
+        bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+    }
+
+    @AfterEach
+    void cleanUp(){
+        jobStatsCounterRepository.deleteAll();
+        jobStatusEventRepository.deleteAll();
+        jobStageDurationRepository.deleteAll();
+        jobApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void listJobs_shouldAnswerMatchingIfNoneMatchWithoutQueryingTheDatabase() throws Exception {
+        String etag = mockMvc.perform(get("/api/jobs").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, iterableWithSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/jobs").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(statementsAtMost(0));
+
+        // another page is another representation
+        mockMvc.perform(get("/api/jobs").param("page", "1").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writes_shouldChangeTheETagOfReads() throws Exception {
+        String etag = mockMvc.perform(get("/api/jobs/filter").param("status", "pending").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/jobs").header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        MvcResult after = mockMvc.perform(get("/api/jobs/filter").param("status", "pending")
+                        .header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(2))
+                .andReturn();
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void update_shouldHonorIfMatch() throws Exception {
+        String current = "\"" + job.getVersion() + "\"";
+
+        String next = mockMvc.perform(put("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, current)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isEqualTo("\"" + (job.getVersion() + 1) + "\"");
+
+        // the version read before the update is now stale
+        mockMvc.perform(put("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, current)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, current))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, next))
+                .andExpect(status().isOk());
+        assertThat(jobApplicationRepository.findById(job.getId())).isEmpty();
+    }
+
+    @Test
+    void patch_shouldChangeOnlyTheGivenFields() throws Exception {
+        String current = "\"" + job.getVersion() + "\"";
+        String body = "{\"company\": \"Alphabet\", \"status\": \"INTERVIEW_SCHEDULED\"}";
+
+        mockMvc.perform(patch("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, current)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (job.getVersion() + 1) + "\""));
+
+        JobApplication patched = jobApplicationRepository.findById(job.getId()).orElseThrow();
+        assertThat(patched.getCompany()).isEqualTo("Alphabet");
+        assertThat(patched.getStatus()).isEqualTo(JobStatus.INTERVIEW_SCHEDULED);
+        assertThat(patched.getPosition()).isEqualTo("Engineer");
+        assertThat(patched.getVersion()).isEqualTo(job.getVersion() + 1);
+
+        mockMvc.perform(patch("/api/jobs/{id}", job.getId()).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_MATCH, current)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/jobs/{id}", job.getId() + 1000).header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/jobs/{id}", job.getId() + 1000).header("Authorization", bearer))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listJobs_shouldExposeEachJobsVersion() throws Exception {
+        mockMvc.perform(get("/api/jobs").header("Authorization", bearer))
+                .andExpect(jsonPath("$.data.content[0].version").value(job.getVersion()));
+    }
+}
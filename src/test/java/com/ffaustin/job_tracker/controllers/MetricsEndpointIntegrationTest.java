@@ -0,0 +1,49 @@
+package com.ffaustin.job_tracker.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ffaustin.job_tracker.dto.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prometheusEndpointShouldExposeRequestJpaPoolAndAuthMetricsWithoutAuthentication() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("nobody@example.com", "Password123"))))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/jobs").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().is4xxClientError());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_count{", "uri=\"/api/auth/login\"", "outcome=\"CLIENT_ERROR\"")
+                .contains("http_server_requests_sql_statements_count{")
+                .contains("hibernate_statements_total")
+                .contains("hikaricp_connections_active")
+                .contains("auth_jwt_verify_seconds_count{", "result=\"invalid\"");
+    }
+}
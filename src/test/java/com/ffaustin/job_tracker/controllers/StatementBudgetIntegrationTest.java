@@ -0,0 +1,233 @@
+package com.ffaustin.job_tracker.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ffaustin.job_tracker.dto.BulkJobRequest;
+import com.ffaustin.job_tracker.dto.ForgotPasswordRequest;
+import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.LoginRequest;
+import com.ffaustin.job_tracker.dto.RegisterRequest;
+import com.ffaustin.job_tracker.dto.ResetPasswordRequest;
+import com.ffaustin.job_tracker.dto.UpdatePasswordRequest;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.PasswordResetToken;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.entity.VerificationToken;
+import com.ffaustin.job_tracker.metrics.SqlStatementBudget;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.repository.JobStageDurationRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterRepository;
+import com.ffaustin.job_tracker.repository.JobStatusEventRepository;
+import com.ffaustin.job_tracker.repository.PasswordResetTokenRepository;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.repository.VerificationTokenRepository;
+import com.ffaustin.job_tracker.search.JobSearchDocument;
+import com.ffaustin.job_tracker.search.JobSearchIndex;
+import com.ffaustin.job_tracker.security.OneTimeTokens;
+import com.ffaustin.job_tracker.service.JobStatsService;
+import com.ffaustin.job_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ffaustin.job_tracker.metrics.SqlStatementBudgets.statements;
+import static com.ffaustin.job_tracker.metrics.SqlStatementBudgets.statementsAtMost;
+import static com.ffaustin.job_tracker.metrics.SqlStatementBudgets.withinStatementBudget;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds the job endpoints to their SQL statement budgets, with enough rows that a per-row query would show.
+ * Not transactional, so writes are flushed inside the request as in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatementBudgetIntegrationTest {
+
+    private static final int JOBS = 60;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private VerificationTokenRepository verificationTokenRepository;
+    @Autowired private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private JobSearchIndex jobSearchIndex;
+    @Autowired private OneTimeTokens oneTimeTokens;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private JobStatsService jobStatsService;
+    @Autowired private JobStatsCounterRepository jobStatsCounterRepository;
+    @Autowired private JobStatusEventRepository jobStatusEventRepository;
+    @Autowired private JobStageDurationRepository jobStageDurationRepository;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired @Qualifier("requestMappingHandlerMapping") private RequestMappingHandlerMapping handlerMapping;
+
+    private User user;
+    private List<Long> jobIds;
+    private String bearer;
+
+    @BeforeEach
+    void seed(){
+        // a fresh email each time, so the cached principal of an earlier test's user is never reused
+        user = userRepository.save(User.builder()
+                .email("budget-" + UUID.randomUUID() + "@example.com")
+                .password(passwordEncoder.encode("Password123"))
+                .enabled(true)
+                .build());
+
+        List<JobApplication> jobs = new ArrayList<>();
+        for(int i = 0; i < JOBS; i++){
+            jobs.add(JobApplication.builder()
+                    .position("Engineer " + i)
+                    .company(i % 2 == 0 ? "Walmart" : "Google")
+                    .status(JobStatus.PENDING)
+                    .applicationDate(LocalDate.of(2025, 1, 1).plusDays(i))
+                    .user(user)
+                    .build());
+        }
+        jobs = jobApplicationRepository.saveAll(jobs);
+        jobIds = jobs.stream().map(JobApplication::getId).toList();
+        List<JobSearchDocument> documents = jobs.stream()
+                .map(job -> new JobSearchDocument(job.getId(), user.getId(), job.getCompany(), job.getPosition(), job.getJobBoardUsed(), job.getDateApplied()))
+                .toList();
+        jobSearchIndex.replaceUser(user.getId(), () -> documents);
+        // build the statistics counters of the seeded applications, as the reconciler would after an upgrade
+        jobStatsService.reconcile(user.getId());
+        bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+    }
+
+    @AfterEach
+    void cleanUp(){
+        verificationTokenRepository.deleteAll();
+        passwordResetTokenRepository.deleteAll();
+        emailOutboxRepository.deleteAll();
+        jobStatsCounterRepository.deleteAll();
+        jobStatusEventRepository.deleteAll();
+        jobStageDurationRepository.deleteAll();
+        jobApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void listJobs_shouldRunAtMostTwoStatementsWhateverThePageSize() throws Exception {
+        MvcResult small = perform(get("/api/jobs").param("page", "0").param("size", "5"), statementsAtMost(2));
+        MvcResult large = perform(get("/api/jobs").param("page", "0").param("size", "50"), statementsAtMost(2));
+
+        assertThat(statements(large)).isEqualTo(statements(small));
+    }
+
+    @Test
+    void readEndpointsShouldStayWithinTheirBudgets() throws Exception {
+        perform(get("/api/jobs").param("after", "").param("size", "50").param("includeTotal", "true"), withinStatementBudget());
+        perform(post("/api/jobs/filter").param("size", "50").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new JobFilterRequest("pending", "wal", "status", "asc"))), withinStatementBudget());
+        perform(get("/api/jobs/filter").param("status", "pending").param("size", "50"), withinStatementBudget());
+        perform(get("/api/jobs/search").param("q", "engineer"), withinStatementBudget());
+        perform(get("/api/jobs/stats"), withinStatementBudget());
+        perform(get("/api/jobs/stats/stages"), withinStatementBudget());
+        perform(get("/api/user/me"), withinStatementBudget());
+    }
+
+    @Test
+    void writeEndpointsShouldStayWithinTheirBudgets() throws Exception {
+        JobRequest request = new JobRequest("Engineer", "Walmart", "LinkedIn", null, JobStatus.PENDING, null, LocalDate.of(2025, 6, 1));
+
+        perform(post("/api/jobs").contentType(MediaType.APPLICATION_JSON).content(json(request)), withinStatementBudget());
+        JobRequest interview = new JobRequest("Engineer", "Walmart", "LinkedIn", null, JobStatus.INTERVIEW_SCHEDULED, null, LocalDate.of(2025, 6, 1));
+        perform(put("/api/jobs/{id}", jobIds.get(0)).contentType(MediaType.APPLICATION_JSON).content(json(interview)), withinStatementBudget());
+        perform(patch("/api/jobs/{id}", jobIds.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content(json(new JobPatchRequest(null, null, null, null, JobStatus.OFFER_RECEIVED, null, null))), withinStatementBudget());
+        // a patch leaving status, job board and date alone is the UPDATE alone
+        perform(patch("/api/jobs/{id}", jobIds.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content(json(new JobPatchRequest("Staff Engineer", null, null, null, null, null, null))), statementsAtMost(1));
+        perform(delete("/api/jobs/{id}", jobIds.get(1)), withinStatementBudget());
+        perform(patch("/api/jobs/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new BulkJobRequest(jobIds.subList(2, 40), null, JobStatus.REJECTED))), withinStatementBudget());
+        perform(delete("/api/jobs/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new BulkJobRequest(null, new JobFilterRequest("rejected", null, null, null), null))), withinStatementBudget());
+    }
+
+    @Test
+    void importShouldRunTheSameStatementsForAnyNumberOfRows() throws Exception {
+        StringBuilder csv = new StringBuilder("position,company,status,applicationDate\n");
+        for(int i = 0; i < JOBS; i++){
+            csv.append("Engineer ").append(i).append(",Acme,pending,2025-03-01\n");
+        }
+
+        perform(multipart("/api/jobs/import")
+                .file(new MockMultipartFile("file", "jobs.csv", "text/csv", csv.toString().getBytes(StandardCharsets.UTF_8))),
+                withinStatementBudget());
+    }
+
+    @Test
+    void accountEndpointsShouldStayWithinTheirBudgets() throws Exception {
+        String verifyToken = oneTimeTokens.generate();
+        verificationTokenRepository.save(new VerificationToken(oneTimeTokens.hash(verifyToken), user, LocalDateTime.now().plusHours(1)));
+        String resetToken = oneTimeTokens.generate();
+        passwordResetTokenRepository.save(new PasswordResetToken(oneTimeTokens.hash(resetToken), user, LocalDateTime.now().plusHours(1)));
+
+        perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new RegisterRequest("Fabrice", "Faustin", "budget-" + UUID.randomUUID() + "@example.com", "Password123"))),
+                withinStatementBudget());
+        perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new LoginRequest(user.getEmail(), "Password123"))), withinStatementBudget());
+        perform(get("/api/auth/verify").param("token", verifyToken), withinStatementBudget());
+        perform(post("/api/auth/reset-password").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new ResetPasswordRequest(resetToken, "Password456"))), withinStatementBudget());
+        perform(post("/api/auth/forgot-password").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new ForgotPasswordRequest(user.getEmail()))), withinStatementBudget());
+        perform(put("/api/user/password").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new UpdatePasswordRequest("Password456", "Password789"))), withinStatementBudget());
+    }
+
+    @Test
+    void everyEndpointShouldDeclareAStatementBudget(){
+        assertThat(handlerMapping.getHandlerMethods().entrySet())
+                .filteredOn(entry -> entry.getValue().getBeanType().getPackageName().startsWith("com.ffaustin.job_tracker"))
+                .isNotEmpty()
+                .allSatisfy(entry -> assertThat(entry.getValue().hasMethodAnnotation(SqlStatementBudget.class))
+                        .as("@SqlStatementBudget on %s", entry.getKey())
+                        .isTrue());
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request, ResultMatcher budget) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", bearer))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        budget.match(result);
+        return result;
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}
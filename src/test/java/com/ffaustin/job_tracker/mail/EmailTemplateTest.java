@@ -0,0 +1,68 @@
+package com.ffaustin.job_tracker.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmailTemplateTest {
+
+    @Test
+    void render_shouldFillEveryPlaceholderAndEscapeValues(){
+        EmailTemplate template = EmailTemplate.parse("t", "<a href=\"{{LINK}}\">{{NAME}}</a>, {{NAME}} {{{HTML}}}");
+
+        String html = template.render(Map.of(
+                "LINK", "https://x.example/?a=1&b=2",
+                "NAME", "<Fab & \"Co\">",
+                "HTML", "<b>bold</b>"
+        ));
+
+        assertThat(html).isEqualTo("<a href=\"https://x.example/?a=1&amp;b=2\">&lt;Fab &amp; &quot;Co&quot;&gt;</a>, "
+                + "&lt;Fab &amp; &quot;Co&quot;&gt; <b>bold</b>");
+        assertThat(template.placeholders()).containsExactlyInAnyOrder("LINK", "NAME", "HTML");
+    }
+
+    @Test
+    void parse_shouldKeepBracesThatAreNotPlaceholders(){
+        EmailTemplate template = EmailTemplate.parse("t", "css { a: b } {{ not a name }} {{lower}} {{OPEN {{X}}");
+
+        assertThat(template.render(Map.of("X", "1"))).isEqualTo("css { a: b } {{ not a name }} {{lower}} {{OPEN 1");
+        assertThat(template.placeholders()).containsExactly("X");
+    }
+
+    @Test
+    void render_shouldAppendToAReusedBuilder(){
+        EmailTemplate template = EmailTemplate.parse("t", "Hi {{NAME}}!");
+        StringBuilder out = new StringBuilder();
+
+        template.render(Map.of("NAME", "Ada"), out);
+        out.setLength(0);
+        template.render(Map.of("NAME", "Bob"), out);
+
+        assertThat(out.toString()).isEqualTo("Hi Bob!");
+    }
+
+    @Test
+    void render_shouldRejectMissingValue(){
+        EmailTemplate template = EmailTemplate.parse("t", "Hi {{NAME}}!");
+
+        assertThatThrownBy(() -> template.render(Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("NAME");
+    }
+
+    @Test
+    void engine_shouldLoadTheBundledTemplates(){
+        EmailTemplateEngine engine = new EmailTemplateEngine();
+
+        assertThat(engine.template("verification").placeholders()).containsExactlyInAnyOrder("VERIFICATION_LINK", "YEAR");
+        assertThat(engine.template("reset-password-verification").placeholders()).containsExactlyInAnyOrder("RESET_LINK", "YEAR");
+        assertThat(engine.render("verification", Map.of("VERIFICATION_LINK", "https://x.example/verify?token=abc", "YEAR", "2025")))
+                .contains("href=\"https://x.example/verify?token=abc\"")
+                .contains("© 2025 JobTrackr")
+                .doesNotContain("{{");
+        assertThatThrownBy(() -> engine.template("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
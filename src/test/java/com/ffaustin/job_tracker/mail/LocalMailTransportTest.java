@@ -0,0 +1,44 @@
+package com.ffaustin.job_tracker.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalMailTransportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void send_shouldKeepOnlyTheMostRecentEmails(){
+        LocalMailTransport transport = new LocalMailTransport(2, "", objectMapper);
+
+        transport.sendBatch(List.of(
+                new MailMessage("a@example.com", "1", "<p>1</p>"),
+                new MailMessage("b@example.com", "2", "<p>2</p>"),
+                new MailMessage("c@example.com", "3", "<p>3</p>")
+        ));
+
+        assertThat(transport.sent()).extracting(MailMessage::to).containsExactly("b@example.com", "c@example.com");
+        assertThat(transport.sentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void send_shouldAppendEachEmailToTheFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("mail.ndjson");
+        LocalMailTransport transport = new LocalMailTransport(10, file.toString(), objectMapper);
+
+        transport.send(new MailMessage("a@example.com", "Hi", "<p>hi</p>"));
+        transport.send(new MailMessage("b@example.com", "Hi", "<p>hi</p>"));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), MailMessage.class).to()).isEqualTo("b@example.com");
+    }
+}
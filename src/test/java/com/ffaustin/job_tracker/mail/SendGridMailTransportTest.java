@@ -0,0 +1,91 @@
+package com.ffaustin.job_tracker.mail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.objects.Email;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SendGridMailTransportTest {
+
+    private final SendGrid sendGrid = mock(SendGrid.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SendGridMailTransport transport = new SendGridMailTransport(sendGrid, new Email("noreply@jobtrackr.example", "JobTrackr"), meterRegistry);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void send_shouldPostOneMailAndAcceptAnyTwoHundredStatus() throws IOException {
+        when(sendGrid.api(any())).thenReturn(new Response(202, "", Map.of()));
+
+        transport.send(new MailMessage("fab@example.com", "Hi", "<p>hi</p>"));
+
+        JsonNode body = objectMapper.readTree(captureRequests(1).get(0).getBody());
+        assertThat(body.at("/personalizations/0/to/0/email").asText()).isEqualTo("fab@example.com");
+        assertThat(body.at("/from/email").asText()).isEqualTo("noreply@jobtrackr.example");
+        assertThat(requestCount("accepted")).isEqualTo(1);
+    }
+
+    @Test
+    void send_shouldFailOnRejectedMail() throws IOException {
+        when(sendGrid.api(any())).thenReturn(new Response(401, "{\"errors\":[]}", Map.of()));
+
+        assertThatThrownBy(() -> transport.send(new MailMessage("fab@example.com", "Hi", "<p>hi</p>")))
+                .isInstanceOf(MailDeliveryException.class)
+                .hasMessageContaining("401");
+        assertThat(requestCount("rejected")).isEqualTo(1);
+        assertThat(requestCount("accepted")).isZero();
+    }
+
+    @Test
+    void send_shouldCountFailedRequests() throws IOException {
+        when(sendGrid.api(any())).thenThrow(new IOException("connection reset"));
+
+        assertThatThrownBy(() -> transport.send(new MailMessage("fab@example.com", "Hi", "<p>hi</p>")))
+                .isInstanceOf(MailDeliveryException.class);
+        assertThat(requestCount("error")).isEqualTo(1);
+    }
+
+    @Test
+    void sendBatch_shouldGroupIdenticalContentIntoPersonalizationsOfOneRequest() throws IOException {
+        when(sendGrid.api(any())).thenReturn(new Response(202, "", Map.of()));
+
+        List<MailMessage> messages = new ArrayList<>();
+        for(int i = 0; i < SendGridMailTransport.MAX_PERSONALIZATIONS + 5; i++){
+            messages.add(new MailMessage("user" + i + "@example.com", "News", "<p>news</p>"));
+        }
+        messages.add(new MailMessage("other@example.com", "Other", "<p>other</p>"));
+
+        transport.sendBatch(messages);
+
+        List<Request> requests = captureRequests(3);
+        assertThat(objectMapper.readTree(requests.get(0).getBody()).get("personalizations")).hasSize(SendGridMailTransport.MAX_PERSONALIZATIONS);
+        assertThat(objectMapper.readTree(requests.get(1).getBody()).get("personalizations")).hasSize(5);
+        JsonNode other = objectMapper.readTree(requests.get(2).getBody());
+        assertThat(other.get("subject").asText()).isEqualTo("Other");
+        assertThat(other.at("/personalizations/0/to")).hasSize(1);
+    }
+
+    private long requestCount(String outcome){
+        return meterRegistry.get("mail.sendgrid.requests").tag("outcome", outcome).timer().count();
+    }
+
+    private List<Request> captureRequests(int count) throws IOException {
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(sendGrid, times(count)).api(captor.capture());
+        return captor.getAllValues();
+    }
+}
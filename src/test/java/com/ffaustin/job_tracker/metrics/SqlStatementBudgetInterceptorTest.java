@@ -0,0 +1,62 @@
+package com.ffaustin.job_tracker.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementBudgetInterceptorTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementBudgetInterceptor interceptor = new SqlStatementBudgetInterceptor(counter, meterRegistry, true);
+
+    @AfterEach
+    void stopCounting(){
+        counter.stop();
+    }
+
+    @Test
+    void shouldCountOnlyTheHandlersStatementsAndFlagRequestsOverBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/jobs");
+        HandlerMethod handler = new HandlerMethod(new Handlers(), "twoStatements");
+
+        counter.start();
+        counter.record();    // before the handler, e.g. authentication
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        for(int i = 0; i < 3; i++){
+            counter.record();
+        }
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        assertThat(request.getAttribute(SqlStatementBudgetInterceptor.STATEMENTS_ATTRIBUTE)).isEqualTo(3);
+        assertThat(meterRegistry.get("http.server.requests.sql.over.budget").tag("uri", "/api/jobs").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotFlagRequestsWithinBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        HandlerMethod handler = new HandlerMethod(new Handlers(), "twoStatements");
+
+        counter.start();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        counter.record();
+        counter.record();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        assertThat(request.getAttribute(SqlStatementBudgetInterceptor.STATEMENTS_ATTRIBUTE)).isEqualTo(2);
+        assertThat(meterRegistry.find("http.server.requests.sql.over.budget").counter()).isNull();
+    }
+
+    static class Handlers {
+        @SqlStatementBudget(2)
+        public void twoStatements(){
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ffaustin.job_tracker.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matchers holding requests to a number of SQL statements. They need the application's filters
+ * (e.g. {@code @AutoConfigureMockMvc}) and a test that is not {@code @Transactional}, so writes are flushed by the handler.
+ */
+public final class SqlStatementBudgets {
+
+    private SqlStatementBudgets(){
+    }
+
+    /**
+     * @return a matcher failing when the handler ran more statements than its {@link SqlStatementBudget}, or has none
+     */
+    public static ResultMatcher withinStatementBudget(){
+        return result -> {
+            SqlStatementBudget budget = budgetOf(result);
+            assertThat(budget).as("@SqlStatementBudget of %s", result.getHandler()).isNotNull();
+            assertThat(statements(result))
+                    .as("SQL statements run by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(budget.value());
+        };
+    }
+
+    /**
+     * @param max the most statements allowed
+     * @return a matcher failing when the handler ran more than {@code max} statements
+     */
+    public static ResultMatcher statementsAtMost(int max){
+        return result -> assertThat(statements(result))
+                .as("SQL statements run by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * @return the number of statements run by the handler of the request
+     */
+    public static int statements(MvcResult result){
+        Object statements = result.getRequest().getAttribute(SqlStatementBudgetInterceptor.STATEMENTS_ATTRIBUTE);
+        assertThat(statements).as("statement count; is SqlStatementMetricsFilter applied?").isInstanceOf(Integer.class);
+        return (Integer) statements;
+    }
+
+    private static SqlStatementBudget budgetOf(MvcResult result){
+        return result.getHandler() instanceof HandlerMethod method ? method.getMethodAnnotation(SqlStatementBudget.class) : null;
+    }
+}
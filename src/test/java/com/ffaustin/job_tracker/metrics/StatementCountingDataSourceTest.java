@@ -0,0 +1,61 @@
+package com.ffaustin.job_tracker.metrics;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementCountingDataSourceTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final StatementCountingDataSource dataSource = new StatementCountingDataSource(h2(), counter);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @AfterEach
+    void dropTable(){
+        counter.stop();
+        jdbcTemplate.execute("drop table if exists counted");
+    }
+
+    @Test
+    void shouldCountEachExecutionAndEachBatchOnce(){
+        jdbcTemplate.execute("create table counted (id int primary key)");
+
+        counter.start();
+        jdbcTemplate.batchUpdate("insert into counted (id) values (?)", List.of(new Object[]{1}, new Object[]{2}, new Object[]{3}));
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from counted", Integer.class);
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(counter.stop()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCountStatementsPreparedButNeverExecuted() throws Exception {
+        counter.start();
+        try(Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("select 1")){
+            assertThat(statement.isClosed()).isFalse();
+        }
+
+        assertThat(counter.stop()).isZero();
+    }
+
+    @Test
+    void shouldNotCountOutsideACountedScope(){
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        assertThat(counter.current()).isZero();
+    }
+
+    private static JdbcDataSource h2(){
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-counting;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class EmailOutboxRepositoryTest {
+
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    @Test
+    void findDueForUpdate_shouldReturnOnlyDuePendingEmailsOldestFirst(){
+        EmailOutbox later = save("later@example.com", now.minusMinutes(1));
+        EmailOutbox earlier = save("earlier@example.com", now.minusMinutes(5));
+        save("future@example.com", now.plusMinutes(5));
+        EmailOutbox sent = save("sent@example.com", now.minusMinutes(10));
+        emailOutboxRepository.markSent(sent.getId(), EmailOutbox.Status.SENT, now);
+
+        List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(EmailOutbox.Status.PENDING, now, Limit.of(10));
+
+        assertThat(due).extracting(EmailOutbox::getId).containsExactly(earlier.getId(), later.getId());
+    }
+
+    @Test
+    void claim_shouldCountTheAttemptAndHideTheEmailUntilTheLeaseEnds(){
+        EmailOutbox email = save("a@example.com", now.minusMinutes(1));
+
+        emailOutboxRepository.claim(List.of(email.getId()), now.plusMinutes(5));
+        entityManager.clear();
+
+        assertThat(emailOutboxRepository.findDueForUpdate(EmailOutbox.Status.PENDING, now, Limit.of(10))).isEmpty();
+        EmailOutbox claimed = emailOutboxRepository.findById(email.getId()).orElseThrow();
+        assertThat(claimed.getAttempts()).isEqualTo(1);
+        assertThat(claimed.getNextAttemptAt()).isEqualTo(now.plusMinutes(5));
+    }
+
+    @Test
+    void markSent_shouldBlankTheBodyHoldingTheTokenLinks(){
+        EmailOutbox email = save("a@example.com", now.minusMinutes(1));
+
+        emailOutboxRepository.markSent(email.getId(), EmailOutbox.Status.SENT, now);
+        entityManager.clear();
+
+        EmailOutbox sent = emailOutboxRepository.findById(email.getId()).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+        assertThat(sent.getHtml()).isEmpty();
+    }
+
+    private EmailOutbox save(String to, LocalDateTime due){
+        EmailOutbox email = new EmailOutbox(to, "Subject", "<p>hi</p>", due);
+        return emailOutboxRepository.saveAndFlush(email);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(JobApplicationBatchWriter.class)
+public class JobApplicationBatchWriterTest {
+
+    @Autowired private JobApplicationBatchWriter batchWriter;
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void insertAll_shouldInsertRowsReadableThroughJpa(){
+        User user = userRepository.saveAndFlush(User.builder().email("fab@example.com").password("x").build());
+
+        batchWriter.insertAll(user.getId(), List.of(
+                new JobRequest("Engineer", "Google", "LinkedIn", "https://jobs.example/1", JobStatus.PENDING, null, LocalDate.of(2024, 9, 1)),
+                new JobRequest("Analyst", "Walmart", null, null, null, LocalDate.of(2024, 9, 20), LocalDate.of(2024, 8, 30))
+        ));
+
+        List<JobApplicationSummary> rows = jobApplicationRepository.findFirstDatedKeysetSlice(user.getId(), Limit.of(10));
+
+        assertThat(rows).extracting(JobApplicationSummary::company).containsExactly("Google", "Walmart");
+        assertThat(rows.get(0).status()).isEqualTo(JobStatus.PENDING);
+        assertThat(rows.get(0).dateApplied()).isEqualTo(LocalDate.of(2024, 9, 1));
+        assertThat(rows.get(1).interviewDate()).isEqualTo(LocalDate.of(2024, 9, 20));
+        assertThat(jobApplicationRepository.countByUserId(user.getId())).isEqualTo(2);
+    }
+}
@@ -0,0 +1,195 @@
+package com.ffaustin.job_tracker.repository;
+
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class JobApplicationRepositoryTest {
+
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User user;
+    private User otherUser;
+
+    @BeforeEach
+    void setUp(){
+        user = userRepository.save(User.builder().email("fab@example.com").password("x").build());
+        otherUser = userRepository.save(User.builder().email("other@example.com").password("x").build());
+    }
+
+    @Test
+    void keysetSlices_shouldWalkDatedThenUndatedApplicationsWithoutGaps(){
+        JobApplication newest = save(user, "Google", LocalDate.of(2024, 9, 3));
+        JobApplication tieA = save(user, "Walmart", LocalDate.of(2024, 9, 2));
+        JobApplication tieB = save(user, "Target", LocalDate.of(2024, 9, 2));
+        JobApplication undated = save(user, "Amazon", null);
+        save(otherUser, "Netflix", LocalDate.of(2024, 9, 4));
+
+        List<JobApplicationSummary> first = jobApplicationRepository.findFirstDatedKeysetSlice(user.getId(), Limit.of(2));
+        assertThat(first).extracting(JobApplicationSummary::id).containsExactly(newest.getId(), tieB.getId());
+
+        JobApplicationSummary last = first.get(1);
+        List<JobApplicationSummary> second = jobApplicationRepository.findDatedKeysetSliceAfter(
+                user.getId(), last.dateApplied(), last.id(), Limit.of(2));
+        assertThat(second).extracting(JobApplicationSummary::id).containsExactly(tieA.getId());
+
+        List<JobApplicationSummary> undatedSlice = jobApplicationRepository.findFirstUndatedKeysetSlice(user.getId(), Limit.of(1));
+        assertThat(undatedSlice).extracting(JobApplicationSummary::id).containsExactly(undated.getId());
+
+        List<JobApplicationSummary> tail = jobApplicationRepository.findUndatedKeysetSliceAfter(
+                user.getId(), undated.getId(), Limit.of(2));
+        assertThat(tail).isEmpty();
+    }
+
+    @Test
+    void findSummaries_shouldPageMatchingApplicationsOfTheUserOnly(){
+        save(user, "Google", LocalDate.of(2024, 9, 3));
+        save(user, "Walmart", LocalDate.of(2024, 9, 2));
+        save(otherUser, "Netflix", LocalDate.of(2024, 9, 4));
+
+        Page<JobApplicationSummary> page = jobApplicationRepository.findSummaries(
+                JobApplicationSpecification.withFilters(user.getId(), new JobFilterRequest(null, null, null, null)),
+                PageRequest.of(0, 1, Sort.by("dateApplied").descending()));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(JobApplicationSummary::company).containsExactly("Google");
+    }
+
+    @Test
+    void findSummaries_shouldMatchCompanySubstringIgnoringCase(){
+        save(user, "Walmart Global Tech", LocalDate.of(2024, 9, 3));
+        save(user, "Google", LocalDate.of(2024, 9, 2));
+        save(user, "100% Remote_Co", LocalDate.of(2024, 9, 1));
+
+        Page<JobApplicationSummary> walmart = jobApplicationRepository.findSummaries(
+                JobApplicationSpecification.withFilters(user.getId(), new JobFilterRequest(null, "WALMART", null, null)),
+                PageRequest.of(0, 10));
+        Page<JobApplicationSummary> wildcard = jobApplicationRepository.findSummaries(
+                JobApplicationSpecification.withFilters(user.getId(), new JobFilterRequest(null, "%", null, null)),
+                PageRequest.of(0, 10));
+
+        assertThat(walmart.getContent()).extracting(JobApplicationSummary::company).containsExactly("Walmart Global Tech");
+        assertThat(wildcard.getContent()).extracting(JobApplicationSummary::company).containsExactly("100% Remote_Co");
+    }
+
+    @Test
+    void streamSummaries_shouldStreamEveryMatchingApplicationInOrder(){
+        JobApplication older = save(user, "Walmart", LocalDate.of(2024, 9, 1));
+        JobApplication newer = save(user, "Google", LocalDate.of(2024, 9, 2));
+        save(otherUser, "Netflix", LocalDate.of(2024, 9, 3));
+
+        try(Stream<JobApplicationSummary> stream = jobApplicationRepository.streamSummaries(
+                JobApplicationSpecification.withFilters(user.getId(), new JobFilterRequest(null, null, null, null)),
+                Sort.by(Sort.Direction.DESC, "dateApplied", "id"),
+                1)){
+            assertThat(stream).extracting(JobApplicationSummary::id).containsExactly(newer.getId(), older.getId());
+        }
+    }
+
+    @Test
+    void updateStatus_shouldUpdateOnlyTheSelectedApplicationsOfTheUser(){
+        JobApplication google = save(user, "Google", LocalDate.of(2024, 9, 1));
+        JobApplication walmart = save(user, "Walmart", LocalDate.of(2024, 9, 2));
+        JobApplication foreign = save(otherUser, "Netflix", LocalDate.of(2024, 9, 3));
+
+        int updated = jobApplicationRepository.updateStatus(
+                JobApplicationSpecification.withIds(user.getId(), List.of(google.getId(), foreign.getId())), JobStatus.REJECTED);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(jobApplicationRepository.findById(google.getId())).get().extracting(JobApplication::getStatus).isEqualTo(JobStatus.REJECTED);
+        assertThat(jobApplicationRepository.findById(walmart.getId())).get().extracting(JobApplication::getStatus).isEqualTo(JobStatus.PENDING);
+        assertThat(jobApplicationRepository.findById(foreign.getId())).get().extracting(JobApplication::getStatus).isEqualTo(JobStatus.PENDING);
+    }
+
+    @Test
+    void deleteBySpecification_shouldDeleteOnlyMatchingApplicationsOfTheUser(){
+        save(user, "Walmart", LocalDate.of(2024, 9, 1));
+        JobApplication google = save(user, "Google", LocalDate.of(2024, 9, 2));
+        save(otherUser, "Walmart", LocalDate.of(2024, 9, 3));
+
+        long deleted = jobApplicationRepository.delete(
+                JobApplicationSpecification.withFilters(user.getId(), new JobFilterRequest(null, "walmart", null, null)));
+        entityManager.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(jobApplicationRepository.countByUserId(user.getId())).isEqualTo(1);
+        assertThat(jobApplicationRepository.existsById(google.getId())).isTrue();
+        assertThat(jobApplicationRepository.countByUserId(otherUser.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void patchReturningSnapshot_shouldReturnTheBucketsTheUpdateReplaced(){
+        JobApplication google = save(user, "Google", LocalDate.of(2024, 9, 2));
+        JobPatchRequest patch = new JobPatchRequest(null, null, "Indeed", null, JobStatus.INTERVIEW_SCHEDULED, null, null);
+
+        assertThat(jobApplicationRepository.patchReturningSnapshot(otherUser.getId(), google.getId(), null, patch)).isEmpty();
+        assertThat(jobApplicationRepository.patchReturningSnapshot(user.getId(), google.getId(), 1L, patch)).isEmpty();
+        assertThat(jobApplicationRepository.patchReturningSnapshot(user.getId(), google.getId(), 0L, patch))
+                .contains(new JobStatusSnapshot(google.getId(), JobStatus.PENDING, null, LocalDate.of(2024, 9, 2)));
+        entityManager.clear();
+
+        JobApplication patched = jobApplicationRepository.findById(google.getId()).orElseThrow();
+        assertThat(patched.getStatus()).isEqualTo(JobStatus.INTERVIEW_SCHEDULED);
+        assertThat(patched.getJobBoardUsed()).isEqualTo("Indeed");
+        assertThat(patched.getCompany()).isEqualTo("Google");
+        assertThat(patched.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void deleteReturningSnapshot_shouldReturnTheDeletedBuckets(){
+        JobApplication google = save(user, "Google", LocalDate.of(2024, 9, 2));
+
+        assertThat(jobApplicationRepository.deleteReturningSnapshot(otherUser.getId(), google.getId(), null)).isEmpty();
+        assertThat(jobApplicationRepository.deleteReturningSnapshot(user.getId(), google.getId(), 1L)).isEmpty();
+        assertThat(jobApplicationRepository.deleteReturningSnapshot(user.getId(), google.getId(), null))
+                .contains(new JobStatusSnapshot(google.getId(), JobStatus.PENDING, null, LocalDate.of(2024, 9, 2)));
+        entityManager.clear();
+
+        assertThat(jobApplicationRepository.existsById(google.getId())).isFalse();
+    }
+
+    @Test
+    void findSummariesByUserId_shouldCountOnlyTheUsersApplications(){
+        save(user, "Google", LocalDate.of(2024, 9, 3));
+        save(otherUser, "Netflix", LocalDate.of(2024, 9, 4));
+
+        Page<JobApplicationSummary> page = jobApplicationRepository.findSummariesByUserId(user.getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(jobApplicationRepository.countByUserId(user.getId())).isEqualTo(1);
+    }
+
+    private JobApplication save(User owner, String company, LocalDate dateApplied){
+        return jobApplicationRepository.save(JobApplication.builder()
+                .company(company)
+                .position("Engineer")
+                .status(JobStatus.PENDING)
+                .applicationDate(dateApplied)
+                .user(owner)
+                .build());
+    }
+}
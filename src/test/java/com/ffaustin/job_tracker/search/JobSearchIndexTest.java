@@ -0,0 +1,125 @@
+package com.ffaustin.job_tracker.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobSearchIndexTest {
+
+    private final JobSearchIndex index = new JobSearchIndex();
+
+    private final Long userId = 1L;
+
+    @Test
+    void search_shouldMatchTokensAndPrefixesIgnoringCaseAndAccents(){
+        index.index(doc(1L, "Société Générale", "Backend Engineer", "LinkedIn", null));
+        index.index(doc(2L, "Google", "Software Engineer", "Indeed", null));
+
+        assertThat(index.search(userId, "SOCIETE", 10)).containsExactly(1L);
+        assertThat(index.search(userId, "gén", 10)).containsExactly(1L);
+        assertThat(index.search(userId, "engineer", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search(userId, "goo soft", 10)).containsExactly(2L);
+        assertThat(index.search(userId, "google backend", 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldRankCompanyHitsAboveBoardHitsAndRecentAboveOld(){
+        LocalDate today = LocalDate.now();
+        index.index(doc(1L, "Acme", "Engineer", "Indeed", today));
+        index.index(doc(2L, "Indeed", "Engineer", "LinkedIn", today.minusYears(1)));
+        index.index(doc(3L, "Indeed", "Analyst", "LinkedIn", today));
+
+        assertThat(index.search(userId, "indeed", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void search_shouldReflectUpdatesAndDeletes(){
+        index.index(doc(1L, "Google", "Engineer", null, null));
+        index.index(doc(1L, "Alphabet", "Engineer", null, null));
+
+        assertThat(index.search(userId, "google", 10)).isEmpty();
+        assertThat(index.search(userId, "alphabet", 10)).containsExactly(1L);
+
+        index.remove(userId, 1L);
+
+        assertThat(index.search(userId, "alphabet", 10)).isEmpty();
+    }
+
+    @Test
+    void update_shouldChangeOnlyTheGivenFieldsOfIndexedApplications(){
+        index.index(doc(1L, "Google", "Engineer", "LinkedIn", null));
+
+        assertThat(index.update(userId, 1L, d -> doc(d.id(), "Alphabet", d.position(), d.jobBoardUsed(), d.dateApplied()))).isTrue();
+        assertThat(index.update(userId, 2L, d -> d)).isFalse();
+
+        assertThat(index.search(userId, "google", 10)).isEmpty();
+        assertThat(index.search(userId, "alphabet engineer linkedin", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_shouldOnlySeeTheUsersOwnApplications(){
+        index.index(doc(1L, "Google", "Engineer", null, null));
+
+        assertThat(index.search(2L, "google", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldKeepLiveVersionsAndNotResurrectDeletes(){
+        index.beginRebuild();
+        index.index(doc(1L, "Alphabet", "Engineer", null, null));
+        index.index(doc(2L, "Netflix", "Engineer", null, null));
+        index.remove(userId, 2L);
+
+        //stale rows read by the rebuild before the live writes above
+        index.rebuildAdd(doc(1L, "Google", "Engineer", null, null));
+        index.rebuildAdd(doc(2L, "Netflix", "Engineer", null, null));
+        index.rebuildAdd(doc(3L, "Amazon", "Engineer", null, null));
+        index.endRebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(userId, "google", 10)).isEmpty();
+        assertThat(index.search(userId, "alphabet", 10)).containsExactly(1L);
+        assertThat(index.search(userId, "netflix", 10)).isEmpty();
+        assertThat(index.search(userId, "amazon", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void replaceUser_shouldDropEverythingPreviouslyIndexed(){
+        index.index(doc(1L, "Google", "Engineer", null, null));
+
+        index.replaceUser(userId, () -> List.of(doc(5L, "Amazon", "Engineer", null, null)));
+
+        assertThat(index.search(userId, "engineer", 10)).containsExactly(5L);
+    }
+
+    @Test
+    void replaceUser_shouldKeepLiveWritesMadeWhileReading(){
+        index.index(doc(1L, "Google", "Engineer", null, null));
+        index.index(doc(2L, "Netflix", "Engineer", null, null));
+
+        index.replaceUser(userId, () -> {
+            List<JobSearchDocument> read = List.of(
+                    doc(1L, "Google", "Engineer", null, null),
+                    doc(2L, "Netflix", "Engineer", null, null));
+            //live writes committed after the read, whose hooks run before the swap
+            index.index(doc(1L, "Alphabet", "Engineer", null, null));
+            index.remove(userId, 2L);
+            index.index(doc(3L, "Amazon", "Engineer", null, null));
+            return read;
+        });
+
+        assertThat(index.search(userId, "google", 10)).isEmpty();
+        assertThat(index.search(userId, "engineer", 10)).containsExactlyInAnyOrder(1L, 3L);
+
+        //once the reindex is over, it no longer shields anything from the next one
+        index.replaceUser(userId, () -> List.of(doc(3L, "Amazon", "Engineer", null, null)));
+        assertThat(index.search(userId, "engineer", 10)).containsExactly(3L);
+    }
+
+    private JobSearchDocument doc(Long id, String company, String position, String board, LocalDate dateApplied){
+        return new JobSearchDocument(id, userId, company, position, board, dateApplied);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ffaustin.job_tracker.security;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(1, 1, 2, meterRegistry);
+
+    @AfterEach
+    void tearDown(){
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldHashOnThePoolAndRecordTimings(){
+        String hash = encoder.encode("Password123");
+
+        assertThat(encoder.matches("Password123", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+
+        assertThat(meterRegistry.get("password.hash.time").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash.time").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hash.queue.wait").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        Timer timer = meterRegistry.timer("test");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // one task holds the only thread, a second one fills the only queue slot
+        CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> encoder.submit(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }, timer, timer));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> encoder.submit(() -> true, timer, timer));
+        while(meterRegistry.get("password.hash.queue.size").gauge().value() < 1){
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.encode("Password123"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .satisfies(e -> assertThat(((PasswordHashingBusyException) e).getRetryAfterSeconds()).isEqualTo(2));
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+    }
+}
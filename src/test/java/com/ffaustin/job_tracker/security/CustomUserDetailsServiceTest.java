@@ -0,0 +1,61 @@
+package com.ffaustin.job_tracker.security;
+
+import com.ffaustin.job_tracker.dto.UserCredentials;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class CustomUserDetailsServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService userDetailsService =
+            new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    private final UserCredentials credentials = new UserCredentials(3L, "fab@example.com", "hashed", true, false);
+
+    @Test
+    void loadUserByUsername_shouldQueryOnceForRepeatedLookups(){
+        when(userRepository.findCredentialsByEmail("fab@example.com")).thenReturn(Optional.of(credentials));
+
+        UserDetails first = userDetailsService.loadUserByUsername("fab@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("fab@example.com");
+
+        assertThat(second).isSameAs(first);
+        assertThat(((AuthenticatedUser) first).getId()).isEqualTo(3L);
+        assertThat(first.getPassword()).isEqualTo("hashed");
+        verify(userRepository, times(1)).findCredentialsByEmail("fab@example.com");
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void evict_shouldForceReloadOfChangedAccount(){
+        when(userRepository.findCredentialsByEmail("fab@example.com"))
+                .thenReturn(Optional.of(credentials))
+                .thenReturn(Optional.of(new UserCredentials(3L, "fab@example.com", "new-hash", true, true)));
+
+        userDetailsService.loadUserByUsername("fab@example.com");
+        userDetailsService.evict("fab@example.com");
+        UserDetails reloaded = userDetailsService.loadUserByUsername("fab@example.com");
+
+        assertThat(reloaded.getPassword()).isEqualTo("new-hash");
+        assertThat(reloaded.isAccountNonLocked()).isFalse();
+        verify(userRepository, times(2)).findCredentialsByEmail("fab@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_shouldThrowForUnknownEmail(){
+        when(userRepository.findCredentialsByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("missing@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ffaustin.job_tracker.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterTest {
+
+    private final VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifiedTokenCache, userDetailsService, meterRegistry);
+
+    @AfterEach
+    void clearContext(){
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateAndTimeVerificationAndUserLoad() throws Exception {
+        when(verifiedTokenCache.verify("good")).thenReturn(new VerifiedTokenCache.VerifiedToken(1L, "fab@example.com", Long.MAX_VALUE));
+        when(userDetailsService.loadUserByUsername("fab@example.com"))
+                .thenReturn(new AuthenticatedUser(1L, "fab@example.com", "hash", true, false));
+
+        filter.doFilter(bearer("good"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "valid").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.user.load").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeInvalidTokenWithoutLoadingUser() throws Exception {
+        when(verifiedTokenCache.verify("bad")).thenReturn(null);
+
+        filter.doFilter(bearer("bad"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "invalid").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.user.load").timer().count()).isZero();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private MockHttpServletRequest bearer(String token){
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ffaustin.job_tracker.security;
+
+import com.ffaustin.job_tracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class LoginAttemptThrottleTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private final LoginAttemptThrottle throttle = new LoginAttemptThrottle(userRepository, userDetailsService, meterRegistry,
+            3, 5, Duration.ofMinutes(10), Duration.ofMinutes(15), 1000, clock);
+
+    @Test
+    void recordFailure_shouldLockAccountOnceWhenLimitIsReached(){
+        throttle.recordFailure("fab@example.com", "10.0.0.1");
+        throttle.recordFailure("fab@example.com", "10.0.0.2");
+        assertThatCode(() -> throttle.checkAllowed("fab@example.com", "10.0.0.3")).doesNotThrowAnyException();
+
+        // the same account spelled differently counts toward, and locks, the same row
+        throttle.recordFailure(" Fab@Example.com", "10.0.0.3");
+
+        assertThatThrownBy(() -> throttle.checkAllowed("FAB@example.com", "10.0.0.4"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isEqualTo(15 * 60));
+        verify(userRepository, times(1)).lockAccount("fab@example.com", LocalDateTime.of(2026, 1, 1, 0, 0), 3);
+        verify(userDetailsService).evict(" Fab@Example.com");
+
+        // failures while locked are counted again from zero and do not write anything
+        throttle.recordFailure("fab@example.com", "10.0.0.5");
+        verify(userRepository, times(1)).lockAccount(any(), any(), anyInt());
+        assertThat(meterRegistry.get("auth.login.locks").counter().count()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(16));
+        assertThatCode(() -> throttle.checkAllowed("fab@example.com", "10.0.0.6")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_shouldThrottleAddressSprayingManyAccounts(){
+        for(int i = 0; i < 5; i++){
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.checkAllowed("new@example.com", "10.0.0.1"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> throttle.checkAllowed("new@example.com", "10.0.0.2")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.login.throttled").tag("reason", "address").counter().count()).isEqualTo(1);
+        verify(userRepository, never()).lockAccount(any(), any(), anyInt());
+    }
+
+    @Test
+    void checkAllowed_shouldLetOldFailuresSlideOutOfTheWindow(){
+        for(int i = 0; i < 5; i++){
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        // halfway through the next window only half of the previous window still counts
+        clock.advance(Duration.ofMinutes(15));
+
+        assertThatCode(() -> throttle.checkAllowed("new@example.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void recordSuccess_shouldForgetFailuresOfTheAccount(){
+        throttle.recordFailure("fab@example.com", null);
+        throttle.recordFailure("fab@example.com", null);
+        throttle.recordSuccess("fab@example.com");
+        throttle.recordFailure("fab@example.com", null);
+
+        verify(userRepository, never()).lockAccount(any(), any(), anyInt());
+    }
+
+    @Test
+    void unlockIfExpired_shouldUnlockOnlyAnExpiredPersistedLock(){
+        when(userRepository.unlockAccount(eq("fab@example.com"), any())).thenReturn(1);
+        when(userRepository.unlockAccount(eq("locked@example.com"), any())).thenReturn(0);
+
+        assertThat(throttle.unlockIfExpired("Fab@example.com")).isTrue();
+        verify(userRepository).unlockAccount("fab@example.com", LocalDateTime.of(2025, 12, 31, 23, 45));
+        verify(userDetailsService).evict("Fab@example.com");
+
+        assertThatThrownBy(() -> throttle.unlockIfExpired("locked@example.com"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now){
+            this.now = now;
+        }
+
+        void advance(Duration duration){
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ffaustin.job_tracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OneTimeTokensTest {
+
+    private final OneTimeTokens oneTimeTokens = new OneTimeTokens();
+
+    @Test
+    void generate_shouldReturnDistinctUrlSafeTokens(){
+        Set<String> tokens = new HashSet<>();
+        for(int i = 0; i < 1000; i++){
+            tokens.add(oneTimeTokens.generate());
+        }
+
+        assertThat(tokens).hasSize(1000);
+        assertThat(tokens).allMatch(token -> token.matches("[A-Za-z0-9_-]{43}"));
+    }
+
+    @Test
+    void hash_shouldBeStableAndDifferFromTheToken(){
+        String token = oneTimeTokens.generate();
+
+        assertThat(oneTimeTokens.hash(token)).isEqualTo(oneTimeTokens.hash(token));
+        assertThat(oneTimeTokens.hash(token)).isNotEqualTo(token).hasSize(43);
+        assertThat(oneTimeTokens.hash("abc")).isEqualTo("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0");
+    }
+}
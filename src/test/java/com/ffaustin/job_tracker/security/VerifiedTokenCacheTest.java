@@ -0,0 +1,51 @@
+package com.ffaustin.job_tracker.security;
+
+import com.ffaustin.job_tracker.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100, Duration.ofMinutes(5));
+
+    @Test
+    void verify_shouldReturnClaimsOfValidToken(){
+        String token = jwtUtil.generateToken(42L, "fab@example.com");
+
+        VerifiedTokenCache.VerifiedToken verified = cache.verify(token);
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.userId()).isEqualTo(42L);
+        assertThat(verified.email()).isEqualTo("fab@example.com");
+    }
+
+    @Test
+    void verify_shouldParseRepeatedTokenOnlyOnce(){
+        String token = jwtUtil.generateToken(42L, "fab@example.com");
+
+        cache.verify(token);
+        cache.verify(token);
+        cache.verify(token);
+
+        verify(jwtUtil, times(1)).parseClaims(token);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void verify_shouldRejectTamperedOrForeignToken(){
+        String foreignToken = new JwtUtil().generateToken(42L, "fab@example.com");
+
+        assertThat(cache.verify(foreignToken)).isNull();
+        assertThat(cache.verify("not-a-jwt")).isNull();
+    }
+}
@@ -10,15 +10,26 @@ import com.ffaustin.job_tracker.entity.VerificationToken;
 import com.ffaustin.job_tracker.repository.PasswordResetTokenRepository;
 import com.ffaustin.job_tracker.repository.UserRepository;
 import com.ffaustin.job_tracker.repository.VerificationTokenRepository;
+import com.ffaustin.job_tracker.security.AuthenticatedUser;
+import com.ffaustin.job_tracker.security.CustomUserDetailsService;
+import com.ffaustin.job_tracker.security.LoginAttemptThrottle;
+import com.ffaustin.job_tracker.security.LoginThrottledException;
+import com.ffaustin.job_tracker.security.OneTimeTokens;
 import com.ffaustin.job_tracker.service.AuthService;
+import com.ffaustin.job_tracker.service.EmailOutboxService;
+import com.ffaustin.job_tracker.service.SendGridService;
 //import com.ffaustin.job_tracker.service.EmailService;
 import com.ffaustin.job_tracker.util.JwtUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -49,6 +60,16 @@ public class AuthServiceTest {
     private BCryptPasswordEncoder passwordEncoder;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottle;
+    @Mock
+    private SendGridService sendGridService;
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Spy
+    private OneTimeTokens oneTimeTokens = new OneTimeTokens();
 
     @InjectMocks
     private AuthService authService;
@@ -70,7 +91,15 @@ public class AuthServiceTest {
         authService.register(request);
 
         verify(userRepository).save(any(User.class));
-        verify(verificationTokenRepository).save(any(VerificationToken.class));
+        // only the digest of the mailed token is stored
+        ArgumentCaptor<VerificationToken> saved = ArgumentCaptor.forClass(VerificationToken.class);
+        verify(verificationTokenRepository).save(saved.capture());
+        ArgumentCaptor<String> mailedToken = ArgumentCaptor.forClass(String.class);
+        verify(sendGridService).buildVerificationEmail(mailedToken.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(oneTimeTokens.hash(mailedToken.getValue()));
+        assertThat(saved.getValue().getTokenHash()).isNotEqualTo(mailedToken.getValue());
+        verify(emailOutboxService).enqueue(eq("fab@example.com"), eq("Verify Your JobTrackr Account"), any());
+        verify(sendGridService, never()).sendEmail(any(), any(), any());
         //verify(emailService).sendVerificationEmail(eq("fab@example.com"), anyString());
     }
 
@@ -100,28 +129,40 @@ public class AuthServiceTest {
 
         // returns an Authentication object if credentials are correct
         Authentication fakeAuth = mock(Authentication.class);
+        when(fakeAuth.getPrincipal()).thenReturn(new AuthenticatedUser(1L, request.email(), "hashedPass", true, false));
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(fakeAuth);
 
-        //simulate user retrieval
-        User user = new User();
-        user.setEmail(request.email());
-        user.setPassword(request.password());
-        user.setEnabled(true);
-
-        when(userRepository.findByEmail(request.email())).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(1L, request.email())).thenReturn("mock-jwt-token");
 
-        when(jwtUtil.generateToken(user.getEmail())).thenReturn("mock-jwt-token");
-
-        LoginResponse response = authService.login(request);
+        LoginResponse response = authService.login(request, "127.0.0.1");
 
         assertThat(response.email()).isEqualTo("fab@example.com");
         assertThat(response.token()).isEqualTo("mock-jwt-token");
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        // the authenticated principal is used as is, the user is not loaded a second time
+        verify(userRepository, never()).findByEmail(any());
+        verify(jwtUtil).generateToken(1L, "fab@example.com");
+    }
+
+    @Test
+    void login_shouldFallBackToRepositoryWhenPrincipalIsNotAnAuthenticatedUser() {
+        LoginRequest request = new LoginRequest("fab@example.com", "Password123");
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(mock(Authentication.class));
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(request.email());
+
+        when(userRepository.findByEmail(request.email())).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(1L, user.getEmail())).thenReturn("mock-jwt-token");
+
+        assertThat(authService.login(request, "127.0.0.1").token()).isEqualTo("mock-jwt-token");
         verify(userRepository).findByEmail("fab@example.com");
-        verify(jwtUtil).generateToken("fab@example.com");
     }
 
     @Test
@@ -131,11 +172,48 @@ public class AuthServiceTest {
         when(authenticationManager.authenticate(any())).thenReturn(mock(Authentication.class));
         when(userRepository.findByEmail(request.email())).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> authService.login(request))
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1"))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("User not found.");
     }
 
+    @Test
+    void login_shouldRecordFailedAttempt() {
+        LoginRequest request = new LoginRequest("fab@example.com", "wrong");
+
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(loginAttemptThrottle).recordFailure("fab@example.com", "127.0.0.1");
+        verify(loginAttemptThrottle, never()).recordSuccess(any());
+    }
+
+    @Test
+    void login_shouldRecordFailedAttemptAfterReleasingAnExpiredLock() {
+        LoginRequest request = new LoginRequest("fab@example.com", "wrong");
+
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new LockedException("User account is locked"))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(loginAttemptThrottle).unlockIfExpired("fab@example.com");
+        verify(loginAttemptThrottle).recordFailure("fab@example.com", "127.0.0.1");
+    }
+
+    @Test
+    void login_shouldRefuseThrottledAttemptBeforeCheckingPassword() {
+        LoginRequest request = new LoginRequest("fab@example.com", "Password123");
+
+        doThrow(new LoginThrottledException(60)).when(loginAttemptThrottle).checkAllowed("fab@example.com", "127.0.0.1");
+
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1"))
+                .isInstanceOf(LoginThrottledException.class);
+        verifyNoInteractions(authenticationManager);
+    }
+
     @Test
     void sendPasswordResetToken_shouldSendEmailIfUserExists() {
         User user = User.builder()
@@ -147,6 +225,7 @@ public class AuthServiceTest {
         authService.sendPasswordResetToken(user.getEmail());
 
         verify(passwordResetTokenRepository).save(any());
+        verify(emailOutboxService).enqueue(eq("fab@example.com"), eq("Confirm Your Reset Password Request"), any());
     }
 
     @Test
@@ -161,26 +240,27 @@ public class AuthServiceTest {
     @Test
     void resetPassword_shouldUpdatePasswordIfTokenIsValid(){
         PasswordResetToken token = new PasswordResetToken();
-        token.setToken("valid-token");
+        token.setTokenHash(oneTimeTokens.hash("valid-token"));
         token.setExpiryDate(LocalDateTime.now().plusHours(1));
-        token.setUser(new User());
+        token.setUser(User.builder().email("fab@example.com").build());
 
-        when(passwordResetTokenRepository.findByToken("valid-token")).thenReturn(Optional.of(token));
+        when(passwordResetTokenRepository.findByTokenHash(oneTimeTokens.hash("valid-token"))).thenReturn(Optional.of(token));
 
         ResetPasswordRequest request = new ResetPasswordRequest("valid-token", "newPassword123");
 
         authService.resetPassword(request.token(), request.newPassword());
 
         verify(userRepository).save(token.getUser());
+        verify(userDetailsService).evict("fab@example.com");
     }
 
     @Test
     void resetPassword_shouldThrowIfTokenInvalidOrExpired() {
         PasswordResetToken token = new PasswordResetToken();
-        token.setToken("expired-token");
+        token.setTokenHash(oneTimeTokens.hash("expired-token"));
         token.setExpiryDate(LocalDateTime.now().minusMinutes(10));
 
-        when(passwordResetTokenRepository.findByToken("expired-token")).thenReturn(Optional.of(token));
+        when(passwordResetTokenRepository.findByTokenHash(oneTimeTokens.hash("expired-token"))).thenReturn(Optional.of(token));
 
         ResetPasswordRequest request = new ResetPasswordRequest("expired-token", "newPass");
 
@@ -0,0 +1,101 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import com.ffaustin.job_tracker.service.EmailOutboxDispatcher;
+import com.ffaustin.job_tracker.service.SendGridService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class EmailOutboxDispatcherTest {
+
+    private final EmailOutboxRepository emailOutboxRepository = mock(EmailOutboxRepository.class);
+    private final SendGridService sendGridService = mock(SendGridService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(
+            emailOutboxRepository, sendGridService, mock(PlatformTransactionManager.class), meterRegistry,
+            2, 2, 3, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(10));
+
+    @Test
+    void dispatch_shouldSendClaimedEmailsAndMarkThemSent(){
+        EmailOutbox first = email(1L, "a@example.com", 0);
+        EmailOutbox second = email(2L, "b@example.com", 0);
+        EmailOutbox third = email(3L, "c@example.com", 0);
+
+        when(emailOutboxRepository.findDueForUpdate(eq(EmailOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        // a full batch still ends the poll, leaving the rest to the next one
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).claim(eq(List.of(1L, 2L)), any());
+        verify(sendGridService).sendEmail("a@example.com", "Subject", "<p>hi</p>");
+        verify(sendGridService).sendEmail("b@example.com", "Subject", "<p>hi</p>");
+        verify(emailOutboxRepository, times(2)).markSent(any(), eq(EmailOutbox.Status.SENT), any());
+        verify(emailOutboxRepository, never()).claim(eq(List.of(3L)), any());
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).claim(eq(List.of(3L)), any());
+        verify(sendGridService).sendEmail("c@example.com", "Subject", "<p>hi</p>");
+        assertThat(meterRegistry.get("mail.outbox.deliveries").tag("result", "sent").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void dispatch_shouldRescheduleFailedEmailWithBackoff(){
+        when(emailOutboxRepository.findDueForUpdate(eq(EmailOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(email(1L, "a@example.com", 0)));
+        doThrow(new RuntimeException("SendGrid rejected the email with status 503"))
+                .when(sendGridService).sendEmail(anyString(), anyString(), anyString());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).markFailedAttempt(eq(1L), eq(EmailOutbox.Status.PENDING),
+                argThat(retryAt -> retryAt.isAfter(before.plusSeconds(14))), eq("SendGrid rejected the email with status 503"));
+        verify(emailOutboxRepository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    void dispatch_shouldGiveUpAfterTheLastAttempt(){
+        when(emailOutboxRepository.findDueForUpdate(eq(EmailOutbox.Status.PENDING), any(), any()))
+                .thenReturn(List.of(email(1L, "a@example.com", 2)));
+        doThrow(new RuntimeException("boom")).when(sendGridService).sendEmail(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository).markFailed(eq(1L), eq(EmailOutbox.Status.FAILED), any(), eq("boom"));
+        verify(emailOutboxRepository, never()).markFailedAttempt(any(), any(), any(), any());
+        assertThat(meterRegistry.get("mail.outbox.deliveries").tag("result", "failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatch_shouldDoNothingWhenNothingIsDue(){
+        when(emailOutboxRepository.findDueForUpdate(any(), any(), any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(emailOutboxRepository, never()).claim(any(), any());
+        verifyNoInteractions(sendGridService);
+    }
+
+    private static EmailOutbox email(Long id, String to, int previousAttempts){
+        EmailOutbox email = new EmailOutbox(to, "Subject", "<p>hi</p>", LocalDateTime.now());
+        email.setId(id);
+        email.setAttempts(previousAttempts);
+        return email;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.entity.EmailOutbox;
+import com.ffaustin.job_tracker.repository.EmailOutboxRepository;
+import com.ffaustin.job_tracker.service.EmailOutboxPurger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmailOutboxPurgerTest {
+
+    @Autowired private EmailOutboxRepository emailOutboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp(){
+        // runs outside a test transaction, so nothing is rolled back for us
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void purge_shouldDeleteOnlyFinishedEmailsPastRetentionInChunks(){
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmailOutboxPurger purger = new EmailOutboxPurger(emailOutboxRepository, transactionManager, meterRegistry, Duration.ofDays(7), 2);
+
+        LocalDateTime old = LocalDateTime.now().minusDays(8);
+        for(int i = 0; i < 3; i++){
+            save("sent-" + i + "@example.com", EmailOutbox.Status.SENT, old);
+        }
+        save("failed@example.com", EmailOutbox.Status.FAILED, old);
+        EmailOutbox recent = save("recent@example.com", EmailOutbox.Status.SENT, LocalDateTime.now().minusDays(1));
+        EmailOutbox pending = save("pending@example.com", EmailOutbox.Status.PENDING, old);
+
+        purger.purge();
+
+        assertThat(emailOutboxRepository.findAll()).extracting(EmailOutbox::getId).containsExactlyInAnyOrder(recent.getId(), pending.getId());
+        assertThat(meterRegistry.get("mail.outbox.purged").counter().count()).isEqualTo(4);
+    }
+
+    private EmailOutbox save(String to, EmailOutbox.Status status, LocalDateTime lastAttempt){
+        EmailOutbox email = new EmailOutbox(to, "Subject", "", lastAttempt);
+        email.setStatus(status);
+        return emailOutboxRepository.save(email);
+    }
+}
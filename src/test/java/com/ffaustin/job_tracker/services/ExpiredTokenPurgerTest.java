@@ -0,0 +1,64 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.entity.PasswordResetToken;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.entity.VerificationToken;
+import com.ffaustin.job_tracker.repository.PasswordResetTokenRepository;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.repository.VerificationTokenRepository;
+import com.ffaustin.job_tracker.service.ExpiredTokenPurger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExpiredTokenPurgerTest {
+
+    @Autowired private VerificationTokenRepository verificationTokenRepository;
+    @Autowired private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp(){
+        // runs outside a test transaction, so nothing is rolled back for us
+        verificationTokenRepository.deleteAll();
+        passwordResetTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void purge_shouldDeleteOnlyExpiredTokensInChunks(){
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExpiredTokenPurger purger = new ExpiredTokenPurger(verificationTokenRepository, passwordResetTokenRepository,
+                transactionManager, meterRegistry, 2);
+
+        LocalDateTime now = LocalDateTime.now();
+        for(int i = 0; i < 5; i++){
+            verificationTokenRepository.save(new VerificationToken("expired-" + i, user("v" + i), now.minusMinutes(i + 1)));
+        }
+        VerificationToken live = verificationTokenRepository.save(new VerificationToken("live", user("live"), now.plusMinutes(15)));
+        passwordResetTokenRepository.save(new PasswordResetToken("expired-reset", user("r"), now.minusHours(1)));
+
+        purger.purge();
+
+        assertThat(verificationTokenRepository.findAll()).extracting(VerificationToken::getId).containsExactly(live.getId());
+        assertThat(passwordResetTokenRepository.count()).isZero();
+        assertThat(meterRegistry.get("tokens.purged").tag("type", "verification").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("tokens.purged").tag("type", "password_reset").counter().count()).isEqualTo(1);
+    }
+
+    private User user(String name){
+        return userRepository.save(User.builder().email(name + "@example.com").password("x").build());
+    }
+}
@@ -1,29 +1,53 @@
 package com.ffaustin.job_tracker.services;
 
+import com.ffaustin.job_tracker.dto.BulkJobRequest;
+import com.ffaustin.job_tracker.dto.BulkJobResult;
+import com.ffaustin.job_tracker.dto.CursorPage;
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.JobCursor;
 import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobPatchRequest;
 import com.ffaustin.job_tracker.dto.JobRequest;
 import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
 import com.ffaustin.job_tracker.entity.JobApplication;
 import com.ffaustin.job_tracker.entity.User;
 import com.ffaustin.job_tracker.repository.JobApplicationRepository;
 import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.search.JobSearchDocument;
+import com.ffaustin.job_tracker.search.JobSearchIndex;
+import com.ffaustin.job_tracker.search.JobSearchIndexLoader;
 import com.ffaustin.job_tracker.service.JobApplicationService;
+import com.ffaustin.job_tracker.exception.PreconditionFailedException;
+import com.ffaustin.job_tracker.service.JobDataVersions;
+import com.ffaustin.job_tracker.service.JobStatsService;
+import com.ffaustin.job_tracker.service.JobStatusHistoryService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
-import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,11 +55,18 @@ public class JobApplicationServiceTest {
 
     @Mock private UserRepository userRepository;
     @Mock private JobApplicationRepository jobApplicationRepository;
+    @Mock private JobSearchIndex searchIndex;
+    @Mock private JobSearchIndexLoader searchIndexLoader;
+    @Mock private JobStatsService jobStatsService;
+    @Mock private JobStatusHistoryService jobStatusHistoryService;
+    @Mock private JobDataVersions dataVersions;
 
     @InjectMocks private JobApplicationService jobApplicationService;
 
     private final String email = "fab@example.com";
 
+    private final Long userId = 7L;
+
     private final User user = User.builder()
             .email(email)
             .firstName("Fabrice")
@@ -50,26 +81,89 @@ public class JobApplicationServiceTest {
 
     @Test
     void createJob_shouldSaveJobForAuthenticatedUser(){
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
 
-        jobApplicationService.createJob(jobRequest, email);
+        jobApplicationService.createJob(jobRequest, userId);
 
-        verify(userRepository).findByEmail(email);
+        verify(userRepository).getReferenceById(userId);
+        verify(userRepository, never()).findByEmail(any());
         verify(jobApplicationRepository).save(any(JobApplication.class));
+        verify(searchIndex).index(any(JobSearchDocument.class));
     }
 
     @Test
     void getUserJobs_shouldReturnUserJobsPage(){
-        Page<JobApplication> mockPage = new PageImpl<>(List.of(new JobApplication()));
+        Page<JobApplicationSummary> mockPage = new PageImpl<>(List.of(summaryWith(1L, LocalDate.of(2024, 9, 1))));
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(jobApplicationRepository.findByUser(eq(user), any(Pageable.class))).thenReturn(mockPage);
+        when(jobApplicationRepository.findSummariesByUserId(eq(userId), any(Pageable.class))).thenReturn(mockPage);
 
-        Page<JobApplication> result = jobApplicationService.getUserJobs(email, 0, 5);
+        Page<JobApplicationSummary> result = jobApplicationService.getUserJobs(userId, 0, 5);
 
         assertThat(result.getContent()).hasSize(1);
-        verify(userRepository).findByEmail(email);
-        verify(jobApplicationRepository).findByUser(eq(user), any(Pageable.class));
+        verifyNoInteractions(userRepository);
+        verify(jobApplicationRepository).findSummariesByUserId(eq(userId), any(Pageable.class));
+    }
+
+    @Test
+    void getUserJobsAfter_shouldReturnSliceWithCursorWithoutCounting(){
+        List<JobApplicationSummary> rows = List.of(
+                summaryWith(9L, LocalDate.of(2024, 9, 3)),
+                summaryWith(8L, LocalDate.of(2024, 9, 2)),
+                summaryWith(7L, LocalDate.of(2024, 9, 1))
+        );
+
+        when(jobApplicationRepository.findFirstDatedKeysetSlice(eq(userId), any(Limit.class))).thenReturn(rows);
+
+        CursorPage<JobApplicationSummary> result = jobApplicationService.getUserJobsAfter(userId, "", 2, false);
+
+        assertThat(result.items()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(JobCursor.decode(result.nextCursor())).isEqualTo(new JobCursor(LocalDate.of(2024, 9, 2), 8L));
+        assertThat(result.approximateTotal()).isNull();
+        verify(jobApplicationRepository).findFirstDatedKeysetSlice(userId, Limit.of(3));
+        verify(jobApplicationRepository, never()).findFirstUndatedKeysetSlice(any(), any());
+        verify(jobApplicationRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    void getUserJobsAfter_shouldContinueFromCursorAndCapSize(){
+        String after = new JobCursor(LocalDate.of(2024, 9, 2), 8L).encode();
+
+        when(jobApplicationRepository.findDatedKeysetSliceAfter(eq(userId), eq(LocalDate.of(2024, 9, 2)), eq(8L), any(Limit.class)))
+                .thenReturn(List.of(summaryWith(7L, LocalDate.of(2024, 9, 1))));
+        when(jobApplicationRepository.findFirstUndatedKeysetSlice(eq(userId), any(Limit.class)))
+                .thenReturn(List.of(summaryWith(4L, null)));
+        when(jobApplicationRepository.countByUserId(userId)).thenReturn(3L);
+
+        CursorPage<JobApplicationSummary> result = jobApplicationService.getUserJobsAfter(userId, after, 10_000, true);
+
+        // the dated applications ran out, so the slice continues with the undated ones
+        assertThat(result.items()).extracting(JobApplicationSummary::id).containsExactly(7L, 4L);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.approximateTotal()).isEqualTo(3L);
+        verify(jobApplicationRepository).findDatedKeysetSliceAfter(userId, LocalDate.of(2024, 9, 2), 8L,
+                Limit.of(JobApplicationService.MAX_PAGE_SIZE + 1));
+        verify(jobApplicationRepository).findFirstUndatedKeysetSlice(userId, Limit.of(JobApplicationService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void getUserJobsAfter_shouldContinueThroughUndatedTail(){
+        String after = new JobCursor(null, 5L).encode();
+
+        when(jobApplicationRepository.findUndatedKeysetSliceAfter(eq(userId), eq(5L), any(Limit.class))).thenReturn(List.of());
+
+        CursorPage<JobApplicationSummary> result = jobApplicationService.getUserJobsAfter(userId, after, 10, false);
+
+        assertThat(result.items()).isEmpty();
+        verify(jobApplicationRepository).findUndatedKeysetSliceAfter(eq(userId), eq(5L), any(Limit.class));
+    }
+
+    @Test
+    void getUserJobsAfter_shouldRejectMalformedCursor(){
+        assertThatThrownBy(() -> jobApplicationService.getUserJobsAfter(userId, "%%%", 10, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor.");
     }
 
     @Test
@@ -78,39 +172,246 @@ public class JobApplicationServiceTest {
         job.setId(1L);
         job.setUser(user);
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(jobApplicationRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(job));
+        when(jobApplicationRepository.findByIdAndUserId(1L, userId)).thenReturn(Optional.of(job));
 
-        jobApplicationService.updateJob(1L, jobRequest, email);
+        jobApplicationService.updateJob(1L, jobRequest, userId, null);
 
-        verify(jobApplicationRepository).save(job);
+        verify(jobApplicationRepository).saveAndFlush(job);
+        verify(dataVersions).bump(userId);
+        // the status history sees the status the job had before the update
+        verify(jobStatusHistoryService).recordTransition(eq(userId),
+                eq(new JobStatusSnapshot(1L, null, "Linkedin", LocalDate.of(2024, 9, 1))), eq(JobStatus.PENDING));
     }
 
     @Test
     void deleteJob_shouldDeleteJobIfOwnedByUser(){
-        JobApplication job = new JobApplication();
+        when(jobApplicationRepository.deleteReturningSnapshot(userId, 1L, null))
+                .thenReturn(Optional.of(new JobStatusSnapshot(1L, JobStatus.PENDING, "Linkedin", LocalDate.of(2024, 9, 1))));
+
+        jobApplicationService.deleteJob(1L, userId, null);
+
+        verify(jobApplicationRepository).deleteReturningSnapshot(userId, 1L, null);
+        verifyNoMoreInteractions(jobApplicationRepository);
+        verify(jobStatsService).recordRemoved(userId, List.of(new JobBucketCount(JobStatus.PENDING, "Linkedin", LocalDate.of(2024, 9, 1), 1)));
+        verify(searchIndex).remove(userId, 1L);
+        verify(dataVersions).bump(userId);
+    }
+
+    @Test
+    void deleteJob_shouldReportMissingJobFromAffectedRows(){
+        assertThatThrownBy(() -> jobApplicationService.deleteJob(1L, userId, null))
+                .isInstanceOf(NoSuchElementException.class);
+        verify(jobStatsService, never()).recordRemoved(any(), any());
+        verifyNoInteractions(searchIndex, dataVersions);
+    }
+
+    @Test
+    void patchJob_shouldUpdateUntrackedFieldsWithOneStatement(){
+        JobPatchRequest patch = new JobPatchRequest("Staff Engineer", null, null, null, null, null, null);
+        when(jobApplicationRepository.patchReturningSnapshot(userId, 1L, 4L, patch))
+                .thenReturn(Optional.of(new JobStatusSnapshot(1L, JobStatus.PENDING, null, null)));
+        when(searchIndex.update(eq(userId), eq(1L), any())).thenReturn(true);
+
+        assertThat(jobApplicationService.patchJob(1L, patch, userId, 4L)).isEqualTo(5L);
 
+        verify(jobApplicationRepository).patchReturningSnapshot(userId, 1L, 4L, patch);
+        verifyNoMoreInteractions(jobApplicationRepository);
+        verifyNoInteractions(jobStatsService, jobStatusHistoryService, searchIndexLoader);
+        verify(dataVersions).bump(userId);
+    }
+
+    @Test
+    void patchJob_shouldRecordStatusChangeFromSnapshot(){
+        JobPatchRequest patch = new JobPatchRequest(null, null, null, null, JobStatus.INTERVIEW_SCHEDULED, null, null);
+        JobStatusSnapshot before = new JobStatusSnapshot(1L, JobStatus.PENDING, "Linkedin", LocalDate.of(2024, 9, 1));
+        when(jobApplicationRepository.patchReturningSnapshot(userId, 1L, null, patch)).thenReturn(Optional.of(before));
+
+        assertThat(jobApplicationService.patchJob(1L, patch, userId, null)).isNull();
+
+        // the buckets it replaced come back from the UPDATE itself, nothing is read before it
+        InOrder inOrder = inOrder(jobStatsService, jobStatusHistoryService, jobApplicationRepository);
+        inOrder.verify(jobApplicationRepository).patchReturningSnapshot(userId, 1L, null, patch);
+        inOrder.verify(jobStatusHistoryService).recordTransition(userId, before, JobStatus.INTERVIEW_SCHEDULED);
+        inOrder.verify(jobStatsService).recordUpdated(userId,
+                new JobBucketCount(JobStatus.PENDING, "Linkedin", LocalDate.of(2024, 9, 1), 1),
+                new JobBucketCount(JobStatus.INTERVIEW_SCHEDULED, "Linkedin", LocalDate.of(2024, 9, 1), 1));
+        // the status is not indexed for search
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void patchJob_shouldRefuseStaleIfMatchVersion(){
+        JobPatchRequest patch = new JobPatchRequest(null, "Walmart", null, null, null, null, null);
+        when(jobApplicationRepository.existsByIdAndUserId(1L, userId)).thenReturn(true);
+
+        assertThatThrownBy(() -> jobApplicationService.patchJob(1L, patch, userId, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verifyNoInteractions(dataVersions, searchIndex);
+    }
+
+    @Test
+    void patchJob_shouldRejectEmptyPatch(){
+        assertThatThrownBy(() -> jobApplicationService.patchJob(1L, new JobPatchRequest(null, null, null, null, null, null, null), userId, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jobApplicationRepository);
+    }
+
+    @Test
+    void updateJob_shouldRefuseStaleIfMatchVersion(){
+        JobApplication job = new JobApplication();
         job.setId(1L);
         job.setUser(user);
 
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(jobApplicationRepository.findByIdAndUser(1L, user)).thenReturn(Optional.of(job));
-
-        jobApplicationService.deleteJob(1L, jobRequest, email);
+        when(jobApplicationRepository.findByIdAndUserId(1L, userId)).thenReturn(Optional.of(job));
 
-        verify(jobApplicationRepository).delete(job);
+        // a new entity has no version yet, so no version the client sends can match
+        assertThatThrownBy(() -> jobApplicationService.updateJob(1L, jobRequest, userId, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(jobApplicationRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(dataVersions);
     }
 
     @Test
     void filterJobs_shouldApplySpecificationAndReturnPage(){
-        JobFilterRequest filter = new JobFilterRequest("PENDING", "walmart", "asc", null);
-        Page<JobApplication> mockPage = new PageImpl<>(List.of(new JobApplication()));
+        JobFilterRequest filter = new JobFilterRequest("PENDING", "walmart", "dateApplied", "asc");
+        Page<JobApplicationSummary> mockPage = new PageImpl<>(List.of(summaryWith(1L, LocalDate.of(2024, 9, 1))));
 
-        when(jobApplicationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(mockPage);
+        when(jobApplicationRepository.findSummaries(ArgumentMatchers.<Specification<JobApplication>>any(), any(Pageable.class))).thenReturn(mockPage);
 
-        Page<JobApplication> result = jobApplicationService.filterJobs(email, filter, 0, 10);
+        Page<JobApplicationSummary> result = jobApplicationService.filterJobs(userId, filter, 0, 10);
 
         assertThat(result.getContent()).hasSize(1);
-        verify(jobApplicationRepository).findAll(any(Specification.class), any(Pageable.class));
+        verify(jobApplicationRepository).findSummaries(ArgumentMatchers.<Specification<JobApplication>>any(),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "dateApplied", "id"))));
+    }
+
+    @Test
+    void filterJobs_shouldDefaultToMostRecentlyAppliedFirst(){
+        when(jobApplicationRepository.findSummaries(ArgumentMatchers.<Specification<JobApplication>>any(), any(Pageable.class))).thenReturn(Page.empty());
+
+        jobApplicationService.filterJobs(userId, new JobFilterRequest(null, null, null, null), 0, 10);
+
+        verify(jobApplicationRepository).findSummaries(ArgumentMatchers.<Specification<JobApplication>>any(),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dateApplied", "id"))));
+    }
+
+    @Test
+    void filterJobs_shouldRejectUnsupportedSortBeforeQuerying(){
+        JobFilterRequest filter = new JobFilterRequest(null, null, "applicationLink", "asc");
+
+        assertThatThrownBy(() -> jobApplicationService.filterJobs(userId, filter, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unsupported sort key: applicationLink");
+
+        verifyNoInteractions(jobApplicationRepository);
+    }
+
+    @Test
+    void filterJobs_shouldRejectUnknownStatusBeforeQuerying(){
+        JobFilterRequest filter = new JobFilterRequest("HIRED", null, null, null);
+
+        assertThatThrownBy(() -> jobApplicationService.filterJobs(userId, filter, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown job status: HIRED");
+
+        verifyNoInteractions(jobApplicationRepository);
+    }
+
+    @Test
+    void searchJobs_shouldReturnSummariesInIndexRankOrder(){
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search(userId, "goo eng", 20)).thenReturn(List.of(8L, 3L));
+        when(jobApplicationRepository.findSummariesByUserIdAndIdIn(userId, List.of(8L, 3L)))
+                .thenReturn(List.of(summaryWith(3L, LocalDate.of(2024, 9, 1)), summaryWith(8L, LocalDate.of(2024, 9, 2))));
+
+        List<JobApplicationSummary> result = jobApplicationService.searchJobs(userId, "goo eng", 20);
+
+        assertThat(result).extracting(JobApplicationSummary::id).containsExactly(8L, 3L);
+    }
+
+    @Test
+    void searchJobs_shouldNotQueryDatabaseWithoutMatches(){
+        when(searchIndex.search(userId, "nothing", 20)).thenReturn(List.of());
+
+        assertThat(jobApplicationService.searchJobs(userId, "nothing", 20)).isEmpty();
+        verifyNoInteractions(jobApplicationRepository);
+    }
+
+    @Test
+    void searchJobs_shouldRejectBlankQuery(){
+        assertThatThrownBy(() -> jobApplicationService.searchJobs(userId, " ", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkUpdateStatus_shouldRunOneUpdateForTheSelection(){
+        when(jobApplicationRepository.lockStatusSnapshots(any())).thenReturn(List.of(
+                new JobStatusSnapshot(1L, JobStatus.PENDING, null, null),
+                new JobStatusSnapshot(2L, JobStatus.PENDING, "Indeed", null)));
+        when(jobApplicationRepository.updateStatus(any(), eq(JobStatus.REJECTED))).thenReturn(2);
+
+        BulkJobResult result = jobApplicationService.bulkUpdateStatus(userId,
+                new BulkJobRequest(null, new JobFilterRequest("PENDING", null, null, null), JobStatus.REJECTED));
+
+        assertThat(result.affected()).isEqualTo(2);
+        verify(jobApplicationRepository).updateStatus(any(), eq(JobStatus.REJECTED));
+        // the selection is read and locked, and its history recorded, before the update so the statistics move the same rows
+        InOrder order = inOrder(jobStatsService, jobStatusHistoryService, jobApplicationRepository);
+        order.verify(jobApplicationRepository).lockStatusSnapshots(any());
+        order.verify(jobStatusHistoryService).recordTransitions(eq(userId), any(), any(), eq(JobStatus.REJECTED));
+        order.verify(jobApplicationRepository).updateStatus(any(), eq(JobStatus.REJECTED));
+        order.verify(jobStatsService).recordStatusChange(eq(userId), any(), eq(JobStatus.REJECTED));
+        verifyNoMoreInteractions(jobApplicationRepository);
+    }
+
+    @Test
+    void bulkUpdateStatus_shouldRefuseWhenMoreApplicationsMatchThanWereLocked(){
+        when(jobApplicationRepository.lockStatusSnapshots(any())).thenReturn(List.of(new JobStatusSnapshot(1L, JobStatus.PENDING, null, null)));
+        // an application created by a concurrent request started matching the filter after the read
+        when(jobApplicationRepository.updateStatus(any(), eq(JobStatus.REJECTED))).thenReturn(2);
+
+        assertThatThrownBy(() -> jobApplicationService.bulkUpdateStatus(userId,
+                new BulkJobRequest(null, new JobFilterRequest("PENDING", null, null, null), JobStatus.REJECTED)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verifyNoInteractions(jobStatsService, dataVersions);
+    }
+
+    @Test
+    void bulkUpdateStatus_shouldRequireStatus(){
+        assertThatThrownBy(() -> jobApplicationService.bulkUpdateStatus(userId, new BulkJobRequest(List.of(1L), null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bulkDelete_shouldDeleteByIdsAndReindexSearch(){
+        when(jobApplicationRepository.lockStatusSnapshots(ArgumentMatchers.<Specification<JobApplication>>any())).thenReturn(List.of(
+                new JobStatusSnapshot(1L, JobStatus.PENDING, null, null),
+                new JobStatusSnapshot(2L, JobStatus.PENDING, null, null),
+                new JobStatusSnapshot(3L, JobStatus.REJECTED, null, null)));
+        when(jobApplicationRepository.delete(ArgumentMatchers.<Specification<JobApplication>>any())).thenReturn(3L);
+
+        BulkJobResult result = jobApplicationService.bulkDelete(userId, new BulkJobRequest(List.of(1L, 2L, 3L), null, null));
+
+        assertThat(result.affected()).isEqualTo(3);
+        verify(searchIndexLoader).reindexUser(userId);
+    }
+
+    @Test
+    void bulkDelete_shouldRejectMissingOrAmbiguousOrUnrestrictedSelection(){
+        JobFilterRequest emptyFilter = new JobFilterRequest(null, null, "status", "asc");
+        JobFilterRequest companyFilter = new JobFilterRequest(null, "walmart", null, null);
+
+        assertThatThrownBy(() -> jobApplicationService.bulkDelete(userId, new BulkJobRequest(null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jobApplicationService.bulkDelete(userId, new BulkJobRequest(null, emptyFilter, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jobApplicationService.bulkDelete(userId, new BulkJobRequest(List.of(1L), companyFilter, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(jobApplicationRepository, searchIndexLoader);
+    }
+
+    private JobApplicationSummary summaryWith(Long id, LocalDate dateApplied){
+        return new JobApplicationSummary(id, "Engineer", "Google", "Linkedin", null, JobStatus.PENDING, dateApplied, null, 0L);
     }
 }
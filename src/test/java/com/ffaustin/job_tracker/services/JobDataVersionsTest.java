@@ -0,0 +1,36 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.service.JobDataVersions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobDataVersionsTest {
+
+    private final JobDataVersions dataVersions = new JobDataVersions();
+
+    @Test
+    void etag_shouldTellApartQueriesWithTheSameHashCode(){
+        // "Aa" and "BB" share a String hash code, so a hash of the parameters would give both reads one ETag
+        assertThat(dataVersions.etag(1L, "filter", "Aa", null, null, null, 0, 10))
+                .isNotEqualTo(dataVersions.etag(1L, "filter", "BB", null, null, null, 0, 10));
+    }
+
+    @Test
+    void etag_shouldTellApartParametersSplitDifferently(){
+        assertThat(dataVersions.etag(1L, "filter", "ab", "c")).isNotEqualTo(dataVersions.etag(1L, "filter", "a", "bc"));
+        assertThat(dataVersions.etag(1L, "filter", null, "x")).isNotEqualTo(dataVersions.etag(1L, "filter", "null", "x"));
+    }
+
+    @Test
+    void etag_shouldChangeWithTheUsersVersionOnly(){
+        String before = dataVersions.etag(1L, "page", 0, 10);
+        assertThat(dataVersions.etag(1L, "page", 0, 10)).isEqualTo(before);
+
+        dataVersions.bump(2L);
+        assertThat(dataVersions.etag(1L, "page", 0, 10)).isEqualTo(before);
+
+        dataVersions.bump(1L);
+        assertThat(dataVersions.etag(1L, "page", 0, 10)).isNotEqualTo(before);
+    }
+}
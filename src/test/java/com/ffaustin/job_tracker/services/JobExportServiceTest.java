@@ -0,0 +1,88 @@
+package com.ffaustin.job_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ffaustin.job_tracker.dto.JobApplicationSummary;
+import com.ffaustin.job_tracker.dto.JobFileFormat;
+import com.ffaustin.job_tracker.dto.JobFilterRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.service.JobExportService;
+import com.ffaustin.job_tracker.util.CsvReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JobExportServiceTest {
+
+    private final JobApplicationRepository jobApplicationRepository = mock(JobApplicationRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final JobExportService jobExportService = new JobExportService(
+            jobApplicationRepository, transactionManager, new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS), 250);
+
+    private final Long userId = 7L;
+
+    private final JobApplicationSummary google = new JobApplicationSummary(
+            1L, "Engineer", "Google", "LinkedIn", null, JobStatus.PENDING, LocalDate.of(2024, 9, 1), null, 0L);
+    private final JobApplicationSummary walmart = new JobApplicationSummary(
+            2L, "Engineer \"II\"", "Walmart, Inc.", null, "https://jobs.example/2", JobStatus.REJECTED, null, null, 3L);
+
+    @Test
+    void export_shouldWriteCsvThatReadsBackFieldForField() throws IOException {
+        when(jobApplicationRepository.streamSummaries(any(), any(), eq(250))).thenReturn(Stream.of(google, walmart));
+
+        String csv = run(new JobFilterRequest(null, null, null, null), JobFileFormat.CSV);
+
+        CsvReader reader = new CsvReader(new StringReader(csv), 1024);
+        assertThat(reader.next()).containsExactly(
+                "id", "position", "company", "jobBoardUsed", "applicationLink", "status", "dateApplied", "interviewDate");
+        assertThat(reader.next()).containsExactly("1", "Engineer", "Google", "LinkedIn", "", "PENDING", "2024-09-01", "");
+        assertThat(reader.next()).containsExactly("2", "Engineer \"II\"", "Walmart, Inc.", "", "https://jobs.example/2", "REJECTED", "", "");
+        assertThat(reader.next()).isNull();
+
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void export_shouldWriteOneJsonObjectPerLine() throws IOException {
+        when(jobApplicationRepository.streamSummaries(any(), any(), eq(250))).thenReturn(Stream.of(google, walmart));
+
+        String ndjson = run(new JobFilterRequest("pending", null, "status", "asc"), JobFileFormat.NDJSON);
+
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"company\":\"Google\"").contains("\"dateApplied\":\"2024-09-01\"");
+        verify(jobApplicationRepository).streamSummaries(any(), eq(Sort.by(Sort.Direction.ASC, "status", "dateApplied", "id")), eq(250));
+    }
+
+    @Test
+    void export_shouldRejectInvalidFilterBeforeStreaming(){
+        assertThatThrownBy(() -> jobExportService.export(userId, new JobFilterRequest(null, null, "company", null), JobFileFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> jobExportService.export(userId, new JobFilterRequest("HIRED", null, null, null), JobFileFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(jobApplicationRepository, transactionManager);
+    }
+
+    private String run(JobFilterRequest filter, JobFileFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jobExportService.export(userId, filter, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ffaustin.job_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ffaustin.job_tracker.dto.ImportReport;
+import com.ffaustin.job_tracker.dto.ImportRowError;
+import com.ffaustin.job_tracker.dto.JobFileFormat;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.repository.JobApplicationBatchWriter;
+import com.ffaustin.job_tracker.search.JobSearchIndexLoader;
+import com.ffaustin.job_tracker.service.JobDataVersions;
+import com.ffaustin.job_tracker.service.JobImportService;
+import com.ffaustin.job_tracker.service.JobStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class JobImportServiceTest {
+
+    private final JobApplicationBatchWriter batchWriter = mock(JobApplicationBatchWriter.class);
+    private final JobSearchIndexLoader searchIndexLoader = mock(JobSearchIndexLoader.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final JobDataVersions dataVersions = new JobDataVersions();
+
+    private final JobImportService jobImportService = new JobImportService(
+            batchWriter, searchIndexLoader, mock(JobStatsService.class), dataVersions, transactionManager, new ObjectMapper(), 2, 6);
+
+    private final Long userId = 7L;
+
+    // batches are reused by the service once written, so they are copied as they arrive
+    private final List<List<JobRequest>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void captureBatches(){
+        doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(1))))
+                .when(batchWriter).insertAll(eq(userId), any());
+    }
+
+    @Test
+    void importJobs_shouldWriteValidCsvRowsInBatchesAndReportTheRest() throws IOException {
+        String csv = """
+                Company,Position,Job Board Used,Status,Date Applied
+                Google,Engineer,LinkedIn,pending,2024-09-01
+                "Walmart, Inc.","Engineer ""II""\",,INTERVIEW_SCHEDULED,
+                Target,,Indeed,PENDING,2024-09-02
+                Amazon,SDE,Indeed,HIRED,2024-09-03
+                Netflix,SRE,,,not-a-date
+                Apple,Designer,,,2024-09-04
+                """;
+
+        ImportReport report = jobImportService.importJobs(userId, stream(csv), JobFileFormat.CSV);
+
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(3);
+        // cached reads of the user's jobs are invalidated
+        assertThat(dataVersions.current(userId)).isPositive();
+        assertThat(report.errors()).extracting(ImportRowError::line).containsExactly(4L, 5L, 6L);
+        assertThat(report.errors().get(0).message()).contains("position");
+        assertThat(report.errors().get(1).message()).contains("HIRED");
+        assertThat(report.errors().get(2).message()).contains("not-a-date");
+
+        assertThat(batches).hasSize(2);
+        JobRequest walmart = batches.get(0).get(1);
+        assertThat(walmart.company()).isEqualTo("Walmart, Inc.");
+        assertThat(walmart.position()).isEqualTo("Engineer \"II\"");
+        assertThat(walmart.status()).isEqualTo(JobStatus.INTERVIEW_SCHEDULED);
+        assertThat(batches.get(0).get(0).applicationDate()).isEqualTo(LocalDate.of(2024, 9, 1));
+
+        verify(transactionManager, times(2)).commit(any());
+        verify(searchIndexLoader).reindexUser(userId);
+    }
+
+    @Test
+    void importJobs_shouldReadNdjsonAndReportMalformedLines() throws IOException {
+        String ndjson = """
+                {"company":"Google","position":"Engineer","applicationDate":"2024-09-01","status":"OFFER_RECEIVED"}
+
+                {"company":"Walmart"
+                ["not","an","object"]
+                {"company":"Target","position":"Analyst","interviewDate":null}
+                """;
+
+        ImportReport report = jobImportService.importJobs(userId, stream(ndjson), JobFileFormat.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ImportRowError::line).containsExactly(3L, 4L);
+        assertThat(batches.get(0)).extracting(JobRequest::company).containsExactly("Google", "Target");
+        assertThat(batches.get(0).get(0).status()).isEqualTo(JobStatus.OFFER_RECEIVED);
+    }
+
+    @Test
+    void importJobs_shouldStopAtTheRowLimit() throws IOException {
+        StringBuilder csv = new StringBuilder("company,position\n");
+        for(int i = 0; i < 8; i++){
+            csv.append("Company ").append(i).append(",Engineer\n");
+        }
+
+        ImportReport report = jobImportService.importJobs(userId, stream(csv.toString()), JobFileFormat.CSV);
+
+        assertThat(report.imported()).isEqualTo(6);
+        assertThat(report.errors()).singleElement().satisfies(error -> {
+            assertThat(error.line()).isEqualTo(8L);
+            assertThat(error.message()).contains("Row limit");
+        });
+    }
+
+    @Test
+    void importJobs_shouldReportRowsOfAFailedBatchAndKeepGoing() throws IOException {
+        doThrow(new DataIntegrityViolationException("boom"))
+                .doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(1))))
+                .when(batchWriter).insertAll(eq(userId), any());
+
+        String csv = "company,position\nA,x\nB,x\nC,x\n";
+
+        ImportReport report = jobImportService.importJobs(userId, stream(csv), JobFileFormat.CSV);
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ImportRowError::line).containsExactly(2L, 3L);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void importJobs_shouldNotReindexWhenNothingWasImported() throws IOException {
+        ImportReport report = jobImportService.importJobs(userId, stream("company,position\n,\n"), JobFileFormat.CSV);
+
+        assertThat(report.imported()).isZero();
+        verifyNoInteractions(batchWriter, searchIndexLoader);
+        assertThat(dataVersions.current(userId)).isZero();
+    }
+
+    @Test
+    void importJobs_shouldRejectEmptyCsv(){
+        assertThatThrownBy(() -> jobImportService.importJobs(userId, stream(""), JobFileFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void resolveFormat_shouldPreferExplicitFormatThenFileName(){
+        assertThat(JobImportService.resolveFormat("NDJSON", "jobs.csv", "text/csv")).isEqualTo(JobFileFormat.NDJSON);
+        assertThat(JobImportService.resolveFormat(null, "jobs.csv", null)).isEqualTo(JobFileFormat.CSV);
+        assertThat(JobImportService.resolveFormat(null, "upload", "application/x-ndjson")).isEqualTo(JobFileFormat.NDJSON);
+        assertThatThrownBy(() -> JobImportService.resolveFormat(null, "jobs.xlsx", "application/octet-stream"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteArrayInputStream stream(String content){
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.dto.JobBucketCount;
+import com.ffaustin.job_tracker.dto.JobRequest;
+import com.ffaustin.job_tracker.dto.JobStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterRepository;
+import com.ffaustin.job_tracker.repository.JobStatsCounterWriter;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.service.JobStatsService;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@DataJpaTest
+@Import({JobStatsService.class, JobStatsCounterWriter.class})
+public class JobStatsServiceTest {
+
+    @Autowired private JobStatsService jobStatsService;
+    @Autowired private JobStatsCounterRepository counterRepository;
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp(){
+        user = userRepository.saveAndFlush(User.builder().email("fab@example.com").password("x").build());
+    }
+
+    @Test
+    void reconcile_shouldBuildCountersOfUserWithoutAny(){
+        save("Google", "LinkedIn", JobStatus.INTERVIEW_SCHEDULED, LocalDate.of(2024, 9, 1));
+        save("Walmart", "Indeed", JobStatus.PENDING, LocalDate.of(2024, 9, 20));
+        save("Amazon", "LinkedIn", JobStatus.OFFER_RECEIVED, LocalDate.of(2024, 10, 2));
+        save("Meta", null, JobStatus.REJECTED, null);
+
+        // applications that predate the counters read as zeros, and reading does not build them
+        assertThat(jobStatsService.getStats(user.getId()).total()).isZero();
+        assertThat(counterRepository.findByUserId(user.getId())).isEmpty();
+
+        assertThat(jobStatsService.reconcile(user.getId())).isTrue();
+        entityManager.clear();
+        JobStatsResponse stats = jobStatsService.getStats(user.getId());
+
+        assertThat(stats.total()).isEqualTo(4);
+        assertThat(stats.byStatus()).containsEntry("PENDING", 1L).containsEntry("ACCEPTED", 0L).hasSize(JobStatus.values().length);
+        assertThat(stats.byJobBoard()).containsExactly(entry("LinkedIn", 2L), entry("Indeed", 1L), entry("unspecified", 1L));
+        assertThat(stats.byMonth()).containsExactly(entry("2024-09", 2L), entry("2024-10", 1L), entry("unspecified", 1L));
+        assertThat(stats.interviewRate()).isEqualTo(0.5);
+        assertThat(stats.offerRate()).isEqualTo(0.25);
+        assertThat(counterRepository.findByUserId(user.getId())).isNotEmpty();
+    }
+
+    @Test
+    void getStats_shouldReturnZeroesForUserWithoutApplications(){
+        JobStatsResponse stats = jobStatsService.getStats(user.getId());
+
+        assertThat(stats.total()).isZero();
+        assertThat(stats.byJobBoard()).isEmpty();
+        assertThat(stats.interviewRate()).isZero();
+    }
+
+    @Test
+    void recordMethods_shouldKeepCountersEqualToApplications(){
+        JobApplication google = save("Google", "LinkedIn", JobStatus.PENDING, LocalDate.of(2024, 9, 1));
+        jobStatsService.recordCreated(user.getId(), google);
+        JobApplication walmart = save("Walmart", "Indeed", JobStatus.PENDING, LocalDate.of(2024, 10, 1));
+        jobStatsService.recordCreated(user.getId(), walmart);
+
+        JobBucketCount before = JobStatsService.bucketsOf(google);
+        google.setStatus(JobStatus.INTERVIEW_SCHEDULED);
+        google.setJobBoardUsed("Glassdoor");
+        jobStatsService.recordUpdated(user.getId(), before, google);
+
+        List<JobBucketCount> pending = jobApplicationRepository.countBuckets(JobApplicationSpecification.ofUser(user.getId()));
+        jobStatsService.recordStatusChange(user.getId(), pending, JobStatus.REJECTED);
+        jobApplicationRepository.findAll().forEach(job -> job.setStatus(JobStatus.REJECTED));
+
+        jobApplicationRepository.delete(walmart);
+        jobStatsService.recordRemoved(user.getId(), List.of(JobStatsService.bucketsOf(walmart)));
+
+        jobStatsService.recordImported(user.getId(), List.of(
+                new JobRequest("Analyst", "Target", "Indeed", null, JobStatus.PENDING, null, LocalDate.of(2024, 11, 5))));
+        save("Target", "Indeed", JobStatus.PENDING, LocalDate.of(2024, 11, 5));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(jobStatsService.reconcile(user.getId())).isFalse();
+
+        JobStatsResponse stats = jobStatsService.getStats(user.getId());
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byStatus()).containsEntry("REJECTED", 1L).containsEntry("PENDING", 1L);
+        assertThat(stats.byJobBoard()).containsOnlyKeys("Glassdoor", "Indeed");
+        assertThat(stats.byMonth()).containsOnlyKeys("2024-09", "2024-11");
+    }
+
+    @Test
+    void reconcile_shouldCorrectDriftedCounters(){
+        save("Google", "LinkedIn", JobStatus.PENDING, LocalDate.of(2024, 9, 1));
+        jobStatsService.reconcile(user.getId());
+
+        // an application written without going through the service
+        save("Walmart", "Indeed", JobStatus.PENDING, LocalDate.of(2024, 9, 2));
+        entityManager.clear();
+
+        assertThat(jobStatsService.reconcile(user.getId())).isTrue();
+        entityManager.clear();
+
+        assertThat(jobStatsService.getStats(user.getId()).total()).isEqualTo(2);
+        assertThat(jobStatsService.reconcile(user.getId())).isFalse();
+    }
+
+    @Test
+    void recordCreated_shouldCreateMissingCounters(){
+        JobApplication google = save("Google", "LinkedIn", JobStatus.PENDING, LocalDate.of(2024, 9, 1));
+
+        // the first application of the user finds no counter of any bucket
+        jobStatsService.recordCreated(user.getId(), google);
+        jobStatsService.recordCreated(user.getId(), save("Walmart", "LinkedIn", JobStatus.PENDING, LocalDate.of(2024, 9, 2)));
+        entityManager.clear();
+
+        JobStatsResponse stats = jobStatsService.getStats(user.getId());
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.byJobBoard()).containsExactly(entry("LinkedIn", 2L));
+        assertThat(jobStatsService.reconcile(user.getId())).isFalse();
+    }
+
+    private JobApplication save(String company, String jobBoard, JobStatus status, LocalDate dateApplied){
+        JobApplication job = new JobApplication();
+        job.setUser(user);
+        job.setCompany(company);
+        job.setPosition("Engineer");
+        job.setJobBoardUsed(jobBoard);
+        job.setStatus(status);
+        job.setDateApplied(dateApplied);
+        return jobApplicationRepository.saveAndFlush(job);
+    }
+}
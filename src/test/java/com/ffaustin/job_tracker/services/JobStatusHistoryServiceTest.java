@@ -0,0 +1,123 @@
+package com.ffaustin.job_tracker.services;
+
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse;
+import com.ffaustin.job_tracker.dto.JobStageStatsResponse.Durations;
+import com.ffaustin.job_tracker.dto.JobStatus;
+import com.ffaustin.job_tracker.dto.JobStatusSnapshot;
+import com.ffaustin.job_tracker.entity.JobApplication;
+import com.ffaustin.job_tracker.entity.JobStatusEvent;
+import com.ffaustin.job_tracker.entity.User;
+import com.ffaustin.job_tracker.repository.JobApplicationRepository;
+import com.ffaustin.job_tracker.repository.JobStatusEventRepository;
+import com.ffaustin.job_tracker.repository.JobStatusHistoryWriter;
+import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.service.JobStatusHistoryService;
+import com.ffaustin.job_tracker.specifications.JobApplicationSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({JobStatusHistoryService.class, JobStatusHistoryWriter.class})
+public class JobStatusHistoryServiceTest {
+
+    @Autowired private JobStatusHistoryService historyService;
+    @Autowired private JobStatusEventRepository eventRepository;
+    @Autowired private JobApplicationRepository jobApplicationRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp(){
+        user = userRepository.saveAndFlush(User.builder().email("fab@example.com").password("x").build());
+    }
+
+    @Test
+    void transitions_shouldBeLoggedAndMeasuredFromTheApplicationDate(){
+        JobApplication job = save("LinkedIn", JobStatus.PENDING, LocalDate.now().minusDays(10));
+        historyService.recordCreated(user.getId(), job);
+
+        move(job, JobStatus.INTERVIEW_SCHEDULED);
+        move(job, JobStatus.OFFER_RECEIVED);
+
+        assertThat(eventRepository.findByJobIdOrderById(job.getId()))
+                .extracting(JobStatusEvent::getFromStatus, JobStatusEvent::getToStatus)
+                .containsExactly(
+                        tuple(null, JobStatus.PENDING),
+                        tuple(JobStatus.PENDING, JobStatus.INTERVIEW_SCHEDULED),
+                        tuple(JobStatus.INTERVIEW_SCHEDULED, JobStatus.OFFER_RECEIVED));
+
+        JobStageStatsResponse stats = historyService.getStageStats(user.getId());
+        assertThat(stats.overall().timeToInterview()).isEqualTo(new Durations(1, 10, 10));
+        assertThat(stats.overall().timeToOffer()).isEqualTo(new Durations(1, 10, 10));
+        // PENDING lasted from the application date, the interview stage from the transition into it
+        assertThat(stats.overall().timeInStatus()).containsEntry("PENDING", new Durations(1, 10, 10))
+                .containsEntry("INTERVIEW_SCHEDULED", new Durations(1, 0, 0));
+        assertThat(stats.byJobBoard()).containsOnlyKeys("LinkedIn");
+    }
+
+    @Test
+    void reachingAStageAgain_shouldNotBeMeasuredTwice(){
+        JobApplication job = save(null, JobStatus.PENDING, LocalDate.now().minusDays(3));
+
+        move(job, JobStatus.INTERVIEW_SCHEDULED);
+        move(job, JobStatus.REJECTED);
+        move(job, JobStatus.INTERVIEW_SCHEDULED);
+
+        JobStageStatsResponse stats = historyService.getStageStats(user.getId());
+        assertThat(stats.overall().timeToInterview().samples()).isEqualTo(1);
+        assertThat(stats.overall().timeToOffer()).isNull();
+        assertThat(stats.overall().timeInStatus()).containsOnlyKeys("PENDING", "INTERVIEW_SCHEDULED", "REJECTED");
+        assertThat(stats.byJobBoard()).containsOnlyKeys("unspecified");
+    }
+
+    @Test
+    void recordTransitions_shouldMeasureEverySelectedApplication(){
+        // ten applications made 1 to 10 days ago, half through each board
+        for(int days = 1; days <= 10; days++){
+            save(days % 2 == 0 ? "Indeed" : "LinkedIn", JobStatus.PENDING, LocalDate.now().minusDays(days));
+        }
+        // already rejected: not a transition
+        save("Indeed", JobStatus.REJECTED, LocalDate.now());
+
+        Specification<JobApplication> selection = JobApplicationSpecification.ofUser(user.getId());
+        List<JobStatusSnapshot> before = jobApplicationRepository.findStatusSnapshots(selection);
+        historyService.recordTransitions(user.getId(), before, selection, JobStatus.REJECTED);
+
+        assertThat(eventRepository.count()).isEqualTo(10);
+
+        JobStageStatsResponse stats = historyService.getStageStats(user.getId());
+        assertThat(stats.overall().timeInStatus().get("PENDING")).isEqualTo(new Durations(10, 5, 9));
+        assertThat(stats.byJobBoard().get("Indeed").timeInStatus().get("PENDING")).isEqualTo(new Durations(5, 6, 10));
+        assertThat(stats.byJobBoard().get("LinkedIn").timeInStatus().get("PENDING")).isEqualTo(new Durations(5, 5, 9));
+        assertThat(stats.overall().timeToInterview()).isNull();
+    }
+
+    private void move(JobApplication job, JobStatus status){
+        historyService.recordTransition(user.getId(),
+                new JobStatusSnapshot(job.getId(), job.getStatus(), job.getJobBoardUsed(), job.getDateApplied()), status);
+        job.setStatus(status);
+        jobApplicationRepository.saveAndFlush(job);
+    }
+
+    private JobApplication save(String jobBoard, JobStatus status, LocalDate dateApplied){
+        JobApplication job = new JobApplication();
+        job.setUser(user);
+        job.setCompany("Google");
+        job.setPosition("Engineer");
+        job.setJobBoardUsed(jobBoard);
+        job.setStatus(status);
+        job.setDateApplied(dateApplied);
+        return jobApplicationRepository.saveAndFlush(job);
+    }
+}
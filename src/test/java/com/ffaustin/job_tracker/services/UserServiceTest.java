@@ -3,6 +3,7 @@ package com.ffaustin.job_tracker.services;
 import com.ffaustin.job_tracker.dto.UserResponse;
 import com.ffaustin.job_tracker.entity.User;
 import com.ffaustin.job_tracker.repository.UserRepository;
+import com.ffaustin.job_tracker.security.CustomUserDetailsService;
 import com.ffaustin.job_tracker.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +28,7 @@ public class UserServiceTest {
 
     @Mock private UserRepository userRepository;
     @Mock private BCryptPasswordEncoder passwordEncoder;
+    @Mock private CustomUserDetailsService userDetailsService;
 
     @InjectMocks private UserService userService;
 
@@ -108,6 +110,7 @@ public class UserServiceTest {
 
         assertEquals("new-hashed", user.getPassword());
         verify(userRepository).save(user);
+        verify(userDetailsService).evict("fab@example.com");
     }
 
     @Test